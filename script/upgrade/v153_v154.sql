@@ -0,0 +1,109 @@
+SET NAMES utf8mb4;
+SET FOREIGN_KEY_CHECKS = 0;
+
+-- bin fingerprint, rows of old version are filled by node-mgr on first lookup of group
+ALTER TABLE tb_contract ADD COLUMN contract_bin_hash varchar(64) DEFAULT NULL COMMENT '合约binary去除metadata后的sha256' AFTER bytecode_bin;
+ALTER TABLE tb_contract ADD COLUMN bytecode_bin_hash varchar(64) DEFAULT NULL COMMENT '合约bin的sha256' AFTER contract_bin_hash;
+ALTER TABLE tb_contract ADD COLUMN bytecode_bin_len int(11) DEFAULT NULL COMMENT '合约bin的长度' AFTER bytecode_bin_hash;
+ALTER TABLE tb_contract ADD INDEX idx_group_bin_hash (group_id,contract_bin_hash);
+ALTER TABLE tb_contract ADD INDEX idx_group_bytecode_hash (group_id,bytecode_bin_hash);
+ALTER TABLE tb_abi ADD COLUMN contract_bin_hash varchar(64) DEFAULT NULL COMMENT '合约ABI的runtime-bin去除metadata后的sha256' AFTER contract_bin;
+ALTER TABLE tb_abi ADD INDEX idx_group_bin_hash (group_id,contract_bin_hash);
+
+CREATE TABLE IF NOT EXISTS tb_monitor_shard (
+  group_id int(11) NOT NULL COMMENT '所属群组编号',
+  shard_item int(11) NOT NULL COMMENT '分片编号(block_number取模)',
+  shard_count int(11) NOT NULL COMMENT '分片总数',
+  owner varchar(128) DEFAULT NULL COMMENT '持有租约的实例',
+  lease_expire datetime DEFAULT NULL COMMENT '租约过期时间',
+  heartbeat_time datetime DEFAULT NULL COMMENT '最近心跳时间',
+  audited_count bigint(20) DEFAULT '0' COMMENT '已审计交易数',
+  last_block bigint(20) DEFAULT NULL COMMENT '已审计的最大块高',
+  create_time datetime DEFAULT NULL COMMENT '创建时间',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (group_id,shard_item)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='交易审计分片租约表';
+
+CREATE TABLE IF NOT EXISTS tb_stat_rollup (
+  group_id int(11) NOT NULL COMMENT '所属群组编号',
+  tier int(11) NOT NULL COMMENT '汇总粒度（秒）：60/3600/86400',
+  bucket_time bigint(20) NOT NULL COMMENT '汇总区间开始时间戳（毫秒）',
+  block_count int(11) NOT NULL DEFAULT '0' COMMENT '区块数',
+  tx_count bigint(20) NOT NULL DEFAULT '0' COMMENT '交易数（区块大小之和）',
+  tps_sum bigint(20) NOT NULL DEFAULT '0' COMMENT 'tps之和',
+  tps_min int(11) DEFAULT NULL COMMENT 'tps最小值',
+  tps_max int(11) DEFAULT NULL COMMENT 'tps最大值',
+  block_size_min int(11) DEFAULT NULL COMMENT '区块大小最小值',
+  block_size_max int(11) DEFAULT NULL COMMENT '区块大小最大值',
+  block_cycle_sum double NOT NULL DEFAULT '0' COMMENT '出块周期之和（秒）',
+  block_cycle_min double DEFAULT NULL COMMENT '出块周期最小值（秒）',
+  block_cycle_max double DEFAULT NULL COMMENT '出块周期最大值（秒）',
+  first_block int(11) DEFAULT NULL COMMENT '区间内汇总的起始块高',
+  last_block int(11) DEFAULT NULL COMMENT '区间内汇总的最大块高',
+  create_time datetime DEFAULT NULL COMMENT '创建时间',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (group_id,tier,bucket_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='区块统计数据汇总表';
+
+-- roll up block stat saved before upgrade
+INSERT IGNORE INTO tb_stat_rollup (group_id,tier,bucket_time,block_count,tx_count,tps_sum,tps_min,tps_max,
+  block_size_min,block_size_max,block_cycle_sum,block_cycle_min,block_cycle_max,first_block,last_block,create_time,modify_time)
+SELECT group_id,60,CAST(stat_timestamp AS UNSIGNED) - CAST(stat_timestamp AS UNSIGNED) % 60000,count(1),
+  sum(IFNULL(block_size,0)),sum(IFNULL(tps,0)),min(IFNULL(tps,0)),max(IFNULL(tps,0)),min(IFNULL(block_size,0)),max(IFNULL(block_size,0)),
+  sum(IFNULL(block_cycle,0)),min(IFNULL(block_cycle,0)),max(IFNULL(block_cycle,0)),min(block_number),max(block_number),NOW(),NOW()
+FROM tb_stat GROUP BY group_id,CAST(stat_timestamp AS UNSIGNED) - CAST(stat_timestamp AS UNSIGNED) % 60000;
+INSERT IGNORE INTO tb_stat_rollup (group_id,tier,bucket_time,block_count,tx_count,tps_sum,tps_min,tps_max,
+  block_size_min,block_size_max,block_cycle_sum,block_cycle_min,block_cycle_max,first_block,last_block,create_time,modify_time)
+SELECT group_id,3600,CAST(stat_timestamp AS UNSIGNED) - CAST(stat_timestamp AS UNSIGNED) % 3600000,count(1),
+  sum(IFNULL(block_size,0)),sum(IFNULL(tps,0)),min(IFNULL(tps,0)),max(IFNULL(tps,0)),min(IFNULL(block_size,0)),max(IFNULL(block_size,0)),
+  sum(IFNULL(block_cycle,0)),min(IFNULL(block_cycle,0)),max(IFNULL(block_cycle,0)),min(block_number),max(block_number),NOW(),NOW()
+FROM tb_stat GROUP BY group_id,CAST(stat_timestamp AS UNSIGNED) - CAST(stat_timestamp AS UNSIGNED) % 3600000;
+INSERT IGNORE INTO tb_stat_rollup (group_id,tier,bucket_time,block_count,tx_count,tps_sum,tps_min,tps_max,
+  block_size_min,block_size_max,block_cycle_sum,block_cycle_min,block_cycle_max,first_block,last_block,create_time,modify_time)
+SELECT group_id,86400,CAST(stat_timestamp AS UNSIGNED) - CAST(stat_timestamp AS UNSIGNED) % 86400000,count(1),
+  sum(IFNULL(block_size,0)),sum(IFNULL(tps,0)),min(IFNULL(tps,0)),max(IFNULL(tps,0)),min(IFNULL(block_size,0)),max(IFNULL(block_size,0)),
+  sum(IFNULL(block_cycle,0)),min(IFNULL(block_cycle,0)),max(IFNULL(block_cycle,0)),min(block_number),max(block_number),NOW(),NOW()
+FROM tb_stat GROUP BY group_id,CAST(stat_timestamp AS UNSIGNED) - CAST(stat_timestamp AS UNSIGNED) % 86400000;
+
+CREATE TABLE IF NOT EXISTS tb_alert_mail_outbox (
+  id bigint(20) NOT NULL AUTO_INCREMENT COMMENT '自增编号',
+  rule_id int(11) NOT NULL COMMENT '告警规则编号',
+  alert_title varchar(255) DEFAULT NULL COMMENT '邮件标题',
+  alert_content mediumtext COMMENT '邮件内容',
+  content_hash varchar(64) NOT NULL COMMENT '告警规则与内容的md5，用于去重',
+  dedup_bucket bigint(20) NOT NULL DEFAULT '0' COMMENT '去重时间窗口序号：入队时间戳/去重窗口',
+  status tinyint(4) NOT NULL DEFAULT '0' COMMENT '状态：0-待发送，1-发送中，2-已发送，3-发送失败',
+  retry_count int(11) NOT NULL DEFAULT '0' COMMENT '发送失败次数',
+  create_time datetime DEFAULT NULL COMMENT '入队时间',
+  send_time datetime DEFAULT NULL COMMENT '发送时间',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (id),
+  KEY idx_status (status,id),
+  KEY idx_hash (content_hash,create_time),
+  UNIQUE KEY uk_hash_bucket (content_hash,dedup_bucket)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='告警邮件发件箱表';
+
+-- ----------------------------
+-- Table structure for tb_retention_checkpoint 历史数据分批删除进度
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_retention_checkpoint (
+  group_id int(11) NOT NULL COMMENT '群组编号',
+  table_name varchar(64) NOT NULL COMMENT '表名',
+  next_block bigint(20) NOT NULL COMMENT '低于此块高的数据已删除',
+  target_block bigint(20) NOT NULL COMMENT '本轮删除低于此块高的数据',
+  chunk_blocks bigint(20) NOT NULL COMMENT '每批删除的块高数',
+  deleted_rows bigint(20) NOT NULL DEFAULT '0' COMMENT '本轮已删除行数',
+  rows_per_second double NOT NULL DEFAULT '0' COMMENT '上次执行每秒删除行数',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (group_id,table_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='历史数据分批删除进度表';
+
+-- tb_user_transaction_monitor_{groupId}: unique monitor_key and day is added by node-mgr on startup, see TableService.upgradeMonitorTable
+
+-- tb_block_{groupId} and tb_trans_hash_{groupId} of new group are partitioned by block_number,
+-- and old rows are removed by dropping partitions. tables created before still delete rows,
+-- they could be partitioned when node-mgr is stopped, for example:
+-- ALTER TABLE tb_block_1 DROP PRIMARY KEY, ADD PRIMARY KEY (pk_hash,block_number)
+--   PARTITION BY RANGE (block_number) (PARTITION pmax VALUES LESS THAN (MAXVALUE));
+-- ALTER TABLE tb_trans_hash_1 DROP PRIMARY KEY, ADD PRIMARY KEY (trans_hash,block_number)
+--   PARTITION BY RANGE (block_number) (PARTITION pmax VALUES LESS THAN (MAXVALUE));
@@ -110,6 +110,9 @@ CREATE TABLE IF NOT EXISTS tb_contract (
   contract_abi mediumtext COMMENT '编译合约生成的abi文件内容',
   contract_bin mediumtext COMMENT '合约binary',
   bytecode_bin mediumtext COMMENT '合约bin',
+  contract_bin_hash varchar(64) DEFAULT NULL COMMENT '合约binary去除metadata后的sha256',
+  bytecode_bin_hash varchar(64) DEFAULT NULL COMMENT '合约bin的sha256',
+  bytecode_bin_len int(11) DEFAULT NULL COMMENT '合约bin的长度',
   contract_address varchar(64) DEFAULT NULL COMMENT '合约地址',
   deploy_time datetime DEFAULT NULL COMMENT '部署时间',
   contract_status int(1) DEFAULT '1' COMMENT '部署状态（1：未部署，2：部署成功，3：部署失败）',
@@ -120,7 +123,9 @@ CREATE TABLE IF NOT EXISTS tb_contract (
   deploy_address varchar(64) DEFAULT NULL COMMENT '合约部署者地址',
   deploy_user_name varchar(64) DEFAULT NULL COMMENT '合约部署者用戶名',
   PRIMARY KEY (contract_id),
-  UNIQUE KEY uk_group_path_name (group_id,contract_path,contract_name,account)
+  UNIQUE KEY uk_group_path_name (group_id,contract_path,contract_name,account),
+  KEY idx_group_bin_hash (group_id,contract_bin_hash),
+  KEY idx_group_bytecode_hash (group_id,bytecode_bin_hash)
 ) ENGINE=InnoDB AUTO_INCREMENT=200001 DEFAULT CHARSET=utf8 COMMENT='合约表';
 
 
@@ -326,10 +331,12 @@ CREATE TABLE IF NOT EXISTS tb_abi (
   contract_address varchar(64) NOT NULL COMMENT '合约ABI的合约地址',
   contract_abi mediumtext NOT NULL COMMENT '合约ABI的内容',
   contract_bin mediumtext NOT NULL COMMENT '合约ABI的runtime-bin',
+  contract_bin_hash varchar(64) DEFAULT NULL COMMENT '合约ABI的runtime-bin去除metadata后的sha256',
   create_time datetime DEFAULT NULL COMMENT '合约ABI的创建时间',
   modify_time datetime DEFAULT NULL COMMENT '合约ABI的修改时间',
   PRIMARY KEY (abi_id),
-  UNIQUE KEY unique_address (group_id,account,contract_address)
+  UNIQUE KEY unique_address (group_id,account,contract_address),
+  KEY idx_group_bin_hash (group_id,contract_bin_hash)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='合约ABI表';
 
 
@@ -456,6 +463,83 @@ CREATE TABLE IF NOT EXISTS tb_stat (
   KEY index_group (group_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='区块统计数据表';
 
+-- ----------------------------
+-- Table structure for tb_stat_rollup 区块统计数据按分钟/小时/天汇总
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_stat_rollup (
+  group_id int(11) NOT NULL COMMENT '所属群组编号',
+  tier int(11) NOT NULL COMMENT '汇总粒度（秒）：60/3600/86400',
+  bucket_time bigint(20) NOT NULL COMMENT '汇总区间开始时间戳（毫秒）',
+  block_count int(11) NOT NULL DEFAULT '0' COMMENT '区块数',
+  tx_count bigint(20) NOT NULL DEFAULT '0' COMMENT '交易数（区块大小之和）',
+  tps_sum bigint(20) NOT NULL DEFAULT '0' COMMENT 'tps之和',
+  tps_min int(11) DEFAULT NULL COMMENT 'tps最小值',
+  tps_max int(11) DEFAULT NULL COMMENT 'tps最大值',
+  block_size_min int(11) DEFAULT NULL COMMENT '区块大小最小值',
+  block_size_max int(11) DEFAULT NULL COMMENT '区块大小最大值',
+  block_cycle_sum double NOT NULL DEFAULT '0' COMMENT '出块周期之和（秒）',
+  block_cycle_min double DEFAULT NULL COMMENT '出块周期最小值（秒）',
+  block_cycle_max double DEFAULT NULL COMMENT '出块周期最大值（秒）',
+  first_block int(11) DEFAULT NULL COMMENT '区间内汇总的起始块高',
+  last_block int(11) DEFAULT NULL COMMENT '区间内汇总的最大块高',
+  create_time datetime DEFAULT NULL COMMENT '创建时间',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (group_id,tier,bucket_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='区块统计数据汇总表';
+
+-- ----------------------------
+-- Table structure for tb_monitor_shard 交易审计分片
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_monitor_shard (
+  group_id int(11) NOT NULL COMMENT '所属群组编号',
+  shard_item int(11) NOT NULL COMMENT '分片编号(block_number取模)',
+  shard_count int(11) NOT NULL COMMENT '分片总数',
+  owner varchar(128) DEFAULT NULL COMMENT '持有租约的实例',
+  lease_expire datetime DEFAULT NULL COMMENT '租约过期时间',
+  heartbeat_time datetime DEFAULT NULL COMMENT '最近心跳时间',
+  audited_count bigint(20) DEFAULT '0' COMMENT '已审计交易数',
+  last_block bigint(20) DEFAULT NULL COMMENT '已审计的最大块高',
+  create_time datetime DEFAULT NULL COMMENT '创建时间',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (group_id,shard_item)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='交易审计分片租约表';
+
+-- ----------------------------
+-- Table structure for tb_alert_mail_outbox 告警邮件发件箱
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_alert_mail_outbox (
+  id bigint(20) NOT NULL AUTO_INCREMENT COMMENT '自增编号',
+  rule_id int(11) NOT NULL COMMENT '告警规则编号',
+  alert_title varchar(255) DEFAULT NULL COMMENT '邮件标题',
+  alert_content mediumtext COMMENT '邮件内容',
+  content_hash varchar(64) NOT NULL COMMENT '告警规则与内容的md5，用于去重',
+  dedup_bucket bigint(20) NOT NULL DEFAULT '0' COMMENT '去重时间窗口序号：入队时间戳/去重窗口',
+  status tinyint(4) NOT NULL DEFAULT '0' COMMENT '状态：0-待发送，1-发送中，2-已发送，3-发送失败',
+  retry_count int(11) NOT NULL DEFAULT '0' COMMENT '发送失败次数',
+  create_time datetime DEFAULT NULL COMMENT '入队时间',
+  send_time datetime DEFAULT NULL COMMENT '发送时间',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (id),
+  KEY idx_status (status,id),
+  KEY idx_hash (content_hash,create_time),
+  UNIQUE KEY uk_hash_bucket (content_hash,dedup_bucket)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='告警邮件发件箱表';
+
+-- ----------------------------
+-- Table structure for tb_retention_checkpoint 历史数据分批删除进度
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_retention_checkpoint (
+  group_id int(11) NOT NULL COMMENT '群组编号',
+  table_name varchar(64) NOT NULL COMMENT '表名',
+  next_block bigint(20) NOT NULL COMMENT '低于此块高的数据已删除',
+  target_block bigint(20) NOT NULL COMMENT '本轮删除低于此块高的数据',
+  chunk_blocks bigint(20) NOT NULL COMMENT '每批删除的块高数',
+  deleted_rows bigint(20) NOT NULL DEFAULT '0' COMMENT '本轮已删除行数',
+  rows_per_second double NOT NULL DEFAULT '0' COMMENT '上次执行每秒删除行数',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (group_id,table_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='历史数据分批删除进度表';
+
 -- ----------------------------
 -- Table structure for tb_external_account 链上外部账户
 -- ----------------------------
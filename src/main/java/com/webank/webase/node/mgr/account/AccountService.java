@@ -27,6 +27,7 @@ import com.webank.webase.node.mgr.base.enums.AccountStatus;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.account.role.RoleService;
 import com.webank.webase.node.mgr.account.token.TokenService;
+import com.webank.webase.node.mgr.account.token.TokenSessionCache;
 import java.util.List;
 import javax.servlet.http.HttpServletRequest;
 import lombok.extern.log4j.Log4j2;
@@ -53,6 +54,8 @@ public class AccountService {
     @Autowired
     private TokenService tokenService;
     @Autowired
+    private TokenSessionCache tokenSessionCache;
+    @Autowired
     private ConstantProperties constants;
     private static final String ADMIN_TOKEN_VALUE = "admin";
 
@@ -136,6 +139,7 @@ public class AccountService {
 
         // update account info
         Integer affectRow = accountMapper.updateAccountRow(accountRow);
+        tokenSessionCache.invalidateAccount(accountStr);
 
         // check result
         checkDbAffectRow(affectRow);
@@ -173,6 +177,7 @@ public class AccountService {
         targetRow.setAccountPwd(passwordEncoder.encode(newAccountPwd));
         targetRow.setAccountStatus(AccountStatus.NORMAL.getValue());
         Integer affectRow = accountMapper.updateAccountRow(targetRow);
+        tokenSessionCache.invalidateAccount(targetAccount);
 
         // check result
         checkDbAffectRow(affectRow);
@@ -219,6 +224,7 @@ public class AccountService {
 
         // delete account row
         Integer affectRow = accountMapper.deleteAccountRow(account);
+        tokenSessionCache.invalidateAccount(account);
 
         // check result
         checkDbAffectRow(affectRow);
@@ -19,6 +19,7 @@ import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * token  mapper.
@@ -32,4 +33,9 @@ public interface TokenMapper {
     void update(@Param("token") String token, @Param("expireTime") LocalDateTime expireTime);
 
     TbToken query(@Param("token") String token);
+
+    /**
+     * extend expire time of tokens, never shorten it.
+     */
+    void batchUpdateExpireTime(@Param("list") List<TbToken> tokenList);
 }
@@ -40,6 +40,8 @@ public class TokenService {
     private ConstantProperties properties;
     @Autowired
     private TokenMapper tokenMapper;
+    @Autowired
+    private TokenSessionCache tokenSessionCache;
 
 
     /**
@@ -103,5 +105,9 @@ public class TokenService {
      */
     public void deleteToken(String token, String value) {
         tokenMapper.delete(token, value);
+        if (token != null) {
+            tokenSessionCache.invalidateToken(token);
+        }
+        tokenSessionCache.invalidateAccount(value);
     }
 }
\ No newline at end of file
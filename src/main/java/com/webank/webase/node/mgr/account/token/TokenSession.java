@@ -0,0 +1,35 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.account.token;
+
+import com.webank.webase.node.mgr.account.entity.TbAccountInfo;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * account of token cached in memory.
+ */
+@Data
+@AllArgsConstructor
+public class TokenSession {
+    private String token;
+    private TbAccountInfo accountInfo;
+    /**
+     * expire time extended locally, may be later than the one in db before flushed
+     */
+    private volatile LocalDateTime expireTime;
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.account.token;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.webank.webase.node.mgr.account.entity.TbAccountInfo;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * cache account of token for authentication, entry lives authSessionCacheTtl at most,
+ * so token deleted or account changed by other node-mgr is seen after it.
+ * sliding expire time of token is extended in memory, and flushed to db by batch.
+ * each invalidate bumps generation, account read from db before it is not cached.
+ */
+@Log4j2
+@Component
+public class TokenSessionCache implements InitializingBean, DisposableBean {
+
+    @Autowired
+    private ConstantProperties properties;
+    @Autowired
+    private TokenMapper tokenMapper;
+
+    private Cache<String, TokenSession> sessionCache;
+    /**
+     * token => expire time not flushed to db yet
+     */
+    private final Map<String, LocalDateTime> pendingExpireMap = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private ScheduledExecutorService flushScheduler;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!isEnabled()) {
+            return;
+        }
+        sessionCache = CacheBuilder.newBuilder()
+            .maximumSize(properties.getAuthSessionCacheSize())
+            .expireAfterWrite(properties.getAuthSessionCacheTtl(), TimeUnit.MILLISECONDS)
+            .build();
+        long interval = properties.getAuthTokenFlushInterval();
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("node-mgr-tokenFlush-"));
+        flushScheduler.scheduleWithFixedDelay(this::flush, interval, interval,
+            TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (flushScheduler != null) {
+            flushScheduler.shutdownNow();
+        }
+        flush();
+    }
+
+    /**
+     * cached session, null if not cached or expired.
+     */
+    public TokenSession get(String token) {
+        if (!isEnabled()) {
+            return null;
+        }
+        TokenSession session = sessionCache.getIfPresent(token);
+        if (session != null && LocalDateTime.now().isAfter(session.getExpireTime())) {
+            sessionCache.invalidate(token);
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * generation to take before checking token in db, and pass to put.
+     */
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * cache account of token just checked in db,
+     * skipped if any token or account invalidated since generation taken.
+     */
+    public void put(String token, TbAccountInfo accountInfo, long checkedGeneration) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (generation) {
+            if (generation.get() != checkedGeneration) {
+                log.debug("skip cache token, invalidated since checked");
+                return;
+            }
+            sessionCache.put(token, new TokenSession(token, accountInfo, newExpireTime()));
+        }
+    }
+
+    /**
+     * extend expire time of token, flushed to db later if cache enabled.
+     */
+    public void touch(String token) {
+        LocalDateTime expireTime = newExpireTime();
+        if (!isEnabled()) {
+            tokenMapper.update(token, expireTime);
+            return;
+        }
+        TokenSession session = sessionCache.getIfPresent(token);
+        if (session != null) {
+            session.setExpireTime(expireTime);
+        }
+        pendingExpireMap.put(token, expireTime);
+    }
+
+    public void invalidateToken(String token) {
+        pendingExpireMap.remove(token);
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (generation) {
+            generation.incrementAndGet();
+            sessionCache.invalidate(token);
+        }
+    }
+
+    /**
+     * drop sessions of account, after account or its role changed.
+     */
+    public void invalidateAccount(String account) {
+        if (!isEnabled() || account == null) {
+            return;
+        }
+        synchronized (generation) {
+            generation.incrementAndGet();
+            sessionCache.asMap().values().removeIf(session -> session.getAccountInfo() != null
+                && account.equals(session.getAccountInfo().getAccount()));
+        }
+    }
+
+    /**
+     * write expire time of tokens touched since last flush in one update,
+     * expire time in db is not shortened if extended by other node-mgr.
+     */
+    public void flush() {
+        if (pendingExpireMap.isEmpty()) {
+            return;
+        }
+        List<TbToken> tokenList = new ArrayList<>(pendingExpireMap.size());
+        for (String token : new ArrayList<>(pendingExpireMap.keySet())) {
+            LocalDateTime expireTime = pendingExpireMap.remove(token);
+            if (expireTime == null) {
+                continue;
+            }
+            TbToken tbToken = new TbToken();
+            tbToken.setToken(token);
+            tbToken.setExpireTime(expireTime);
+            tokenList.add(tbToken);
+        }
+        if (tokenList.isEmpty()) {
+            return;
+        }
+        try {
+            tokenMapper.batchUpdateExpireTime(tokenList);
+            log.debug("flush token expire time. size:{}", tokenList.size());
+        } catch (Exception ex) {
+            log.error("fail flush token expire time. size:{}", tokenList.size(), ex);
+            // retry in next flush unless touched again
+            tokenList.forEach(
+                t -> pendingExpireMap.putIfAbsent(t.getToken(), t.getExpireTime()));
+        }
+    }
+
+    private boolean isEnabled() {
+        return properties.getAuthSessionCacheTtl() > 0;
+    }
+
+    private LocalDateTime newExpireTime() {
+        return LocalDateTime.now().plusSeconds(properties.getAuthTokenMaxAge());
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.webank.webase.node.mgr.alert.mail;
 
+import com.webank.webase.node.mgr.alert.mail.outbox.AlertMailOutbox;
+import com.webank.webase.node.mgr.alert.mail.outbox.entity.AlertMailOutboxInfo;
 import com.webank.webase.node.mgr.alert.mail.server.config.MailServerConfigService;
 import com.webank.webase.node.mgr.alert.mail.server.config.entity.ReqMailServerConfigParam;
 import com.webank.webase.node.mgr.base.code.ConstantCode;
@@ -52,6 +54,8 @@ public class MailController {
     MailServerConfigService mailServerConfigService;
     @Autowired
     TemplateEngine templateEngine;
+    @Autowired
+    AlertMailOutbox alertMailOutbox;
 
     public static final String testTitle = "WeBase-Node-Manager测试邮件，请勿回复";
 
@@ -103,6 +107,20 @@ public class MailController {
         }
     }
 
+    /**
+     * backlog, send result and latency of alert mail outbox
+     */
+    @GetMapping("/outbox")
+    @PreAuthorize(ConstantProperties.HAS_ROLE_ADMIN)
+    public BaseResponse getOutboxInfo() {
+        Instant startTime = Instant.now();
+        log.info("start getOutboxInfo. startTime:{}", startTime.toEpochMilli());
+        AlertMailOutboxInfo outboxInfo = alertMailOutbox.getOutboxInfo();
+        log.info("end getOutboxInfo. useTime:{}",
+                Duration.between(startTime, Instant.now()).toMillis());
+        return new BaseResponse(ConstantCode.SUCCESS, outboxInfo);
+    }
+
     public void checkParamEmpty(ReqMailServerConfigParam reqMailServerConfigParam) {
         log.debug("start checkParamEmpty reqMailServerConfigParam:{}", reqMailServerConfigParam);
         if(reqMailServerConfigParam.getServerId() == null || reqMailServerConfigParam.getPort() == null ||
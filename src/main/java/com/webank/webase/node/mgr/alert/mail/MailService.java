@@ -20,6 +20,7 @@ import com.webank.webase.node.mgr.account.AccountMapper;
 import com.webank.webase.node.mgr.account.entity.AccountListParam;
 import com.webank.webase.node.mgr.account.entity.TbAccountInfo;
 import com.webank.webase.node.mgr.alert.log.AlertLogService;
+import com.webank.webase.node.mgr.alert.mail.outbox.AlertMailOutbox;
 import com.webank.webase.node.mgr.alert.mail.server.config.MailServerConfigService;
 import com.webank.webase.node.mgr.alert.mail.server.config.entity.ReqMailServerConfigParam;
 import com.webank.webase.node.mgr.alert.mail.server.config.entity.TbMailServerConfig;
@@ -69,6 +70,8 @@ public class MailService {
     AccountMapper accountMapper;
     @Autowired
     AlertLogService alertLogService;
+    @Autowired
+    AlertMailOutbox alertMailOutbox;
 
     /**
      * Java Mail Sender Implement config
@@ -111,6 +114,21 @@ public class MailService {
      */
     public void initJavaMailSenderConfig(TbMailServerConfig latestMailServerConfig) {
         log.debug("start initJavaMailSenderConfig. latestMailServerConfig:{}", latestMailServerConfig);
+        configJavaMailSender(mailSender, latestMailServerConfig);
+    }
+
+    /**
+     * new JavaMailSender of config, not shared with test mail of web
+     * @param latestMailServerConfig
+     */
+    public JavaMailSenderImpl createJavaMailSender(TbMailServerConfig latestMailServerConfig) {
+        JavaMailSenderImpl newMailSender = new JavaMailSenderImpl();
+        configJavaMailSender(newMailSender, latestMailServerConfig);
+        return newMailSender;
+    }
+
+    private void configJavaMailSender(JavaMailSenderImpl mailSender,
+        TbMailServerConfig latestMailServerConfig) {
         mailSender.setHost(latestMailServerConfig.getHost());
         mailSender.setPort(latestMailServerConfig.getPort());
         Boolean isAuthEnable = latestMailServerConfig.getAuthentication() == EnableStatus.ON.getValue();
@@ -149,6 +167,8 @@ public class MailService {
                 String.valueOf(latestMailServerConfig.getConnectionTimeout()));
         sslProperties.setProperty("mail." + protocolName + ".writetimeout",
                 String.valueOf(latestMailServerConfig.getWriteTimeout()));
+        // send to valid receivers even if some receiver address is refused
+        sslProperties.setProperty("mail." + protocolName + ".sendpartial", "true");
 
         // if required starttls is true, set ssl configuration
         Boolean isSTARTTLSRequired = (latestMailServerConfig.getStarttlsRequired() == EnableStatus.ON.getValue());
@@ -216,10 +236,8 @@ public class MailService {
         alertLogService.saveAlertLogByRuleAndContent(alertRule.getAlertLevel(),
                 alertRule.getAlertType(), emailContentAfterReplace);
 
-        // refresh JavaMailSender's config from db
-        refreshJavaMailSenderConfigFromDB();
-        // 将告警发到userList，如果是全选用户
-        handleAllUserEmail(alertRule, emailTitle, emailFinalContent);
+        // queue mail to userList, sent by AlertMailSender
+        alertMailOutbox.enqueue(ruleId, emailTitle, emailContentAfterReplace, emailFinalContent);
         // update alert rule's last alertTime
         alertRule.setLastAlertTime(LocalDateTime.now());
         log.debug("sendMailByRule update alert rule's lastAlertTime updateAlertTime:{}",
@@ -282,10 +300,8 @@ public class MailService {
         alertLogService.saveAlertLogByRuleAndContent(alertRule.getAlertLevel(),
                 alertRule.getAlertType(), emailContentAfterReplace);
 
-        // refresh JavaMailSender's config from db
-        refreshJavaMailSenderConfigFromDB();
-        // 将告警发到userList，如果是全选用户
-        handleAllUserEmail(alertRule, emailTitle, emailFinalContent);
+        // queue mail to userList, sent by AlertMailSender
+        alertMailOutbox.enqueue(ruleId, emailTitle, emailContentAfterReplace, emailFinalContent);
         // update alert rule's last alertTime
         alertRule.setLastAlertTime(LocalDateTime.now());
         log.debug("sendMailByRule update alert rule's lastAlertTime updateAlertTime:{}",
@@ -294,16 +310,13 @@ public class MailService {
         log.debug("end sendMailByRule. ");
     }
 
-        /**
-         * handle email sending to multiple users or sending to all user
-         * @param alertRule
-         * @param emailTitle
-         * @param emailFinalContent
-         */
-    public void handleAllUserEmail(TbAlertRule alertRule, String emailTitle, String emailFinalContent) {
-        // get from address
-        TbMailServerConfig latestMailServerConfig = mailServerConfigService.getLatestMailServerConfig();
-        String fromMailAddress = latestMailServerConfig.getUsername();
+    /**
+     * receivers of alert rule, all user's email if isAllUser
+     * @param alertRule
+     * @return mail address list
+     */
+    public List<String> getReceiverList(TbAlertRule alertRule) {
+        List<String> receiverList = new ArrayList<>();
         // 将告警发到userList，如果是全选用户
         if(alertRule.getIsAllUser() == EnableStatus.ON.getValue()){
             AccountListParam accountListParam = new AccountListParam();
@@ -311,33 +324,26 @@ public class MailService {
             for(TbAccountInfo accountInfo: allAccountList) {
                 String accountEmailAddress = accountInfo.getEmail();
                 if(!"".equals(accountEmailAddress)&& accountEmailAddress != null) {
-                    sendMailBare(fromMailAddress, accountEmailAddress,
-                            emailTitle, emailFinalContent);
+                    receiverList.add(accountEmailAddress);
                 }
             }
-            log.debug("end handleAllUserEmail. ");
         }else {
-            List<String> userList = new ArrayList<>();
             try {
-                userList = JsonTools.toJavaObjectList(alertRule.getUserList(), String.class);
+                List<String> userList = JsonTools.toJavaObjectList(alertRule.getUserList(), String.class);
                 if (userList == null) {
                     log.error("parse json error");
+                } else {
+                    receiverList.addAll(userList);
                 }
             }catch (Exception e) {
-                log.error("handleAllUserEmail parse error: e:{}, getUserList{}",
+                log.error("getReceiverList parse error: e:{}, getUserList{}",
                         e, alertRule.getUserList());
             }
-            for(String userMailAddress: userList) {
-                try {
-                    sendMailBare(fromMailAddress,
-                            userMailAddress, emailTitle, emailFinalContent);
-                }catch (Exception e) {
-                    log.error("handleAllUserEmail send error:[]", e);
-                }
-            }
-            log.debug("end handleAllUserEmail. ");
         }
+        log.debug("end getReceiverList. receiverList:{}", receiverList);
+        return receiverList;
     }
+
     /**
      * 发送邮件基类
      * @param from
@@ -0,0 +1,127 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.alert.mail.outbox;
+
+import com.webank.webase.node.mgr.alert.mail.outbox.entity.AlertMailOutboxInfo;
+import com.webank.webase.node.mgr.alert.mail.outbox.entity.TbAlertMailOutbox;
+import com.webank.webase.node.mgr.base.enums.MailOutboxStatus;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.tools.NodeMgrTools;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * alert mails queued in db and sent by AlertMailSender,
+ * so monitor task never waits for smtp server.
+ */
+@Log4j2
+@Component
+public class AlertMailOutbox {
+
+    @Autowired
+    private AlertMailOutboxMapper outboxMapper;
+    @Autowired
+    private ConstantProperties constants;
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong duplicatedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong failedReceiverCount = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private volatile long lastLatency = 0;
+    private volatile long maxLatency = 0;
+
+    /**
+     * queue alert mail of rule.
+     * same alert content of rule queued within alertMailDedupWindow is skipped,
+     * and alert is dropped if pending mails reach alertMailOutboxSize.
+     * node-mgr racing on the same alert is stopped by unique key of hash and dedup window.
+     * @param alertContent content to check duplicated, without alert time
+     * @return true if queued
+     */
+    public boolean enqueue(int ruleId, String alertTitle, String alertContent, String mailContent) {
+        String contentHash = NodeMgrTools.md5Encrypt(ruleId + ":" + alertContent);
+        if (outboxMapper.countByHashSince(contentHash, constants.getAlertMailDedupWindow()) > 0) {
+            duplicatedCount.incrementAndGet();
+            log.info("enqueue skip duplicated alert. ruleId:{} contentHash:{}", ruleId, contentHash);
+            return false;
+        }
+        int pendingCount = outboxMapper.countByStatus(MailOutboxStatus.PENDING.getValue());
+        if (pendingCount >= constants.getAlertMailOutboxSize()) {
+            droppedCount.incrementAndGet();
+            log.warn("enqueue drop alert for outbox full. ruleId:{} pendingCount:{}", ruleId,
+                pendingCount);
+            return false;
+        }
+        TbAlertMailOutbox outbox = new TbAlertMailOutbox();
+        outbox.setRuleId(ruleId);
+        outbox.setAlertTitle(alertTitle);
+        outbox.setAlertContent(mailContent);
+        outbox.setContentHash(contentHash);
+        if (outboxMapper.addIgnore(outbox, constants.getAlertMailDedupWindow()) == 0) {
+            duplicatedCount.incrementAndGet();
+            log.info("enqueue skip alert queued by other. ruleId:{} contentHash:{}", ruleId,
+                contentHash);
+            return false;
+        }
+        enqueuedCount.incrementAndGet();
+        log.debug("enqueue alert mail id:{} ruleId:{}", outbox.getId(), ruleId);
+        return true;
+    }
+
+    /**
+     * record mail sent, latency is from queued to sent
+     */
+    public void markSent(long latency) {
+        sentCount.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        lastLatency = latency;
+        if (latency > maxLatency) {
+            maxLatency = latency;
+        }
+    }
+
+    public void markFailed(int count) {
+        failedCount.addAndGet(count);
+    }
+
+    /**
+     * record receivers refused by mail server, mail may be sent to others
+     */
+    public void markReceiverFailed(int count) {
+        failedReceiverCount.addAndGet(count);
+    }
+
+    public AlertMailOutboxInfo getOutboxInfo() {
+        AlertMailOutboxInfo info = new AlertMailOutboxInfo();
+        info.setPendingCount(outboxMapper.countByStatus(MailOutboxStatus.PENDING.getValue()));
+        info.setEnqueuedCount(enqueuedCount.get());
+        info.setDuplicatedCount(duplicatedCount.get());
+        info.setDroppedCount(droppedCount.get());
+        long sent = sentCount.get();
+        info.setSentCount(sent);
+        info.setFailedCount(failedCount.get());
+        info.setFailedReceiverCount(failedReceiverCount.get());
+        info.setLastLatency(lastLatency);
+        info.setAvgLatency(sent == 0 ? 0 : totalLatency.get() / sent);
+        info.setMaxLatency(maxLatency);
+        return info;
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.alert.mail.outbox;
+
+import com.webank.webase.node.mgr.alert.mail.outbox.entity.TbAlertMailOutbox;
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AlertMailOutboxMapper {
+
+    /**
+     * insert unless same alert is queued in the same dedup window, 0 if skipped
+     */
+    int addIgnore(@Param("outbox") TbAlertMailOutbox outbox,
+        @Param("dedupWindow") long dedupWindow);
+
+    int countByStatus(@Param("status") int status);
+
+    /**
+     * count of same alert queued in last seconds
+     */
+    int countByHashSince(@Param("contentHash") String contentHash,
+        @Param("seconds") long seconds);
+
+    List<TbAlertMailOutbox> listByStatus(@Param("status") int status, @Param("limit") int limit);
+
+    /**
+     * change status only if still in fromStatus, 1 means claimed
+     */
+    int updateStatus(@Param("id") long id, @Param("fromStatus") int fromStatus,
+        @Param("toStatus") int toStatus);
+
+    int markSent(@Param("idList") List<Long> idList);
+
+    /**
+     * back to pending for retry, or failed if retried maxRetry times
+     */
+    int markFailed(@Param("idList") List<Long> idList, @Param("maxRetry") int maxRetry);
+
+    /**
+     * release mails left in sending by stopped node-mgr
+     */
+    int resetSending(@Param("seconds") long seconds);
+
+    int deleteDoneBefore(@Param("days") int days);
+}
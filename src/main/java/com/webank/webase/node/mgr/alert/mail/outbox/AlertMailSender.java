@@ -0,0 +1,270 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.alert.mail.outbox;
+
+import com.webank.webase.node.mgr.alert.mail.MailService;
+import com.webank.webase.node.mgr.alert.mail.outbox.entity.TbAlertMailOutbox;
+import com.webank.webase.node.mgr.alert.mail.server.config.MailServerConfigService;
+import com.webank.webase.node.mgr.alert.mail.server.config.entity.TbMailServerConfig;
+import com.webank.webase.node.mgr.alert.rule.AlertRuleMapper;
+import com.webank.webase.node.mgr.alert.rule.entity.TbAlertRule;
+import com.webank.webase.node.mgr.base.enums.EnableStatus;
+import com.webank.webase.node.mgr.base.enums.MailOutboxStatus;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.mail.Address;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.internet.MimeMessage;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * send pending mails of outbox by a dedicated thread.
+ * mails are claimed by status, so each mail is sent by one node-mgr,
+ * one mail per alert to all receivers of rule, and one smtp connection per batch.
+ */
+@Log4j2
+@Component
+public class AlertMailSender implements InitializingBean, DisposableBean {
+
+    /**
+     * mail left in sending longer than it is released for retry: s
+     */
+    private static final long SENDING_TIMEOUT = 600;
+    /**
+     * keep sent and failed mails for days
+     */
+    private static final int KEEP_DAYS = 7;
+
+    @Autowired
+    private AlertMailOutboxMapper outboxMapper;
+    @Autowired
+    private AlertMailOutbox alertMailOutbox;
+    @Autowired
+    private MailService mailService;
+    @Autowired
+    private MailServerConfigService mailServerConfigService;
+    @Autowired
+    private AlertRuleMapper alertRuleMapper;
+    @Autowired
+    private ConstantProperties constants;
+
+    private ScheduledExecutorService sendScheduler;
+    private LocalDateTime lastCleanTime = LocalDateTime.MIN;
+
+    @Override
+    public void afterPropertiesSet() {
+        long interval = constants.getAlertMailSendInterval();
+        sendScheduler = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("node-mgr-alertMail-"));
+        sendScheduler.scheduleWithFixedDelay(this::sendPending, interval, interval,
+            TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (sendScheduler != null) {
+            sendScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * send pending mails batch by batch until none left.
+     */
+    public void sendPending() {
+        try {
+            // release mails left in sending by stopped node-mgr
+            outboxMapper.resetSending(SENDING_TIMEOUT);
+            cleanOutbox();
+            TbMailServerConfig serverConfig = mailServerConfigService.getLatestMailServerConfig();
+            // if mail server not turn ON, keep mails pending
+            if (serverConfig.getEnable() == EnableStatus.OFF.getValue()) {
+                return;
+            }
+            while (sendBatch(serverConfig)) {
+                log.debug("sendPending continue next batch");
+            }
+        } catch (Exception ex) {
+            log.error("fail sendPending alert mail", ex);
+        }
+    }
+
+    /**
+     * @return true if batch is full and all sent, so more mails may be pending
+     */
+    private boolean sendBatch(TbMailServerConfig serverConfig) {
+        List<TbAlertMailOutbox> pendingList = outboxMapper.listByStatus(
+            MailOutboxStatus.PENDING.getValue(), constants.getAlertMailBatchSize());
+        if (pendingList.isEmpty()) {
+            return false;
+        }
+        JavaMailSenderImpl mailSender = mailService.createJavaMailSender(serverConfig);
+        String fromMailAddress = serverConfig.getUsername();
+        Map<Integer, List<String>> receiverMap = new HashMap<>();
+        Map<MimeMessage, TbAlertMailOutbox> messageMap = new IdentityHashMap<>();
+        List<MimeMessage> messageList = new ArrayList<>();
+        for (TbAlertMailOutbox outbox : pendingList) {
+            // claimed by other node-mgr
+            if (outboxMapper.updateStatus(outbox.getId(), MailOutboxStatus.PENDING.getValue(),
+                MailOutboxStatus.SENDING.getValue()) == 0) {
+                continue;
+            }
+            List<String> receiverList = receiverMap.computeIfAbsent(outbox.getRuleId(),
+                this::getReceiverList);
+            if (receiverList.isEmpty()) {
+                log.error("sendBatch no receive mail address, ruleId:{}", outbox.getRuleId());
+                outboxMapper.updateStatus(outbox.getId(), MailOutboxStatus.SENDING.getValue(),
+                    MailOutboxStatus.FAILED.getValue());
+                alertMailOutbox.markFailed(1);
+                continue;
+            }
+            MimeMessage message = mailSender.createMimeMessage();
+            try {
+                MimeMessageHelper helper = new MimeMessageHelper(message, true);
+                helper.setFrom(fromMailAddress);
+                // receivers don't see each other
+                helper.setTo(fromMailAddress);
+                helper.setBcc(receiverList.toArray(new String[0]));
+                helper.setSubject(outbox.getAlertTitle());
+                helper.setText(outbox.getAlertContent(), true);
+            } catch (MessagingException ex) {
+                log.error("sendBatch build message error, id:{}", outbox.getId(), ex);
+                outboxMapper.updateStatus(outbox.getId(), MailOutboxStatus.SENDING.getValue(),
+                    MailOutboxStatus.FAILED.getValue());
+                alertMailOutbox.markFailed(1);
+                continue;
+            }
+            messageMap.put(message, outbox);
+            messageList.add(message);
+        }
+        boolean allSent = messageList.isEmpty() || send(mailSender, fromMailAddress, messageList, messageMap);
+        return allSent && pendingList.size() >= constants.getAlertMailBatchSize();
+    }
+
+    /**
+     * send messages in one connection, mark mails sent or failed by result
+     * @return true if all sent
+     */
+    private boolean send(JavaMailSenderImpl mailSender, String fromMailAddress,
+        List<MimeMessage> messageList, Map<MimeMessage, TbAlertMailOutbox> messageMap) {
+        Map<Object, Exception> failedMessages = new IdentityHashMap<>();
+        try {
+            mailSender.send(messageList.toArray(new MimeMessage[0]));
+        } catch (MailSendException ex) {
+            log.error("send alert mail error, failed:{}", ex.getFailedMessages().size(), ex);
+            failedMessages.putAll(ex.getFailedMessages());
+        } catch (MailException ex) {
+            log.error("send alert mail error", ex);
+            messageList.forEach(message -> failedMessages.put(message, ex));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sentIdList = new ArrayList<>();
+        List<Long> failedIdList = new ArrayList<>();
+        for (MimeMessage message : messageList) {
+            TbAlertMailOutbox outbox = messageMap.get(message);
+            if (failedMessages.containsKey(message)
+                && !isPartialSent(outbox, fromMailAddress, failedMessages.get(message))) {
+                failedIdList.add(outbox.getId());
+            } else {
+                sentIdList.add(outbox.getId());
+                alertMailOutbox.markSent(
+                    Math.max(Duration.between(outbox.getCreateTime(), now).toMillis(), 0));
+            }
+        }
+        if (!sentIdList.isEmpty()) {
+            outboxMapper.markSent(sentIdList);
+        }
+        if (!failedIdList.isEmpty()) {
+            outboxMapper.markFailed(failedIdList, constants.getAlertMailMaxRetry());
+            alertMailOutbox.markFailed(failedIdList.size());
+        }
+        log.info("send alert mail sent:{} failed:{}", sentIdList.size(), failedIdList.size());
+        return failedIdList.isEmpty();
+    }
+
+    /**
+     * with sendpartial, refused receivers don't fail the others,
+     * so mail received by any receiver is sent, and refused receivers are recorded
+     */
+    private boolean isPartialSent(TbAlertMailOutbox outbox, String fromMailAddress,
+        Exception ex) {
+        if (!(ex instanceof SendFailedException)) {
+            return false;
+        }
+        SendFailedException sendEx = (SendFailedException) ex;
+        int failedReceivers = length(sendEx.getInvalidAddresses())
+            + length(sendEx.getValidUnsentAddresses());
+        if (failedReceivers > 0) {
+            log.warn("send alert mail refused receivers, id:{} invalid:{} unsent:{}",
+                outbox.getId(), addressString(sendEx.getInvalidAddresses()),
+                addressString(sendEx.getValidUnsentAddresses()));
+            alertMailOutbox.markReceiverFailed(failedReceivers);
+        }
+        // sender itself is the "to" receiver, not counted
+        Address[] sentAddresses = sendEx.getValidSentAddresses();
+        return sentAddresses != null && Arrays.stream(sentAddresses)
+            .anyMatch(address -> !address.toString().equalsIgnoreCase(fromMailAddress));
+    }
+
+    private static int length(Address[] addresses) {
+        return addresses == null ? 0 : addresses.length;
+    }
+
+    private static String addressString(Address[] addresses) {
+        return addresses == null ? "[]" : Arrays.toString(addresses);
+    }
+
+    private List<String> getReceiverList(int ruleId) {
+        TbAlertRule alertRule = alertRuleMapper.queryByRuleId(ruleId);
+        if (alertRule == null) {
+            return new ArrayList<>();
+        }
+        return mailService.getReceiverList(alertRule);
+    }
+
+    /**
+     * remove old mails, at most once an hour
+     */
+    private void cleanOutbox() {
+        LocalDateTime now = LocalDateTime.now();
+        if (lastCleanTime.plusHours(1).isAfter(now)) {
+            return;
+        }
+        lastCleanTime = now;
+        int deleted = outboxMapper.deleteDoneBefore(KEEP_DAYS);
+        log.info("cleanOutbox deleted:{}", deleted);
+    }
+}
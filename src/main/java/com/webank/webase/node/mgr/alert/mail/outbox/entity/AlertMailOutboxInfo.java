@@ -0,0 +1,52 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.alert.mail.outbox.entity;
+
+import lombok.Data;
+
+/**
+ * backlog, send result and latency of alert mail outbox.
+ * counts are of this node-mgr since started.
+ */
+@Data
+public class AlertMailOutboxInfo {
+
+    /**
+     * mails waiting in db, of all node-mgr
+     */
+    private Integer pendingCount;
+    private Long enqueuedCount;
+    /**
+     * identical alert within dedup window
+     */
+    private Long duplicatedCount;
+    /**
+     * alert not queued for outbox full
+     */
+    private Long droppedCount;
+    private Long sentCount;
+    private Long failedCount;
+    /**
+     * receivers refused by mail server
+     */
+    private Long failedReceiverCount;
+    /**
+     * time from queued to sent (ms)
+     */
+    private Long lastLatency;
+    private Long avgLatency;
+    private Long maxLatency;
+}
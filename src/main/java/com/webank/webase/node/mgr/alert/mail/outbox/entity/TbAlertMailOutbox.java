@@ -0,0 +1,47 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.alert.mail.outbox.entity;
+
+import java.time.LocalDateTime;
+import lombok.Data;
+
+/**
+ * Entity for table tb_alert_mail_outbox in db
+ */
+@Data
+public class TbAlertMailOutbox {
+
+    private Long id;
+    private Integer ruleId;
+    private String alertTitle;
+    private String alertContent;
+    /**
+     * md5 of rule and content, identical alert within window is not queued again
+     */
+    private String contentHash;
+    /**
+     * queued time of db divided by dedup window, unique with contentHash
+     */
+    private Long dedupBucket;
+    /**
+     * @related MailOutboxStatus enum
+     */
+    private Integer status;
+    private Integer retryCount;
+    private LocalDateTime createTime;
+    private LocalDateTime sendTime;
+    private LocalDateTime modifyTime;
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.appintegration;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.webank.webase.node.mgr.appintegration.entity.AppInfoParam;
+import com.webank.webase.node.mgr.appintegration.entity.TbAppInfo;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * app info by app key for validating app request, app key not exists is cached too.
+ * entry lives appCredentialCacheTtl at most, so app changed by other node-mgr is seen after it.
+ */
+@Log4j2
+@Component
+public class AppCredentialCache implements InitializingBean {
+
+    @Autowired
+    private AppInfoMapper appInfoMapper;
+    @Autowired
+    private ConstantProperties cproperties;
+
+    private Cache<String, Optional<TbAppInfo>> credentialCache;
+
+    @Override
+    public void afterPropertiesSet() {
+        credentialCache = CacheBuilder.newBuilder()
+            .maximumSize(cproperties.getAppCredentialCacheSize())
+            .expireAfterWrite(cproperties.getAppCredentialCacheTtl(), TimeUnit.MILLISECONDS)
+            .build();
+    }
+
+    /**
+     * app info of app key, null if not exists.
+     */
+    public TbAppInfo get(String appKey) {
+        if (cproperties.getAppCredentialCacheTtl() <= 0) {
+            return query(appKey);
+        }
+        try {
+            return credentialCache.get(appKey, () -> Optional.ofNullable(query(appKey)))
+                .orElse(null);
+        } catch (ExecutionException ex) {
+            log.error("fail get app credential. appKey:{}", appKey, ex.getCause());
+            return query(appKey);
+        }
+    }
+
+    public void invalidate(String appKey) {
+        if (appKey != null) {
+            credentialCache.invalidate(appKey);
+        }
+    }
+
+    private TbAppInfo query(String appKey) {
+        AppInfoParam appInfoParam = new AppInfoParam();
+        appInfoParam.setAppKey(appKey);
+        return appInfoMapper.queryAppInfoAdded(appInfoParam);
+    }
+}
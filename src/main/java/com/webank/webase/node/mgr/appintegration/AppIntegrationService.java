@@ -40,6 +40,8 @@ public class AppIntegrationService {
 
     @Autowired
     private AppInfoMapper appInfoMapper;
+    @Autowired
+    private AppCredentialCache appCredentialCache;
 
     private static final int APP_KEY_NUMBER = 8;
     private static final int APP_SECRET_NUMBER = 32;
@@ -90,6 +92,8 @@ public class AppIntegrationService {
             log.warn("affect 0 rows of tb_app_info");
             throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
         }
+        // drop app key cached as not exists
+        appCredentialCache.invalidate(appKey);
         return queryAppInfoByAppKey(appKey);
     }
 
@@ -113,7 +117,9 @@ public class AppIntegrationService {
         TbAppInfo tbAppInfo = new TbAppInfo();
         BeanUtils.copyProperties(appAddInfo, tbAppInfo);
         updateAppInfo(tbAppInfo);
-        return queryAppInfoById(appAddInfo.getId());
+        TbAppInfo updated = queryAppInfoById(appAddInfo.getId());
+        appCredentialCache.invalidate(updated.getAppKey());
+        return updated;
     }
 
     /**
@@ -206,10 +212,12 @@ public class AppIntegrationService {
      */
     public void deleteApp(Integer id) {
         // check id
-        if (!checkExistById(id)) {
+        TbAppInfo tbAppInfo = queryAppInfoById(id);
+        if (tbAppInfo == null) {
             throw new NodeMgrException(ConstantCode.ID_NOT_EXISTS);
         }
         appInfoMapper.deleteAppInfo(id);
+        appCredentialCache.invalidate(tbAppInfo.getAppKey());
     }
 
     /**
@@ -273,6 +281,15 @@ public class AppIntegrationService {
         return queryAppInfoAdded(appInfoParam);
     }
 
+    /**
+     * query app info by appKey from cache, for validating app request.
+     *
+     * @return
+     */
+    public TbAppInfo queryAppCredential(String appKey) {
+        return appCredentialCache.get(appKey);
+    }
+
     /**
      * queryAppInfo.
      * 
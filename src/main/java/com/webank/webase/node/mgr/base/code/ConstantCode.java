@@ -329,6 +329,8 @@ public class ConstantCode {
     public static final RetCode NO_PRIVATE_KEY_OF_CONTRACT_MANAGER = RetCode.mark(202542,"No private key of contract manager address in webase");
     public static final RetCode BIND_PRIVATE_KEY_NOT_MATCH = RetCode.mark(202543,"Binding private key not match this user's address");
     public static final RetCode BIND_PRIVATE_ALREADY_HAS_PK = RetCode.mark(202544,"This user already contain private key");
+    // v1.5.4
+    public static final RetCode REQUEST_REPLAYED = RetCode.mark(202545, "request replayed, signature already used");
 
 
     /* auth */
@@ -0,0 +1,60 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.base.enums;
+
+/**
+ * strategy of choosing front to request.
+ */
+public enum FrontSelectStrategy {
+    /**
+     * random order
+     */
+    RANDOM("random"),
+    /**
+     * lowest ewma latency first
+     */
+    EWMA_LATENCY("ewmaLatency"),
+    /**
+     * least requests in flight first
+     */
+    LEAST_OUTSTANDING("leastOutstanding"),
+    /**
+     * highest block number of group first, then lowest ewma latency
+     */
+    HIGHEST_BLOCK("highestBlock");
+
+    private String value;
+
+    FrontSelectStrategy(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return this.value;
+    }
+
+    /**
+     * get strategy by value, default EWMA_LATENCY if not match.
+     */
+    public static FrontSelectStrategy getByValue(String value) {
+        for (FrontSelectStrategy strategy : FrontSelectStrategy.values()) {
+            if (strategy.getValue().equalsIgnoreCase(value)) {
+                return strategy;
+            }
+        }
+        return EWMA_LATENCY;
+    }
+}
@@ -20,6 +20,7 @@ import com.webank.webase.node.mgr.base.enums.SqlSortType;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.block.entity.BlockListParam;
+import com.webank.webase.node.mgr.block.entity.IngestStageInfo;
 import com.webank.webase.node.mgr.block.entity.TbBlock;
 import java.math.BigInteger;
 import java.time.Duration;
@@ -178,4 +179,18 @@ public class BlockController {
         return baseResponse;
     }
 
+    /**
+     * get throughput and backlog of block ingest stages.
+     */
+    @GetMapping("/ingestStat")
+    public BaseResponse getIngestStat() {
+        Instant startTime = Instant.now();
+        log.info("start getIngestStat startTime:{}", startTime.toEpochMilli());
+        BaseResponse baseResponse = new BaseResponse(ConstantCode.SUCCESS);
+        List<IngestStageInfo> stageInfoList = blockService.getIngestStageInfoList();
+        baseResponse.setData(stageInfoList);
+        log.info("end getIngestStat useTime:{} result:{}",
+            Duration.between(startTime, Instant.now()).toMillis(), JsonTools.toJSONString(baseResponse));
+        return baseResponse;
+    }
 }
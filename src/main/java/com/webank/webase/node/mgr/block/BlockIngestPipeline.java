@@ -0,0 +1,192 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.block;
+
+import com.webank.webase.node.mgr.block.entity.IngestStageInfo;
+import com.webank.webase.node.mgr.block.entity.TxExternalInfo;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.external.ExtAccountService;
+import com.webank.webase.node.mgr.external.ExtContractService;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.fisco.bcos.sdk.client.protocol.model.JsonTransactionResponse;
+import org.fisco.bcos.sdk.client.protocol.response.BcosBlock;
+import org.fisco.bcos.sdk.client.protocol.response.BcosBlock.TransactionResult;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * stages of block ingest:
+ * fetch (pull block executor) -> persist (group's pull thread) -> extract -> external
+ * fetch and persist run inline of pulling block, extract and external have own
+ * bounded queue and workers, so slow external lookup won't stall block ingest
+ */
+@Log4j2
+@Component
+public class BlockIngestPipeline implements InitializingBean, DisposableBean {
+
+    /**
+     * interval of sampling rate of stages: ms
+     */
+    private static final long RATE_SAMPLE_INTERVAL = 10000;
+
+    @Autowired
+    private ConstantProperties cProperties;
+    @Autowired
+    private ExtAccountService extAccountService;
+    @Autowired
+    private ExtContractService extContractService;
+
+    private IngestStage<BcosBlock.Block> fetchStage;
+    private IngestStage<BcosBlock.Block> persistStage;
+    private IngestStage<Pair<Integer, BcosBlock.Block>> extractStage;
+    private IngestStage<TxExternalInfo> externalStage;
+    private ScheduledExecutorService rateSampler;
+
+    @Override
+    public void afterPropertiesSet() {
+        fetchStage = new IngestStage<>("fetch");
+        persistStage = new IngestStage<>("persist");
+        externalStage = new IngestStage<>("external",
+            cProperties.getIngestExternalQueueSize(), cProperties.getIngestExternalThreads(),
+            this::saveExternalInfo);
+        extractStage = new IngestStage<>("extract",
+            cProperties.getIngestBlockQueueSize(), 1, this::extractExternalInfo);
+        rateSampler = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("node-mgr-ingest-sampler-"));
+        rateSampler.scheduleAtFixedRate(() -> getStageList().forEach(IngestStage::sample),
+            RATE_SAMPLE_INTERVAL, RATE_SAMPLE_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (rateSampler != null) {
+            rateSampler.shutdownNow();
+        }
+        extractStage.shutdown();
+        externalStage.shutdown();
+    }
+
+    public void markFetched(long count) {
+        fetchStage.markProcessed(count);
+    }
+
+    public void markFetchFailed() {
+        fetchStage.markFailed();
+    }
+
+    /**
+     * hand over blocks saved in db to extract stage
+     */
+    public void markPersisted(int groupId, List<BcosBlock.Block> blockList) {
+        persistStage.markProcessed(blockList.size());
+        if (!cProperties.getEnableExternalFromBlock()) {
+            return;
+        }
+        try {
+            for (BcosBlock.Block blockInfo : blockList) {
+                if (!blockInfo.getTransactions().isEmpty()) {
+                    extractStage.put(Pair.of(groupId, blockInfo));
+                }
+            }
+        } catch (InterruptedException ex) {
+            log.error("markPersisted interrupted. groupId:{}", groupId);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void markPersistFailed() {
+        persistStage.markFailed();
+    }
+
+    /**
+     * stat of all stages in pipeline order
+     */
+    public List<IngestStageInfo> getStageInfoList() {
+        return getStageList().stream().map(IngestStage::getStageInfo)
+            .collect(Collectors.toList());
+    }
+
+    private List<IngestStage<?>> getStageList() {
+        return Arrays.asList(fetchStage, persistStage, extractStage, externalStage);
+    }
+
+    /**
+     * find external account and contract in block, skip duplicate of same block
+     */
+    private void extractExternalInfo(Pair<Integer, BcosBlock.Block> savedBlock) {
+        int groupId = savedBlock.getLeft();
+        BcosBlock.Block blockInfo = savedBlock.getRight();
+        Set<String> userSet = new HashSet<>();
+        Set<String> contractSet = new HashSet<>();
+        try {
+            for (TransactionResult<?> t : blockInfo.getTransactions()) {
+                JsonTransactionResponse trans = (JsonTransactionResponse) t;
+                if (StringUtils.isNotBlank(trans.getFrom()) && userSet.add(trans.getFrom())) {
+                    externalStage.put(new TxExternalInfo(groupId, trans.getFrom(), null,
+                        blockInfo.getTimestamp()));
+                }
+                // call tx's contract address is tx's to, deploy tx's to is empty or all zero
+                String to = trans.getTo();
+                boolean isCall = StringUtils.isNotBlank(to)
+                    && !ConstantProperties.ADDRESS_DEPLOY.equalsIgnoreCase(to);
+                if (isCall && (to.startsWith(ConstantProperties.ADDRESS_PRECOMPILED)
+                    || !contractSet.add(to))) {
+                    continue;
+                }
+                externalStage.put(new TxExternalInfo(groupId, null, trans.getHash(),
+                    blockInfo.getTimestamp()));
+            }
+        } catch (InterruptedException ex) {
+            log.error("extractExternalInfo interrupted. groupId:{}", groupId);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * save user or contract from block's transaction,
+     * same address saved by another worker meanwhile is not a failure
+     */
+    private void saveExternalInfo(TxExternalInfo externalInfo) {
+        try {
+            if (externalInfo.getUserAddress() != null) {
+                extAccountService.saveAccountOnChain(externalInfo.getGroupId(),
+                    externalInfo.getUserAddress());
+            } else {
+                log.debug("saveExternalInfo contract from block:{}", externalInfo.getTxHash());
+                extContractService.saveContractByTxHash(externalInfo.getGroupId(),
+                    externalInfo.getTxHash(), externalInfo.getBlockTimestamp());
+            }
+        } catch (DuplicateKeyException ex) {
+            log.debug("saveExternalInfo already saved. groupId:{} user:{} txHash:{}",
+                externalInfo.getGroupId(), externalInfo.getUserAddress(),
+                externalInfo.getTxHash());
+        }
+    }
+}
@@ -41,6 +41,11 @@ public interface BlockMapper {
      */
     Integer add(@Param("tableName") String tableName, @Param("block") TbBlock tbBlock);
 
+    /**
+     * Add block data of consecutive heights.
+     */
+    Integer batchAdd(@Param("tableName") String tableName, @Param("list") List<TbBlock> list);
+
     /**
      * update sealer.
      */
@@ -62,12 +67,6 @@ public interface BlockMapper {
      * get block count by max minux min
      */
     Integer getBlockCountByMinMax(@Param("tableName") String tableName);
-    /**
-     * Delete block height.
-     */
-    Integer remove(@Param("tableName") String tableName,
-        @Param("blockRetainMax") BigInteger blockRetainMax);
-
     TbBlock getBlockByBlockNumber(@Param("tableName") String tableName,
                                   @Param("blockNumber") BigInteger blockNumber);
 }
@@ -13,6 +13,7 @@
  */
 package com.webank.webase.node.mgr.block;
 
+import com.google.common.util.concurrent.RateLimiter;
 import com.webank.webase.node.mgr.base.code.ConstantCode;
 import com.webank.webase.node.mgr.base.enums.TableName;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
@@ -20,17 +21,22 @@ import com.webank.webase.node.mgr.config.properties.ConstantProperties;
 import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.tools.NodeMgrTools;
 import com.webank.webase.node.mgr.block.entity.BlockListParam;
+import com.webank.webase.node.mgr.block.entity.IngestStageInfo;
 import com.webank.webase.node.mgr.block.entity.TbBlock;
-import com.webank.webase.node.mgr.external.ExtAccountService;
-import com.webank.webase.node.mgr.external.ExtContractService;
 import com.webank.webase.node.mgr.front.frontinterface.FrontInterfaceService;
 import com.webank.webase.node.mgr.transaction.TransHashService;
 import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import com.webank.webase.node.mgr.transdaily.TransDailyCounter;
 import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
 import org.fisco.bcos.sdk.client.protocol.model.JsonTransactionResponse;
@@ -38,9 +44,12 @@ import org.fisco.bcos.sdk.client.protocol.response.BcosBlock;
 import org.fisco.bcos.sdk.client.protocol.response.BcosBlock.TransactionResult;
 import org.fisco.bcos.sdk.client.protocol.response.BcosBlockHeader.BlockHeader;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * services for block data.
@@ -60,18 +69,24 @@ public class BlockService {
     @Autowired
     private ConstantProperties cProperties;
     @Autowired
-    private ExtAccountService extAccountService;
+    private BlockIngestPipeline ingestPipeline;
     @Autowired
-    private ExtContractService extContractService;
-    private static final Long SAVE_TRANS_SLEEP_TIME = 5L;
+    private TransDailyCounter transDailyCounter;
+    @Qualifier(value = "pullBlockExecutor")
+    @Autowired
+    private ThreadPoolTaskExecutor pullBlockExecutor;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    private volatile RateLimiter saveBlockRateLimiter;
 
 
     /**
      * get block from chain by groupId
-     * ThreadPool configuration in /base/config/BeanConfig
+     * run in pullBlock pool of GroupTaskExecutor
      */
-    @Async(value = "mgrAsyncExecutor")
-    public void pullBlockByGroupId(CountDownLatch latch, int groupId) {
+    public void pullBlockByGroupId(int groupId) {
         log.debug("start pullBlockByGroupId groupId:{}", groupId);
         try {
             //max block in chain
@@ -79,6 +94,11 @@ public class BlockService {
             //next block
             BigInteger nextBlock = getNextBlockNumber(groupId);
 
+            if (cProperties.getPullBlockWindowSize() > 1) {
+                pullBlockByWindow(groupId, nextBlock, maxChainBlock);
+                return;
+            }
+
             //pull block
             while (Objects.nonNull(maxChainBlock) && maxChainBlock.compareTo(nextBlock) >= 0) {
                 log.debug("continue pull block. maxChainBlock:{} nextBlock:{}", maxChainBlock,
@@ -94,14 +114,83 @@ public class BlockService {
             }
         } catch (Exception ex) {
             log.error("fail pullBlockByGroupId. groupId:{} ", groupId, ex);
-        }finally {
-            // finish one group, count down
-            latch.countDown();
         }
         log.debug("end pullBlockByGroupId groupId:{}", groupId);
     }
 
 
+    /**
+     * pull block by window: fetch heights of window concurrently,
+     * and save them in height order by batch. next height is tracked in memory,
+     * and re-read from db in next round after a block failed to be saved.
+     */
+    private void pullBlockByWindow(int groupId, BigInteger nextBlock, BigInteger maxChainBlock) {
+        int windowSize = cProperties.getPullBlockWindowSize();
+        int batchSize = Math.max(cProperties.getSaveBlockBatchSize(), 1);
+        // reorder buffer: pending blocks ordered by height, fetched out of order
+        Deque<CompletableFuture<BcosBlock.Block>> window = new ArrayDeque<>(windowSize);
+        List<BcosBlock.Block> batch = new ArrayList<>(batchSize);
+        BigInteger fetchBlock = nextBlock;
+        try {
+            while (Objects.nonNull(maxChainBlock)) {
+                // fill window
+                while (window.size() < windowSize && maxChainBlock.compareTo(fetchBlock) >= 0) {
+                    BigInteger blockNumber = fetchBlock;
+                    window.addLast(CompletableFuture.supplyAsync(
+                        () -> frontInterface.getBlockByNumber(groupId, blockNumber),
+                        pullBlockExecutor));
+                    fetchBlock = fetchBlock.add(BigInteger.ONE);
+                }
+                if (window.isEmpty()) {
+                    //reset maxChainBlock
+                    BigInteger latestChainBlock = frontInterface.getLatestBlockNumber(groupId);
+                    if (latestChainBlock == null || latestChainBlock.compareTo(maxChainBlock) <= 0) {
+                        break;
+                    }
+                    maxChainBlock = latestChainBlock;
+                    continue;
+                }
+                log.debug("continue pull block by window. maxChainBlock:{} nextBlock:{}",
+                    maxChainBlock, nextBlock);
+
+                // take in height order, wait for the lowest height of window
+                BcosBlock.Block blockInfo;
+                try {
+                    blockInfo = window.pollFirst().join();
+                } catch (CompletionException ex) {
+                    log.error("fail pullBlockByWindow. groupId:{} nextBlock:{}", groupId,
+                        nextBlock, ex.getCause());
+                    ingestPipeline.markFetchFailed();
+                    break;
+                }
+                if (blockInfo == null || blockInfo.getNumber() == null
+                    || blockInfo.getNumber().compareTo(nextBlock) != 0) {
+                    log.info("pullBlockByWindow jump over. not found block:{}", nextBlock);
+                    break;
+                }
+                ingestPipeline.markFetched(1);
+                batch.add(blockInfo);
+                nextBlock = nextBlock.add(BigInteger.ONE);
+                if (batch.size() >= batchSize) {
+                    boolean saved = saveBLockInfoBatch(batch, groupId);
+                    batch.clear();
+                    if (!saved) {
+                        log.info("pullBlockByWindow stop. fail to save block before:{}",
+                            nextBlock);
+                        break;
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                saveBLockInfoBatch(batch, groupId);
+            }
+        } finally {
+            // drop blocks fetched but not saved, pull them again in next round
+            window.forEach(future -> future.cancel(false));
+        }
+        log.debug("end pullBlockByWindow groupId:{} nextBlock:{}", groupId, nextBlock);
+    }
+
     /**
      * pull block by number.
      */
@@ -112,6 +201,7 @@ public class BlockService {
             log.info("pullBlockByNumber jump over. not found new block.");
             return;
         }
+        ingestPipeline.markFetched(1);
         //save block info
         saveBLockInfo(blockInfo, groupId);
     }
@@ -163,37 +253,119 @@ public class BlockService {
 
     /**
      * save report block info and save tx in block
+     * @return false if block is not next of db max block
      */
     @Transactional
-    public void saveBLockInfo(BcosBlock.Block blockInfo, Integer groupId) throws NodeMgrException {
+    public boolean saveBLockInfo(BcosBlock.Block blockInfo, Integer groupId) throws NodeMgrException {
         List<TransactionResult> transList = blockInfo.getTransactions();
 
         // save block info
         TbBlock tbBlock = chainBlock2TbBlock(blockInfo);
-        addBlockInfo(tbBlock, groupId);
+        if (!addBlockInfo(tbBlock, groupId)) {
+            return false;
+        }
+        acquireSavePermits(1 + transList.size());
 
         // save trans hash
+        List<TbTransHash> tbTransList = new ArrayList<>(transList.size());
         for (TransactionResult t : transList) {
             JsonTransactionResponse trans = (JsonTransactionResponse) t;
-            TbTransHash tbTransHash = new TbTransHash(trans.getHash(), trans.getFrom(),
-                trans.getTo(), tbBlock.getBlockNumber(), tbBlock.getBlockTimestamp());
-            transHashService.addTransInfo(groupId, tbTransHash);
-            // save user or contract from block's transaction
-            this.saveExternalInfo(groupId, trans, blockInfo.getTimestamp());
-            try {
-                Thread.sleep(SAVE_TRANS_SLEEP_TIME);
-            } catch (InterruptedException ex) {
-                log.error("saveBLockInfo", ex);
-                Thread.currentThread().interrupt();
+            tbTransList.add(new TbTransHash(trans.getHash(), trans.getFrom(),
+                trans.getTo(), tbBlock.getBlockNumber(), tbBlock.getBlockTimestamp()));
+        }
+        if (!tbTransList.isEmpty()) {
+            transHashService.batchAddTransInfo(groupId, tbTransList);
+        }
+        transDailyCounter.addBlocks(groupId, Collections.singletonList(tbBlock));
+        // save user or contract from block's transaction in ingest pipeline
+        ingestPipeline.markPersisted(groupId, Collections.singletonList(blockInfo));
+        eventPublisher.publishEvent(new NewBlockEvent(this, groupId, tbBlock.getBlockNumber()));
+        return true;
+    }
+
+    /**
+     * save consecutive blocks and their tx in one db transaction
+     * @param blockList blocks sorted by height
+     * @return false if first block is not next of db max block
+     */
+    public boolean saveBLockInfoBatch(List<BcosBlock.Block> blockList, int groupId)
+        throws NodeMgrException {
+        log.debug("start saveBLockInfoBatch groupId:{} blockSize:{}", groupId, blockList.size());
+        List<TbBlock> tbBlockList = new ArrayList<>(blockList.size());
+        List<TbTransHash> tbTransList = new ArrayList<>();
+        for (BcosBlock.Block blockInfo : blockList) {
+            TbBlock tbBlock = chainBlock2TbBlock(blockInfo);
+            tbBlockList.add(tbBlock);
+            for (TransactionResult<?> t : blockInfo.getTransactions()) {
+                JsonTransactionResponse trans = (JsonTransactionResponse) t;
+                tbTransList.add(new TbTransHash(trans.getHash(), trans.getFrom(),
+                    trans.getTo(), tbBlock.getBlockNumber(), tbBlock.getBlockTimestamp()));
+            }
+        }
+        // check blocks are consecutive, and the first one is dbMaxBLock + 1
+        BigInteger firstBlock = tbBlockList.get(0).getBlockNumber();
+        for (int i = 1; i < tbBlockList.size(); i++) {
+            BigInteger expectBlock = firstBlock.add(BigInteger.valueOf(i));
+            if (tbBlockList.get(i).getBlockNumber().compareTo(expectBlock) != 0) {
+                log.error("fail saveBLockInfoBatch. expectBlock:{} pullBlockNumber:{}",
+                    expectBlock, tbBlockList.get(i).getBlockNumber());
+                return false;
+            }
+        }
+        acquireSavePermits(tbBlockList.size() + tbTransList.size());
+
+        String tableName = TableName.BLOCK.getTableName(groupId);
+        Boolean saved = transactionTemplate.execute(status -> {
+            BigInteger dbMaxBLock = blockmapper.getLatestBlockNumber(tableName);
+            if (dbMaxBLock != null && firstBlock.compareTo(dbMaxBLock.add(numberOne)) != 0) {
+                log.info("fail saveBLockInfoBatch.  dbMaxBLock:{} pullBlockNumber:{}",
+                    dbMaxBLock, firstBlock);
+                return false;
+            }
+            blockmapper.batchAdd(tableName, tbBlockList);
+            if (!tbTransList.isEmpty()) {
+                transHashService.batchAddTransInfo(groupId, tbTransList);
             }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(saved)) {
+            ingestPipeline.markPersistFailed();
+            return false;
         }
+        transDailyCounter.addBlocks(groupId, tbBlockList);
+        // save user or contract from block's transaction in ingest pipeline
+        ingestPipeline.markPersisted(groupId, blockList);
+        eventPublisher.publishEvent(new NewBlockEvent(this, groupId,
+            tbBlockList.get(tbBlockList.size() - 1).getBlockNumber()));
+        log.debug("end saveBLockInfoBatch groupId:{} lastBlock:{}", groupId,
+            tbBlockList.get(tbBlockList.size() - 1).getBlockNumber());
+        return true;
+    }
+
+    /**
+     * throttle rows of block and trans saved to db
+     */
+    private void acquireSavePermits(int rows) {
+        int rowsPerSecond = cProperties.getSaveBlockRowsPerSecond();
+        if (rowsPerSecond <= 0) {
+            return;
+        }
+        if (saveBlockRateLimiter == null) {
+            synchronized (this) {
+                if (saveBlockRateLimiter == null) {
+                    saveBlockRateLimiter = RateLimiter.create(rowsPerSecond);
+                }
+            }
+        }
+        saveBlockRateLimiter.acquire(rows);
     }
 
     /**
      * add block info to db.
+     * @return false if block is not next of db max block
      */
     @Transactional
-    public void addBlockInfo(TbBlock tbBlock, int groupId) throws NodeMgrException {
+    public boolean addBlockInfo(TbBlock tbBlock, int groupId) throws NodeMgrException {
         log.debug("start addBlockInfo tbBlock:{}", JsonTools.toJSONString(tbBlock));
         String tableName = TableName.BLOCK.getTableName(groupId);
         //check newBLock == dbMaxBLock +1
@@ -202,11 +374,12 @@ public class BlockService {
         if (dbMaxBLock != null && !(pullBlockNumber.compareTo(dbMaxBLock.add(numberOne)) == 0)) {
             log.info("fail addBlockInfo.  dbMaxBLock:{} pullBlockNumber:{}", dbMaxBLock,
                 pullBlockNumber);
-            return;
+            return false;
         }
 
         // save block info
         blockmapper.add(tableName, tbBlock);
+        return true;
     }
 
     /**
@@ -288,16 +461,6 @@ public class BlockService {
     }
 
 
-    /**
-     * remove block info.
-     */
-    public Integer remove(Integer groupId, BigInteger blockRetainMax)
-        throws NodeMgrException {
-        String tableName = TableName.BLOCK.getTableName(groupId);
-        Integer affectRow = blockmapper.remove(tableName, blockRetainMax);
-        return affectRow;
-    }
-
     /**
      * get latest block number
      */
@@ -365,6 +528,13 @@ public class BlockService {
         return frontInterface.getBlockHeaderByHash(groupId, pkHash);
     }
 
+    /**
+     * stat of block ingest stages
+     */
+    public List<IngestStageInfo> getIngestStageInfoList() {
+        return ingestPipeline.getStageInfoList();
+    }
+
     /**
      * get block header by hash from front
      * @param input block height or tx hash
@@ -372,17 +542,4 @@ public class BlockService {
     public Object searchByBlockNumOrTxHash(int groupId, String input) {
         return frontInterface.searchByBlockNumOrTxHash(groupId, input);
     }
-
-    private void saveExternalInfo(int groupId, JsonTransactionResponse trans, String timestamp) {
-        log.info("saveExternalInfo trans block number:{}", trans.getBlockNumber());
-        if (!cProperties.getEnableExternalFromBlock()) {
-            return;
-        }
-        // try to save external account
-        extAccountService.saveAccountOnChain(groupId, trans.getFrom());
-        // try to save external contract
-        log.debug("saveExternalInfo contract from block:{}", trans.getHash());
-        extContractService.asyncSaveContract(groupId, trans.getHash(), timestamp);
-
-    }
 }
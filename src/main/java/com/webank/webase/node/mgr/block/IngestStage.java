@@ -0,0 +1,167 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.block;
+
+import com.webank.webase.node.mgr.block.entity.IngestStageInfo;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * one stage of block ingest.
+ * stage with handler owns a bounded queue drained by its own workers,
+ * upstream blocks on put when queue is full;
+ * stage without handler runs inline in caller, and only records metrics.
+ */
+@Log4j2
+public class IngestStage<T> {
+
+    private final String stageName;
+    private final BlockingQueue<T> queue;
+    private final int queueCapacity;
+    private final ExecutorService workers;
+
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong blockedTime = new AtomicLong();
+    /**
+     * last sample of processed count, replaced as a whole by sample()
+     */
+    private final AtomicReference<RateSample> lastSample = new AtomicReference<>(
+        new RateSample(0, System.currentTimeMillis(), 0.0));
+
+    /**
+     * inline stage, only records metrics.
+     */
+    public IngestStage(String stageName) {
+        this.stageName = stageName;
+        this.queue = null;
+        this.queueCapacity = 0;
+        this.workers = null;
+    }
+
+    /**
+     * queued stage, start workers to drain queue.
+     */
+    public IngestStage(String stageName, int queueCapacity, int workerCount,
+        Consumer<T> handler) {
+        this.stageName = stageName;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.workers = Executors.newFixedThreadPool(workerCount,
+            new CustomizableThreadFactory("node-mgr-ingest-" + stageName + "-"));
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(() -> drain(handler));
+        }
+    }
+
+    /**
+     * put item to queue, wait if queue is full.
+     */
+    public void put(T item) throws InterruptedException {
+        if (queue.offer(item)) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        queue.put(item);
+        blockedTime.addAndGet(System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * record items handled inline.
+     */
+    public void markProcessed(long count) {
+        processedCount.addAndGet(count);
+    }
+
+    public void markFailed() {
+        failedCount.incrementAndGet();
+    }
+
+    public String getStageName() {
+        return stageName;
+    }
+
+    /**
+     * compute rate since last sample, called periodically by one sampler thread.
+     */
+    public void sample() {
+        long now = System.currentTimeMillis();
+        long count = processedCount.get();
+        RateSample last = lastSample.get();
+        long gap = Math.max(now - last.time, 1);
+        lastSample.set(new RateSample(count, now, (count - last.count) * 1000.0 / gap));
+    }
+
+    /**
+     * stat of stage, rate is of the last sample interval.
+     */
+    public IngestStageInfo getStageInfo() {
+        IngestStageInfo info = new IngestStageInfo();
+        info.setStageName(stageName);
+        info.setProcessedCount(processedCount.get());
+        info.setFailedCount(failedCount.get());
+        info.setProcessedPerSecond(lastSample.get().perSecond);
+        info.setQueueSize(queue == null ? 0 : queue.size());
+        info.setQueueCapacity(queueCapacity);
+        info.setBlockedTime(blockedTime.get());
+        return info;
+    }
+
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    private void drain(Consumer<T> handler) {
+        while (!Thread.currentThread().isInterrupted()) {
+            T item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                handler.accept(item);
+                processedCount.incrementAndGet();
+            } catch (Exception ex) {
+                failedCount.incrementAndGet();
+                log.error("fail handle ingest item. stage:{}", stageName, ex);
+            }
+        }
+        log.info("ingest stage worker stop. stage:{}", stageName);
+    }
+
+    private static class RateSample {
+        private final long count;
+        private final long time;
+        private final double perSecond;
+
+        private RateSample(long count, long time, double perSecond) {
+            this.count = count;
+            this.time = time;
+            this.perSecond = perSecond;
+        }
+    }
+}
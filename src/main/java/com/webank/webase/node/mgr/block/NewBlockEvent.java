@@ -0,0 +1,47 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.block;
+
+import java.math.BigInteger;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * new blocks of group saved.
+ */
+public class NewBlockEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int groupId;
+    private final BigInteger blockNumber;
+
+    public NewBlockEvent(Object source, int groupId, BigInteger blockNumber) {
+        super(source);
+        this.groupId = groupId;
+        this.blockNumber = blockNumber;
+    }
+
+    public int getGroupId() {
+        return groupId;
+    }
+
+    /**
+     * latest block number saved
+     */
+    public BigInteger getBlockNumber() {
+        return blockNumber;
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.block.entity;
+
+import lombok.Data;
+
+/**
+ * throughput and backlog of one block ingest stage.
+ */
+@Data
+public class IngestStageInfo {
+
+    private String stageName;
+    /**
+     * items handled by stage since started
+     */
+    private Long processedCount;
+    private Long failedCount;
+    /**
+     * items handled per second in last sample interval (10s)
+     */
+    private Double processedPerSecond;
+    /**
+     * queue depth and capacity, 0 if stage runs inline without queue
+     */
+    private Integer queueSize;
+    private Integer queueCapacity;
+    /**
+     * total time upstream blocked on a full queue (ms)
+     */
+    private Long blockedTime;
+}
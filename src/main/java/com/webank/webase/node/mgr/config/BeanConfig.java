@@ -16,11 +16,21 @@
 package com.webank.webase.node.mgr.config;
 
 import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.config.properties.HttpPoolProperties;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Scope;
 import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.web.client.RestTemplate;
@@ -35,6 +45,8 @@ public class BeanConfig {
 
     @Autowired
     private ConstantProperties constantProperties;
+    @Autowired
+    private HttpPoolProperties httpPoolProperties;
 
     @Bean
     public RestTemplate restTemplate(ClientHttpRequestFactory factory) {
@@ -45,12 +57,14 @@ public class BeanConfig {
      * resttemplate for generic http request.
      */
     @Bean(name = "genericRestTemplate")
-    public RestTemplate getRestTemplate() {
-        SimpleClientHttpRequestFactory factory = getHttpFactoryForDeploy();
+    public RestTemplate getRestTemplate(CloseableHttpClient frontHttpClient) {
+        HttpComponentsClientHttpRequestFactory factory =
+            new HttpComponentsClientHttpRequestFactory(frontHttpClient);
         // ms
         factory.setReadTimeout(constantProperties.getHttpTimeOut());
         // ms
         factory.setConnectTimeout(constantProperties.getHttpTimeOut());
+        factory.setConnectionRequestTimeout(constantProperties.getHttpTimeOut());
         return new RestTemplate(factory);
     }
 
@@ -58,15 +72,59 @@ public class BeanConfig {
      * resttemplate for deploy contract.
      */
     @Bean(name = "deployRestTemplate")
-    public RestTemplate getDeployRestTemplate() {
-        SimpleClientHttpRequestFactory factory = getHttpFactoryForDeploy();
+    public RestTemplate getDeployRestTemplate(CloseableHttpClient frontHttpClient) {
+        HttpComponentsClientHttpRequestFactory factory =
+            new HttpComponentsClientHttpRequestFactory(frontHttpClient);
         // ms
         factory.setReadTimeout(constantProperties.getContractDeployTimeOut());
         // ms
         factory.setConnectTimeout(constantProperties.getContractDeployTimeOut());
+        factory.setConnectionRequestTimeout(constantProperties.getContractDeployTimeOut());
         return new RestTemplate(factory);
     }
 
+    /**
+     * connection pool of front, shared by generic and deploy resttemplate.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PoolingHttpClientConnectionManager frontConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager =
+            new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(httpPoolProperties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(httpPoolProperties.getDefaultMaxPerRoute());
+        connectionManager.setValidateAfterInactivity(
+            httpPoolProperties.getValidateAfterInactivity());
+        // max connections of specific front
+        httpPoolProperties.getMaxPerRoute().forEach((ipPort, max) -> {
+            log.info("frontConnectionManager front:{} maxPerRoute:{}", ipPort, max);
+            connectionManager.setMaxPerRoute(new HttpRoute(HttpHost.create(ipPort)), max);
+        });
+        return connectionManager;
+    }
+
+    /**
+     * http client with keep-alive, idle eviction and gzip decompression.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient frontHttpClient(
+        PoolingHttpClientConnectionManager frontConnectionManager) {
+        long keepAliveTime = httpPoolProperties.getKeepAliveTime();
+        long idleTimeout = httpPoolProperties.getIdleTimeout();
+        HttpClientBuilder builder = HttpClients.custom()
+            .setConnectionManager(frontConnectionManager)
+            .setKeepAliveStrategy((response, context) -> {
+                long duration = DefaultConnectionKeepAliveStrategy.INSTANCE
+                    .getKeepAliveDuration(response, context);
+                return duration > 0 ? duration : keepAliveTime;
+            })
+            .evictExpiredConnections()
+            .evictIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+        if (!httpPoolProperties.getContentCompression()) {
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+
     /**
      * factory for deploy.
      */
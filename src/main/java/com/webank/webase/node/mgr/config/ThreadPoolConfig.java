@@ -27,7 +27,8 @@ public class ThreadPoolConfig {
     private SchedulerProperties schedulerProperties;
 
     /**
-     * pull block and trans from chain async
+     * common async task, such as reset group list and check app status.
+     * task run by group(pull block, trans monitor, block stat) see GroupTaskExecutor
      * @return ThreadPoolTaskExecutor
      */
     @Bean
@@ -44,6 +45,24 @@ public class ThreadPoolConfig {
         return executor;
     }
 
+    /**
+     * fetch blocks of one pull window, or block statistic of one stat range, from front concurrently
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor pullBlockExecutor() {
+        log.info("start pullBlockExecutor init..");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(executorProperties.getPullBlockPoolSize());
+        executor.setMaxPoolSize(executorProperties.getPullBlockPoolSize());
+        executor.setQueueCapacity(executorProperties.getQueueSize());
+        executor.setThreadNamePrefix(executorProperties.getPullBlockThreadNamePrefix());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // init executor
+        executor.initialize();
+        return executor;
+    }
+
 
     /**
      * thread pool for scheduler parallel task (not async):
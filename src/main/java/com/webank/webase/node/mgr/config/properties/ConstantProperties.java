@@ -69,18 +69,65 @@ public class ConstantProperties {
      * block into
      */
     private BigInteger blockRetainMax = new BigInteger("10000");
+    /**
+     * tb_block_ and tb_trans_hash_ are partitioned by block_number, tb_user_transaction_monitor_
+     * by day, partitionAheadCount empty partitions are kept ahead, check interval: ms.
+     * blocks are dropped by whole partition, so keep blockPartitionSize not larger than
+     * blockRetainMax, or up to blockPartitionSize more blocks than retained are kept
+     */
+    private Long blockPartitionSize = 10000L;
+    private Integer monitorPartitionDays = 30;
+    private Integer partitionAheadCount = 2;
+    private Long partitionTaskFixedDelay = 600000L;
+    /**
+     * rows of table not partitioned are deleted in chunks of about retentionChunkRows,
+     * deletes take retentionDutyPercent of time at most, and each table stops after
+     * retentionRunTime(ms) and resumes next time
+     */
+    private Long retentionChunkRows = 1000L;
+    private Integer retentionDutyPercent = 20;
+    private Long retentionRunTime = 20000L;
     private BigInteger pullBlockInitCnts = new BigInteger("100");
     /**
      * 20 mills
      */
     private Long pullBlockSleepTime = 20L;
     private Boolean isBlockPullFromZero = false;
+    /**
+     * count of block heights fetched concurrently when catching up,
+     * 1 means pull block one by one
+     */
+    private Integer pullBlockWindowSize = 10;
+    /**
+     * count of consecutive blocks saved in one db transaction when pulling block by window
+     */
+    private Integer saveBlockBatchSize = 10;
+    /**
+     * max rows of block and trans saved per second, 0 means no limit
+     */
+    private Integer saveBlockRowsPerSecond = 5000;
+    /**
+     * block ingest pipeline: queue of saved blocks to extract external info,
+     * queue and threads of saving external account and contract
+     */
+    private Integer ingestBlockQueueSize = 1000;
+    private Integer ingestExternalQueueSize = 10000;
+    private Integer ingestExternalThreads = 2;
 
     /**
      * receive http request
      * unit: seconds
      */
     private Integer authTokenMaxAge = 900;
+    /**
+     * ttl(ms) of account cached by token, 0 means no cache
+     */
+    private Long authSessionCacheTtl = 30000L;
+    private Long authSessionCacheSize = 10000L;
+    /**
+     * interval(ms) to flush extended expire time of cached token
+     */
+    private Long authTokenFlushInterval = 5000L;
     private Boolean isUseSecurity = true;
     private String ignoreCheckFront = null;
     /**
@@ -100,17 +147,64 @@ public class ConstantProperties {
     private Boolean isPrivateKeyEncrypt = true;
     private Integer maxRequestFail = 3;
     private Long sleepWhenHttpMaxFail = 60000L;
+    /**
+     * circuit breaker of front: open if fail rate of sliding window reach breakerFailRate
+     * and requests of window reach breakerMinRequest
+     */
+    private Long breakerWindowTime = 60000L;
+    private Integer breakerWindowBuckets = 6;
+    private Integer breakerMinRequest = 10;
+    private Double breakerFailRate = 0.5;
+    /**
+     * strategy of choosing front: random, ewmaLatency, leastOutstanding, highestBlock
+     * read strategy is for GET request
+     */
+    private String frontSelectStrategy = "ewmaLatency";
+    private String frontReadSelectStrategy = "highestBlock";
+    private Double frontLatencyEwmaAlpha = 0.3;
+    /**
+     * ewma latency of front halves every half life(ms) without request
+     */
+    private Long frontLatencyHalfLife = 30000L;
+    /**
+     * block number of front older than ttl(ms) is not used by highestBlock
+     */
+    private Long frontBlockNumberTtl = 60000L;
+    /**
+     * ttl(ms) of cached front read response by uri, 0 means no cache
+     * cache of group also dropped when group has new block
+     */
+    private Map<String, Long> frontReadCacheTtl = defaultFrontReadCacheTtl();
+    /**
+     * max count of cached runtime code by contract address, 0 means no cache
+     */
+    private Long contractCodeCacheSize = 2000L;
 
     /**
      * transaction monitor
      * unit: seconds
      */
     private Long transMonitorTaskFixedRate = 60000L;
-    private Integer monitorInfoRetainMax = 10000;
+    /**
+     * days of monitor rows retained, older partition is dropped
+     */
+    private Integer monitorRetainDays = 180;
     private Long analysisSleepTime = 200L;
     private Boolean isMonitorIgnoreUser = false;
     private Boolean isMonitorIgnoreContract = false;
+    /**
+     * audit a page of trans in batch, false to audit trans one by one
+     */
+    private Boolean isMonitorBatch = true;
     private Integer monitorUnusualMaxCount = 20;
+    /**
+     * shards of trans audit by block_number mod monitorShardCount, 1 means audit group in one loop.
+     * shard is claimed by a db lease (seconds) renewed by heartbeat, taken over after expired,
+     * all node-mgr instances must use the same shard count
+     */
+    private Integer monitorShardCount = 1;
+    private Integer monitorShardWorkerCount = 4;
+    private Integer monitorShardLeaseTime = 60;
 
     /**
      * alert mail interval
@@ -118,22 +212,68 @@ public class ConstantProperties {
     private Integer auditMonitorTaskFixedDelay = 300000;
     private Integer nodeStatusMonitorTaskFixedDelay = 60000;
     private Integer certMonitorTaskFixedDelay = 300000;
+    /**
+     * alert mail outbox: send interval(ms), mails sent in one smtp connection,
+     * max pending mails, window(s) to skip identical alert, and send times before failed
+     */
+    private long alertMailSendInterval = 5000;
+    private int alertMailBatchSize = 50;
+    private int alertMailOutboxSize = 1000;
+    private long alertMailDedupWindow = 300;
+    private int alertMailMaxRetry = 3;
     /**
      * application integration
      */
     private long appRequestTimeOut = 300000;
+    /**
+     * ttl(ms) of app credential cached by app key, 0 means no cache
+     */
+    private long appCredentialCacheTtl = 60000;
+    private long appCredentialCacheSize = 1000;
+    /**
+     * reject app request whose signature already used within appRequestTimeOut,
+     * max count of signatures remembered
+     */
+    private boolean appReplayCheckEnable = false;
+    private long appReplayCacheSize = 100000;
     private boolean isTransferEncrypt = true;
 
     /**
      * default resetGroupList interval gap, default 15000ms(15s)
      */
     private long resetGroupListInterval = 15000;
+    /**
+     * timeout of getting groups and nodes from one front in resetGroupList: ms
+     */
+    private long topologyFrontTimeout = 10000;
+    /**
+     * threads to query fronts in resetGroupList
+     */
+    private int topologyThreadCount = 8;
     /**
      * pull block statistic interval: ms
      */
     private BigInteger statBlockRetainMax = new BigInteger("100000");
     private Integer statBlockFixedDelay = 5000;
     private Integer statBlockPageSize = 10;
+    /**
+     * count of block heights whose statistic is fetched concurrently and saved by one insert,
+     * 1 means pull block statistic one by one in statBlockPageSize
+     */
+    private Integer statBlockRangeSize = 100;
+    /**
+     * roll up block stat by minute, hour and day, and read chart of large gap from rollup
+     */
+    private Boolean statRollupEnable = true;
+    /**
+     * days of minute and hour rollup retained, day rollup is kept
+     */
+    private Integer statRollupMinuteRetainDays = 7;
+    private Integer statRollupHourRetainDays = 180;
+    /**
+     * interval to flush daily trans count of saved blocks: ms
+     */
+    private Integer transDailyFlushInterval = 5000;
     /**
      * enable pull external account(user address) and contract from block
      */
@@ -258,4 +398,14 @@ public class ConstantProperties {
         return newDirectory;
     }
     //******************* Add in v1.4.0 end. *******************
-}
\ No newline at end of file
+
+    private static Map<String, Long> defaultFrontReadCacheTtl() {
+        Map<String, Long> ttlMap = new ConcurrentHashMap<>();
+        ttlMap.put("web3/blockNumber", 1000L);
+        ttlMap.put("web3/sealerList", 5000L);
+        ttlMap.put("web3/observerList", 5000L);
+        ttlMap.put("web3/syncStatus", 1000L);
+        ttlMap.put("web3/consensusStatus", 1000L);
+        return ttlMap;
+    }
+}
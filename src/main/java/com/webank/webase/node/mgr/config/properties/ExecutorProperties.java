@@ -33,4 +33,17 @@ public class ExecutorProperties {
     private Integer queueSize = 50;
     private String threadNamePrefix = "node-mgr-async-";
 
+    /**
+     * pool of fetching block from front when pulling block by window
+     */
+    private Integer pullBlockPoolSize = 10;
+    private String pullBlockThreadNamePrefix = "node-mgr-pull-block-";
+
+    /**
+     * pool size of each group task type(pull block, trans monitor, block stat),
+     * and max tasks of one type run by one group at the same time
+     */
+    private Integer groupTaskPoolSize = 5;
+    private Integer groupTaskConcurrency = 1;
+
 }
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.config.properties;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * connection pool of http request to front
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = HttpPoolProperties.HTTP_POOL_PREFIX)
+public class HttpPoolProperties {
+    public static final String HTTP_POOL_PREFIX = "httpPool";
+
+    private Integer maxTotal = 200;
+    private Integer defaultMaxPerRoute = 20;
+    /**
+     * max connections of specific front, key is frontIp:frontPort
+     */
+    private Map<String, Integer> maxPerRoute = new HashMap<>();
+    /**
+     * close connection idle longer than it (ms)
+     */
+    private Long idleTimeout = 30000L;
+    /**
+     * keep alive time if front not return Keep-Alive header (ms)
+     */
+    private Long keepAliveTime = 60000L;
+    /**
+     * check connection before reuse if inactive longer than it (ms)
+     */
+    private Integer validateAfterInactivity = 2000;
+    /**
+     * request gzip and decompress response
+     */
+    private Boolean contentCompression = true;
+}
@@ -31,6 +31,8 @@ import com.webank.webase.node.mgr.account.AccountService;
 import com.webank.webase.node.mgr.account.entity.TbAccountInfo;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.account.token.TokenService;
+import com.webank.webase.node.mgr.account.token.TokenSession;
+import com.webank.webase.node.mgr.account.token.TokenSessionCache;
 import lombok.extern.log4j.Log4j2;
 
 @Log4j2
@@ -40,23 +42,36 @@ public class TokenAuthenticationProvider implements AuthenticationProvider {
     private TokenService tokenService;
     @Autowired
     private AccountService accountService;
+    @Autowired
+    private TokenSessionCache tokenSessionCache;
 
     @Override
     public Authentication authenticate(Authentication authentication) throws AuthenticationException {
         String token = authentication.getName();
-        String account = null;
+        TokenSession session = tokenSessionCache.get(token);
+        TbAccountInfo accountInfo;
         try {
-            account = tokenService.getValueFromToken(token);
-            tokenService.updateExpireTime(token);
-        } catch (NodeMgrException e) {
+            if (session != null) {
+                accountInfo = session.getAccountInfo();
+            } else {
+                long generation = tokenSessionCache.currentGeneration();
+                String account = tokenService.getValueFromToken(token);
+                if (null == account) {
+                    throw new CredentialsExpiredException("Invalid token");
+                }
+                accountInfo = accountService.queryByAccount(account);
+                if (null == accountInfo) {
+                    throw new CredentialsExpiredException("Invalid token");
+                }
+                tokenSessionCache.put(token, accountInfo, generation);
+            }
+            tokenSessionCache.touch(token);
+        } catch (NodeMgrException | AuthenticationException e) {
             throw e;
         } catch (Exception e) {
             throw new BadCredentialsException("db");
         }
-        if (null == account) {
-            throw new CredentialsExpiredException("Invalid token");
-        }
-        AbstractAuthenticationToken result = buildAuthentication(account);
+        AbstractAuthenticationToken result = buildAuthentication(accountInfo);
         result.setDetails(authentication.getDetails());
         return result;
     }
@@ -75,8 +90,7 @@ public class TokenAuthenticationProvider implements AuthenticationProvider {
         return simpleGrantedAuthorities;
     }
 
-    private AbstractAuthenticationToken buildAuthentication(String account) {
-        TbAccountInfo tbAccountInfo = accountService.queryByAccount(account);
+    private AbstractAuthenticationToken buildAuthentication(TbAccountInfo tbAccountInfo) {
         log.debug(tbAccountInfo + "****" + tbAccountInfo.getAccount());
         return new TokenAuthenticationToken(tbAccountInfo.getAccount(), buildAuthorities(tbAccountInfo));
     }
@@ -13,6 +13,8 @@
  */
 package com.webank.webase.node.mgr.config.security.filter;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.webank.webase.node.mgr.appintegration.AppIntegrationService;
 import com.webank.webase.node.mgr.appintegration.entity.TbAppInfo;
 import com.webank.webase.node.mgr.base.code.ConstantCode;
@@ -20,10 +22,12 @@ import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.config.properties.ConstantProperties;
 import com.webank.webase.node.mgr.tools.NodeMgrTools;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -33,13 +37,26 @@ import org.springframework.web.servlet.HandlerInterceptor;
  */
 @Log4j2
 @Component
-public class AppIntegrationFilter implements HandlerInterceptor {
+public class AppIntegrationFilter implements HandlerInterceptor, InitializingBean {
 
     @Autowired
     private AppIntegrationService appIntegrationService;
     @Autowired
     private ConstantProperties cproperties;
 
+    /**
+     * appKey:signature used within appRequestTimeOut
+     */
+    private Cache<String, Boolean> usedSignatureCache;
+
+    @Override
+    public void afterPropertiesSet() {
+        usedSignatureCache = CacheBuilder.newBuilder()
+            .maximumSize(cproperties.getAppReplayCacheSize())
+            .expireAfterWrite(2 * cproperties.getAppRequestTimeOut(), TimeUnit.MILLISECONDS)
+            .build();
+    }
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
             Object handler) {
@@ -71,20 +88,27 @@ public class AppIntegrationFilter implements HandlerInterceptor {
         if (StringUtils.isBlank(signature)) {
             throw new NodeMgrException(ConstantCode.SIGNATURE_CANNOT_EMPTY);
         }
-        TbAppInfo tbAppInfo = appIntegrationService.queryAppInfoByAppKey(appKey);
+        TbAppInfo tbAppInfo = appIntegrationService.queryAppCredential(appKey);
         if (Objects.isNull(tbAppInfo)) {
             throw new NodeMgrException(ConstantCode.APPKEY_NOT_EXISTS);
         }
+        // timestamp ahead is limited too, so used signature is remembered as long as it is valid
         long reqeustInterval = System.currentTimeMillis() - Long.valueOf(timestamp);
-        if (reqeustInterval > cproperties.getAppRequestTimeOut()) {
+        if (Math.abs(reqeustInterval) > cproperties.getAppRequestTimeOut()) {
             throw new NodeMgrException(ConstantCode.TIMESTAMP_TIMEOUT);
         }
-        // joint data string to md5
-        String dataStr = timestamp + appKey + tbAppInfo.getAppSecret();
-        if (!signature.equals(NodeMgrTools.md5Encrypt(dataStr))) {
+        // md5 of timestamp + appKey + appSecret
+        if (!NodeMgrTools.md5SignatureMatches(signature, timestamp, appKey,
+            tbAppInfo.getAppSecret())) {
             log.warn("fail validateAppRequest. signature not match.");
             throw new NodeMgrException(ConstantCode.SIGNATURE_NOT_MATCH);
         }
+        if (cproperties.isAppReplayCheckEnable()
+            && usedSignatureCache.asMap().putIfAbsent(appKey + ":" + signature, Boolean.TRUE)
+            != null) {
+            log.warn("fail validateAppRequest. signature already used. appKey:{}", appKey);
+            throw new NodeMgrException(ConstantCode.REQUEST_REPLAYED);
+        }
     }
 
 }
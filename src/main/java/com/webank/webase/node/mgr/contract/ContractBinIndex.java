@@ -0,0 +1,181 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.contract;
+
+import com.webank.webase.node.mgr.contract.abi.AbiMapper;
+import com.webank.webase.node.mgr.contract.abi.entity.AbiInfo;
+import com.webank.webase.node.mgr.contract.entity.BinIndexItem;
+import com.webank.webase.node.mgr.contract.entity.TbContract;
+import com.webank.webase.node.mgr.group.GroupService;
+import com.webank.webase.node.mgr.group.entity.TbGroup;
+import com.webank.webase.node.mgr.tools.NodeMgrTools;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * in-memory index from bin fingerprint to contract and abi of each group.
+ * fingerprint is stored in indexed column of tb_contract and tb_abi,
+ * group is loaded on first lookup and dropped after its contract or abi changed.
+ * fingerprint of rows saved before the column existed is filled once on startup.
+ */
+@Log4j2
+@Component
+public class ContractBinIndex implements CommandLineRunner {
+
+    @Autowired
+    private ContractMapper contractMapper;
+    @Autowired
+    private AbiMapper abiMapper;
+    @Autowired
+    private GroupService groupService;
+
+    private final Map<Integer, GroupBinIndex> groupIndexMap = new ConcurrentHashMap<>();
+
+    /**
+     * find contract by runtime bin without "0x" and metadata tail.
+     */
+    public Integer getContractIdByRuntimeBin(int groupId, String normalizedBin) {
+        if (StringUtils.isBlank(normalizedBin)) {
+            return null;
+        }
+        return getGroupIndex(groupId).contractByRuntime.get(NodeMgrTools.shaEncode(normalizedBin));
+    }
+
+    /**
+     * find abi by runtime bin without "0x" and metadata tail.
+     */
+    public Integer getAbiIdByRuntimeBin(int groupId, String normalizedBin) {
+        if (StringUtils.isBlank(normalizedBin)) {
+            return null;
+        }
+        return getGroupIndex(groupId).abiByRuntime.get(NodeMgrTools.shaEncode(normalizedBin));
+    }
+
+    /**
+     * find contract by input of deploy tx.
+     * input starts with bytecode and follows constructor params,
+     * so hash the prefix of each known bytecode length, longest first.
+     */
+    public Integer getContractIdByDeployInput(int groupId, String deployInput) {
+        String input = NodeMgrTools.removeFirstStr(deployInput, "0x");
+        if (StringUtils.isBlank(input)) {
+            return null;
+        }
+        GroupBinIndex index = getGroupIndex(groupId);
+        for (Integer length : index.bytecodeLengths) {
+            if (length > input.length()) {
+                continue;
+            }
+            Integer contractId = index.contractByBytecode
+                .get(NodeMgrTools.shaEncode(input.substring(0, length)));
+            if (contractId != null) {
+                return contractId;
+            }
+        }
+        return null;
+    }
+
+    public void removeGroup(int groupId) {
+        groupIndexMap.remove(groupId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBinChange(ContractBinChangeEvent event) {
+        log.debug("contract bin of group:{} changed, drop bin index", event.getGroupId());
+        removeGroup(event.getGroupId());
+    }
+
+    @Override
+    public void run(String... args) {
+        for (TbGroup group : groupService.getGroupList(null)) {
+            try {
+                backfillBinHash(group.getGroupId());
+            } catch (Exception ex) {
+                log.error("fail backfillBinHash, groupId:{}", group.getGroupId(), ex);
+            }
+        }
+    }
+
+    /**
+     * fill fingerprint of rows saved before the column existed.
+     * index loaded before the fill may miss these rows, so drop it.
+     */
+    public void backfillBinHash(int groupId) {
+        long startTime = System.currentTimeMillis();
+        List<TbContract> contractList = contractMapper.listWithoutBinHash(groupId);
+        contractList.forEach(contractMapper::updateBinHash);
+        List<AbiInfo> abiList = abiMapper.listWithoutBinHash(groupId);
+        abiList.forEach(abiMapper::updateBinHash);
+        if (contractList.isEmpty() && abiList.isEmpty()) {
+            return;
+        }
+        removeGroup(groupId);
+        log.info("backfill bin hash of group:{} contract:{} abi:{} useTime:{}", groupId,
+            contractList.size(), abiList.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private GroupBinIndex getGroupIndex(int groupId) {
+        return groupIndexMap.computeIfAbsent(groupId, this::loadGroupIndex);
+    }
+
+    /**
+     * only read, keep db writes out of computeIfAbsent.
+     */
+    private GroupBinIndex loadGroupIndex(int groupId) {
+        long startTime = System.currentTimeMillis();
+        GroupBinIndex index = new GroupBinIndex();
+        // keep the smallest id of same bin, as the former query did
+        for (BinIndexItem item : contractMapper.listBinIndex(groupId)) {
+            if (item.getBinHash() != null) {
+                index.contractByRuntime.putIfAbsent(item.getBinHash(), item.getId());
+            }
+            if (item.getBytecodeBinHash() != null && item.getBytecodeBinLen() != null) {
+                index.contractByBytecode.putIfAbsent(item.getBytecodeBinHash(), item.getId());
+                index.bytecodeLengths.add(item.getBytecodeBinLen());
+            }
+        }
+        for (BinIndexItem item : abiMapper.listBinIndex(groupId)) {
+            if (item.getBinHash() != null) {
+                index.abiByRuntime.putIfAbsent(item.getBinHash(), item.getId());
+            }
+        }
+        log.info("load bin index of group:{} contract:{} abi:{} useTime:{}", groupId,
+            index.contractByRuntime.size(), index.abiByRuntime.size(),
+            System.currentTimeMillis() - startTime);
+        return index;
+    }
+
+    /**
+     * read-only after loaded.
+     */
+    private static class GroupBinIndex {
+        private final Map<String, Integer> contractByRuntime = new HashMap<>();
+        private final Map<String, Integer> contractByBytecode = new HashMap<>();
+        private final NavigableSet<Integer> bytecodeLengths = new TreeSet<>(Collections.reverseOrder());
+        private final Map<String, Integer> abiByRuntime = new HashMap<>();
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.webank.webase.node.mgr.contract;
 
+import com.webank.webase.node.mgr.contract.entity.BinIndexItem;
 import com.webank.webase.node.mgr.contract.entity.ContractParam;
 import com.webank.webase.node.mgr.contract.entity.TbContract;
 import java.util.List;
@@ -43,8 +44,11 @@ public interface ContractMapper {
 
     TbContract queryContract(ContractParam queryParam);
 
-    List<TbContract> queryContractByBin(@Param("groupId") Integer groupId,
-        @Param("contractBin") String contractBin);
+    List<BinIndexItem> listBinIndex(@Param("groupId") Integer groupId);
+
+    List<TbContract> listWithoutBinHash(@Param("groupId") Integer groupId);
+
+    Integer updateBinHash(TbContract tbContract);
 
     String querySystemContractBin(@Param("groupId") Integer groupId,
         @Param("contractName") String contractName);
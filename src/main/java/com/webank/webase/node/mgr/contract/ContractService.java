@@ -31,6 +31,7 @@ import com.webank.webase.node.mgr.contract.abi.entity.ReqAbiListParam;
 import com.webank.webase.node.mgr.external.ExtContractService;
 import com.webank.webase.node.mgr.external.entity.TbExternalContract;
 import com.webank.webase.node.mgr.tools.JsonTools;
+import com.webank.webase.node.mgr.tools.NodeMgrTools;
 import com.webank.webase.node.mgr.tools.Web3Tools;
 import com.webank.webase.node.mgr.contract.abi.AbiService;
 import com.webank.webase.node.mgr.contract.abi.entity.AbiInfo;
@@ -54,6 +55,7 @@ import org.fisco.bcos.sdk.contract.precompiled.permission.PermissionInfo;
 import org.fisco.bcos.sdk.crypto.CryptoSuite;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -106,6 +108,10 @@ public class  ContractService {
     private GroupService groupService;
     @Autowired
     private ExtContractService extContractService;
+    @Autowired
+    private ContractBinIndex contractBinIndex;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * add new contract data.
@@ -147,6 +153,7 @@ public class  ContractService {
         BeanUtils.copyProperties(contract, tbContract);
         log.debug("newContract save contract");
         contractMapper.add(tbContract);
+        publishBinChange(tbContract.getGroupId());
         // save contract path
         log.debug("newContract save contract path");
         // if exist, auto not save (ignore)
@@ -214,6 +221,7 @@ public class  ContractService {
             }
             // save and update contract
             contractMapper.saveAndUpdate(tbContract);
+            publishBinChange(groupId);
             // save and update method
             NewMethodInputParam newMethodInputParam = new NewMethodInputParam();
             newMethodInputParam.setGroupId(groupId);
@@ -261,6 +269,7 @@ public class  ContractService {
             }
         }
         contractMapper.update(tbContract);
+        publishBinChange(tbContract.getGroupId());
         return tbContract;
     }
 
@@ -292,6 +301,7 @@ public class  ContractService {
         }
         //remove
         contractMapper.remove(contractId);
+        publishBinChange(groupId);
         log.debug("end deleteContract");
     }
 
@@ -360,7 +370,7 @@ public class  ContractService {
 
 
     /**
-     * query DeployInputParam By Address.
+     * query contract by runtime bin without "0x" and metadata tail.
      */
     public List<TbContract> queryContractByBin(Integer groupId, String contractBin)
         throws NodeMgrException {
@@ -368,15 +378,31 @@ public class  ContractService {
             if (StringUtils.isEmpty(contractBin)) {
                 return null;
             }
-            List<TbContract> contractRow = contractMapper.queryContractByBin(groupId, contractBin);
-            log.debug("start queryContractByBin:{}", contractBin, JsonTools.toJSONString(contractRow));
-            return contractRow;
+            Integer contractId = contractBinIndex.getContractIdByRuntimeBin(groupId, contractBin);
+            if (contractId == null) {
+                return Collections.emptyList();
+            }
+            TbContract contractRow = contractMapper.queryByContractId(contractId);
+            log.debug("end queryContractByBin contractId:{}", contractId);
+            return contractRow == null ? Collections.emptyList()
+                : Collections.singletonList(contractRow);
         } catch (RuntimeException ex) {
             log.error("fail queryContractByBin", ex);
             throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
         }
     }
 
+    /**
+     * query contract by input of deploy tx.
+     */
+    public TbContract queryContractByDeployInput(Integer groupId, String deployInput) {
+        Integer contractId = contractBinIndex.getContractIdByDeployInput(groupId, deployInput);
+        if (contractId == null) {
+            return null;
+        }
+        return contractMapper.queryByContractId(contractId);
+    }
+
     /**
      * deploy contract.
      * v1.5.0 import abi when re-deploy same contract
@@ -443,6 +469,7 @@ public class  ContractService {
         //tbContract.setContractVersion(version);
         tbContract.setDeployTime(LocalDateTime.now());
         contractMapper.update(tbContract);
+        publishBinChange(groupId);
 
         log.debug("end deployContract. contractId:{} groupId:{} contractAddress:{}",
             tbContract.getContractId(), groupId, contractAddress);
@@ -460,19 +487,37 @@ public class  ContractService {
         return tbContract;
     }
 
+    /**
+     * query by fingerprint index first, bin of deploy tx or runtime bin;
+     * fall back to substring match if not found.
+     */
     public Object queryContractOrAbiByBin(QueryByBinParam queryParam) {
         log.debug("start queryContractOrAbiByBin. queryParam:{}", JsonTools.toJSONString(queryParam));
+        int groupId = queryParam.getGroupId();
+        String bin = queryParam.getPartOfBytecodeBin();
+        TbContract tbContract = this.queryContractByDeployInput(groupId, bin);
+        if (tbContract != null) {
+            log.debug("queryContractOrAbiByBin return tbContract:{}", tbContract);
+            return tbContract;
+        }
+        String runtimeBin = NodeMgrTools.removeBinFirstAndLast(bin, NodeMgrTools.BIN_METADATA_LENGTH);
+        AbiInfo abiInfo = abiService.getAbiInfoByRuntimeBin(groupId, runtimeBin);
+        if (abiInfo != null) {
+            log.debug("queryContractOrAbiByBin return abiInfo:{}", abiInfo);
+            return abiInfo;
+        }
+
         ContractParam contractParam = new ContractParam();
         BeanUtils.copyProperties(queryParam, contractParam);
-        TbContract tbContract = this.queryContract(contractParam);
+        tbContract = this.queryContract(contractParam);
         if (tbContract != null) {
             log.debug("queryContractOrAbiByBin return tbContract:{}", tbContract);
             return tbContract;
         } else {
             ReqAbiListParam abiParam = new ReqAbiListParam();
-            abiParam.setGroupId(queryParam.getGroupId());
-            abiParam.setPartOfContractBin(queryParam.getPartOfBytecodeBin());
-            AbiInfo abiInfo = abiService.getAbiInfoByBin(abiParam);
+            abiParam.setGroupId(groupId);
+            abiParam.setPartOfContractBin(bin);
+            abiInfo = abiService.getAbiInfoByBin(abiParam);
             if (abiInfo == null) {
                 log.debug("queryContractOrAbiByBin not found");
                 return null;
@@ -607,6 +652,7 @@ public class  ContractService {
         }
         log.info("delete contract by groupId");
         contractMapper.removeByGroupId(groupId);
+        contractBinIndex.removeGroup(groupId);
         log.info("delete contract path by groupId");
         contractPathService.removeByGroupId(groupId);
     }
@@ -850,4 +896,8 @@ public class  ContractService {
         return contract;
 
     }
+
+    private void publishBinChange(int groupId) {
+        eventPublisher.publishEvent(new ContractBinChangeEvent(this, groupId));
+    }
 }
@@ -19,6 +19,7 @@ package com.webank.webase.node.mgr.contract.abi;
 import com.webank.webase.node.mgr.contract.abi.entity.AbiInfo;
 import com.webank.webase.node.mgr.contract.abi.entity.ReqAbiListParam;
 import com.webank.webase.node.mgr.contract.abi.entity.RspAllContract;
+import com.webank.webase.node.mgr.contract.entity.BinIndexItem;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 
@@ -58,4 +59,10 @@ public interface AbiMapper {
 	 */
 	AbiInfo getAbiByBin(ReqAbiListParam param);
 
+	List<BinIndexItem> listBinIndex(@Param("groupId") int groupId);
+
+	List<AbiInfo> listWithoutBinHash(@Param("groupId") int groupId);
+
+	Integer updateBinHash(AbiInfo abiInfo);
+
 }
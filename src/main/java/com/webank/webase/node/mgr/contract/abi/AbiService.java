@@ -21,6 +21,8 @@ import com.webank.webase.node.mgr.base.enums.ContractType;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.tools.NodeMgrTools;
+import com.webank.webase.node.mgr.contract.ContractBinChangeEvent;
+import com.webank.webase.node.mgr.contract.ContractBinIndex;
 import com.webank.webase.node.mgr.contract.ContractService;
 import com.webank.webase.node.mgr.contract.abi.entity.AbiInfo;
 import com.webank.webase.node.mgr.contract.abi.entity.ReqAbiListParam;
@@ -40,6 +42,7 @@ import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -59,6 +62,10 @@ public class AbiService {
     @Autowired
     @Lazy
     MonitorService monitorService;
+    @Autowired
+    ContractBinIndex contractBinIndex;
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
 
     public List<AbiInfo> getListByGroupId(ReqAbiListParam param) {
         List<AbiInfo> abiList = abiMapper.listOfAbi(param);
@@ -126,6 +133,7 @@ public class AbiService {
         updateAbi.setContractBin(contractBin);
         updateAbi.setModifyTime(LocalDateTime.now());
         abiMapper.update(updateAbi);
+        publishBinChange(param.getGroupId());
         // update method
         methodService.saveMethod(param.getGroupId(), contractAbiStr, ContractType.GENERALCONTRACT.getValue());
         if (StringUtils.isNotBlank(contractBin)) {
@@ -135,8 +143,12 @@ public class AbiService {
     }
 
     public void delete(Integer id) {
-        checkAbiIdExist(id);
+        AbiInfo abiInfo = getAbiById(id);
+        if (Objects.isNull(abiInfo)) {
+            throw new NodeMgrException(ConstantCode.ABI_INFO_NOT_EXISTS);
+        }
         abiMapper.deleteByAbiId(id);
+        publishBinChange(abiInfo.getGroupId());
     }
 
     private void checkAbiExist(int groupId, String account, String address) {
@@ -237,6 +249,7 @@ public class AbiService {
     public void deleteAbiByGroupId(int groupId) {
         log.info("deleteAbiByGroupId groupId:{}", groupId);
         abiMapper.deleteByGroupId(groupId);
+        contractBinIndex.removeGroup(groupId);
     }
 
     public int countOfAbiByGroupId(int groupId) {
@@ -312,8 +325,23 @@ public class AbiService {
         saveAbi.setModifyTime(now);
         saveAbi.setAccount(account);
         abiMapper.add(saveAbi);
+        publishBinChange(groupId);
     }
 
+    /**
+     * query abi by runtime bin without "0x" and metadata tail.
+     */
+    public AbiInfo getAbiInfoByRuntimeBin(int groupId, String runtimeBin) {
+        Integer abiId = contractBinIndex.getAbiIdByRuntimeBin(groupId, runtimeBin);
+        if (abiId == null) {
+            return null;
+        }
+        return abiMapper.queryByAbiId(abiId);
+    }
+
+    /**
+     * substring match on bin, only for bin of deploy tx not found in index.
+     */
     public AbiInfo getAbiInfoByBin(ReqAbiListParam param) {
         log.debug("start getAbiInfoByBin. queryParam:{}", JsonTools.toJSONString(param));
         AbiInfo abiInfo = abiMapper.getAbiByBin(param);
@@ -321,4 +349,8 @@ public class AbiService {
             JsonTools.toJSONString(abiInfo));
         return abiInfo;
     }
+
+    private void publishBinChange(int groupId) {
+        eventPublisher.publishEvent(new ContractBinChangeEvent(this, groupId));
+    }
 }
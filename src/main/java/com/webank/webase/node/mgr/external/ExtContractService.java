@@ -33,7 +33,6 @@ import java.util.Objects;
 import lombok.extern.log4j.Log4j2;
 import org.fisco.bcos.sdk.model.TransactionReceipt;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
@@ -52,15 +51,14 @@ public class ExtContractService {
     private FrontInterfaceService frontInterfaceService;
 
     /**
-     *
+     * save contract called or deployed by tx
      * @param groupId
      * @param txHash
-     * @return
+     * @param timestampStr block timestamp
      */
-    @Async(value = "mgrAsyncExecutor")
     @Transactional
-    public void asyncSaveContract(int groupId, String txHash, String timestampStr) {
-        log.debug("start asyncSaveContract groupId:{}, txHash:{}, timestampStr:{}",
+    public void saveContractByTxHash(int groupId, String txHash, String timestampStr) {
+        log.debug("start saveContractByTxHash groupId:{}, txHash:{}, timestampStr:{}",
             groupId, txHash, timestampStr);
 
         TransactionReceipt txReceipt = frontInterfaceService.getTransReceipt(groupId, txHash);
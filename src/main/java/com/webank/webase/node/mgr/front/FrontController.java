@@ -24,7 +24,12 @@ import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.front.entity.FrontInfo;
 import com.webank.webase.node.mgr.front.entity.FrontNodeConfig;
 import com.webank.webase.node.mgr.front.entity.FrontParam;
+import com.webank.webase.node.mgr.front.entity.HttpPoolStat;
 import com.webank.webase.node.mgr.front.entity.TbFront;
+import com.webank.webase.node.mgr.front.frontinterface.entity.CircuitBreakerInfo;
+import com.webank.webase.node.mgr.front.frontinterface.entity.FrontLoadInfo;
+import com.webank.webase.node.mgr.front.frontinterface.entity.CodeCacheStat;
+import com.webank.webase.node.mgr.front.frontinterface.entity.ReadCacheStat;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
@@ -165,4 +170,76 @@ public class FrontController extends BaseController {
         return new BaseResponse(ConstantCode.SUCCESS, nodeConfig);
     }
 
+    /**
+     * get connection pool stat of http request to front
+     */
+    @GetMapping(value = "/httpPoolStat")
+    @PreAuthorize(ConstantProperties.HAS_ROLE_ADMIN_OR_DEVELOPER)
+    public BaseResponse getHttpPoolStat() {
+        Instant startTime = Instant.now();
+        log.info("start getHttpPoolStat startTime:{} ", startTime.toEpochMilli());
+        List<HttpPoolStat> statList = frontService.getHttpPoolStat();
+
+        log.info("end getHttpPoolStat useTime:{}", Duration.between(startTime, Instant.now()).toMillis());
+        return new BaseResponse(ConstantCode.SUCCESS, statList);
+    }
+
+    /**
+     * get circuit breaker state of front, all fronts if frontId is null
+     */
+    @GetMapping(value = "/circuitBreaker")
+    @PreAuthorize(ConstantProperties.HAS_ROLE_ADMIN_OR_DEVELOPER)
+    public BaseResponse getCircuitBreakerList(
+        @RequestParam(value = "frontId", required = false) Integer frontId) {
+        Instant startTime = Instant.now();
+        log.info("start getCircuitBreakerList startTime:{} frontId:{}",
+            startTime.toEpochMilli(), frontId);
+        List<CircuitBreakerInfo> breakerList = frontService.getCircuitBreakerList(frontId);
+
+        log.info("end getCircuitBreakerList useTime:{}", Duration.between(startTime, Instant.now()).toMillis());
+        return new BaseResponse(ConstantCode.SUCCESS, breakerList);
+    }
+
+    /**
+     * get latency and choice stat of fronts
+     */
+    @GetMapping(value = "/loadStat")
+    @PreAuthorize(ConstantProperties.HAS_ROLE_ADMIN_OR_DEVELOPER)
+    public BaseResponse getFrontLoadList() {
+        Instant startTime = Instant.now();
+        log.info("start getFrontLoadList startTime:{} ", startTime.toEpochMilli());
+        List<FrontLoadInfo> loadList = frontService.getFrontLoadList();
+
+        log.info("end getFrontLoadList useTime:{}", Duration.between(startTime, Instant.now()).toMillis());
+        return new BaseResponse(ConstantCode.SUCCESS, loadList);
+    }
+
+    /**
+     * get hit and miss stat of cached front read uri
+     */
+    @GetMapping(value = "/readCacheStat")
+    @PreAuthorize(ConstantProperties.HAS_ROLE_ADMIN_OR_DEVELOPER)
+    public BaseResponse getReadCacheStatList() {
+        Instant startTime = Instant.now();
+        log.info("start getReadCacheStatList startTime:{} ", startTime.toEpochMilli());
+        List<ReadCacheStat> statList = frontService.getReadCacheStatList();
+
+        log.info("end getReadCacheStatList useTime:{}", Duration.between(startTime, Instant.now()).toMillis());
+        return new BaseResponse(ConstantCode.SUCCESS, statList);
+    }
+
+    /**
+     * get size and hit rate of cached contract runtime code
+     */
+    @GetMapping(value = "/codeCacheStat")
+    @PreAuthorize(ConstantProperties.HAS_ROLE_ADMIN_OR_DEVELOPER)
+    public BaseResponse getCodeCacheStat() {
+        Instant startTime = Instant.now();
+        log.info("start getCodeCacheStat startTime:{} ", startTime.toEpochMilli());
+        CodeCacheStat stat = frontService.getCodeCacheStat();
+
+        log.info("end getCodeCacheStat useTime:{}", Duration.between(startTime, Instant.now()).toMillis());
+        return new BaseResponse(ConstantCode.SUCCESS, stat);
+    }
+
 }
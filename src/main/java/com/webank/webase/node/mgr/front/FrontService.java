@@ -49,12 +49,21 @@ import com.webank.webase.node.mgr.deploy.service.PathService;
 import com.webank.webase.node.mgr.front.entity.FrontInfo;
 import com.webank.webase.node.mgr.front.entity.FrontNodeConfig;
 import com.webank.webase.node.mgr.front.entity.FrontParam;
+import com.webank.webase.node.mgr.front.entity.HttpPoolStat;
 import com.webank.webase.node.mgr.front.entity.TbFront;
-import com.webank.webase.node.mgr.frontgroupmap.FrontGroupMapCache;
+import com.webank.webase.node.mgr.frontgroupmap.FrontGroupMapChangeEvent;
 import com.webank.webase.node.mgr.frontgroupmap.FrontGroupMapMapper;
 import com.webank.webase.node.mgr.frontgroupmap.FrontGroupMapService;
 import com.webank.webase.node.mgr.frontgroupmap.entity.TbFrontGroupMap;
+import com.webank.webase.node.mgr.front.frontinterface.FrontCircuitBreakerRegistry;
 import com.webank.webase.node.mgr.front.frontinterface.FrontInterfaceService;
+import com.webank.webase.node.mgr.front.frontinterface.ContractCodeCache;
+import com.webank.webase.node.mgr.front.frontinterface.FrontReadCache;
+import com.webank.webase.node.mgr.front.frontinterface.FrontSelector;
+import com.webank.webase.node.mgr.front.frontinterface.entity.FrontLoadInfo;
+import com.webank.webase.node.mgr.front.frontinterface.entity.CodeCacheStat;
+import com.webank.webase.node.mgr.front.frontinterface.entity.ReadCacheStat;
+import com.webank.webase.node.mgr.front.frontinterface.entity.CircuitBreakerInfo;
 import com.webank.webase.node.mgr.group.GroupService;
 import com.webank.webase.node.mgr.group.entity.TbGroup;
 import com.webank.webase.node.mgr.node.NodeMapper;
@@ -89,6 +98,9 @@ import org.apache.commons.collections4.map.HashedMap;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 import org.apache.logging.log4j.Level;
 import org.fisco.bcos.sdk.client.protocol.response.NodeInfo.NodeInformation;
 import org.fisco.bcos.sdk.client.protocol.response.SyncStatus.SyncStatusInfo;
@@ -98,6 +110,7 @@ import org.fisco.bcos.sdk.model.NodeVersion.ClientVersion;
 import org.springframework.aop.framework.AopContext;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Service;
@@ -114,6 +127,16 @@ public class FrontService {
     @Autowired
     private FrontMapper frontMapper;
     @Autowired
+    private PoolingHttpClientConnectionManager frontConnectionManager;
+    @Autowired
+    private FrontCircuitBreakerRegistry breakerRegistry;
+    @Autowired
+    private FrontSelector frontSelector;
+    @Autowired
+    private FrontReadCache frontReadCache;
+    @Autowired
+    private ContractCodeCache contractCodeCache;
+    @Autowired
     private TbHostMapper tbHostMapper;
     @Autowired
     private NodeMapper nodeMapper;
@@ -130,7 +153,7 @@ public class FrontService {
     @Autowired
     private FrontInterfaceService frontInterface;
     @Autowired
-    private FrontGroupMapCache frontGroupMapCache;
+    private ApplicationEventPublisher eventPublisher;
     @Autowired
     private ResetGroupListTask resetGroupListTask;
     @Autowired
@@ -231,8 +254,8 @@ public class FrontService {
                 continue;
             }
         }
-        // clear cache
-        frontGroupMapCache.clearMapList();
+        // refresh cache
+        eventPublisher.publishEvent(new FrontGroupMapChangeEvent(this, "refreshFront"));
     }
 
     /**
@@ -333,8 +356,8 @@ public class FrontService {
         saveGroup(groupIdList, tbFront);
         // pull cert from new front and its node
         CertTools.isPullFrontCertsDone = false;
-        // clear cache
-        frontGroupMapCache.clearMapList();
+        // refresh cache
+        eventPublisher.publishEvent(new FrontGroupMapChangeEvent(this, "newFront"));
         return tbFront;
     }
 
@@ -486,14 +509,19 @@ public class FrontService {
             throw new NodeMgrException(ConstantCode.INVALID_FRONT_ID);
         }
 
+        TbFront tbFront = getById(frontId);
         //remove front
         frontMapper.remove(frontId);
         //remove map
         frontGroupMapService.removeByFrontId(frontId);
         //reset group list => remove groups that only belongs to this front
         resetGroupListTask.asyncResetGroupList();
-        //clear cache
-        frontGroupMapCache.clearMapList();
+        //refresh cache
+        eventPublisher.publishEvent(new FrontGroupMapChangeEvent(this, "removeFront"));
+        if (tbFront != null) {
+            breakerRegistry.removeBreaker(tbFront.getFrontIp(), tbFront.getFrontPort());
+        }
+        frontSelector.removeFront(frontId);
     }
 
     public void updateFront(TbFront updateFront) {
@@ -1332,4 +1360,62 @@ public class FrontService {
         FrontNodeConfig nodeConfig = frontInterface.getNodeConfigFromSpecificFront(frontIp, frontPort);
         return nodeConfig;
     }
+
+    /**
+     * connection pool stat of http request to front, first one is total.
+     */
+    public List<HttpPoolStat> getHttpPoolStat() {
+        List<HttpPoolStat> statList = new ArrayList<>();
+        statList.add(toHttpPoolStat(null, frontConnectionManager.getTotalStats()));
+        for (HttpRoute route : frontConnectionManager.getRoutes()) {
+            String ipPort = route.getTargetHost().toHostString();
+            statList.add(toHttpPoolStat(ipPort, frontConnectionManager.getStats(route)));
+        }
+        return statList;
+    }
+
+    private HttpPoolStat toHttpPoolStat(String route, PoolStats poolStats) {
+        HttpPoolStat stat = new HttpPoolStat();
+        stat.setRoute(route);
+        stat.setLeased(poolStats.getLeased());
+        stat.setAvailable(poolStats.getAvailable());
+        stat.setPending(poolStats.getPending());
+        stat.setMax(poolStats.getMax());
+        return stat;
+    }
+
+    /**
+     * circuit breaker state of all fronts, or of one front if frontId not null.
+     */
+    public List<CircuitBreakerInfo> getCircuitBreakerList(Integer frontId) {
+        if (frontId == null) {
+            return breakerRegistry.getBreakerInfoList(null, null);
+        }
+        TbFront tbFront = getById(frontId);
+        if (tbFront == null) {
+            throw new NodeMgrException(ConstantCode.INVALID_FRONT_ID);
+        }
+        return breakerRegistry.getBreakerInfoList(tbFront.getFrontIp(), tbFront.getFrontPort());
+    }
+
+    /**
+     * latency and choice stat of fronts.
+     */
+    public List<FrontLoadInfo> getFrontLoadList() {
+        return frontSelector.getLoadInfoList();
+    }
+
+    /**
+     * hit and miss stat of cached front read uri.
+     */
+    public List<ReadCacheStat> getReadCacheStatList() {
+        return frontReadCache.getStatList();
+    }
+
+    /**
+     * size and hit rate of cached contract runtime code.
+     */
+    public CodeCacheStat getCodeCacheStat() {
+        return contractCodeCache.getStat();
+    }
 }
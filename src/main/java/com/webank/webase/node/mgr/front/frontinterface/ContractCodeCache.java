@@ -0,0 +1,89 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.front.frontinterface;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.front.frontinterface.entity.CodeCacheStat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * size bounded cache of runtime code by group and contract address.
+ * code of address never changes once deployed, so entry has no ttl,
+ * empty code is not cached as the address may be deployed later.
+ */
+@Log4j2
+@Component
+public class ContractCodeCache implements InitializingBean {
+
+    private static final String EMPTY_CODE = "0x";
+
+    @Autowired
+    private ConstantProperties cproperties;
+
+    private Cache<String, String> codeCache;
+    private final AtomicLong emptyCount = new AtomicLong();
+
+    @Override
+    public void afterPropertiesSet() {
+        codeCache = CacheBuilder.newBuilder()
+            .maximumSize(cproperties.getContractCodeCacheSize())
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * get cached code, or request front by loader if absent.
+     */
+    public String get(int groupId, String contractAddress, Supplier<String> loader) {
+        if (cproperties.getContractCodeCacheSize() <= 0 || StringUtils.isBlank(contractAddress)) {
+            return loader.get();
+        }
+        String key = groupId + "_" + contractAddress.toLowerCase();
+        String code = codeCache.getIfPresent(key);
+        if (code != null) {
+            return code;
+        }
+        code = loader.get();
+        if (StringUtils.isBlank(code) || EMPTY_CODE.equals(code)) {
+            emptyCount.incrementAndGet();
+            return code;
+        }
+        codeCache.put(key, code);
+        return code;
+    }
+
+    public CodeCacheStat getStat() {
+        CacheStats stats = codeCache.stats();
+        CodeCacheStat stat = new CodeCacheStat();
+        stat.setSize(codeCache.size());
+        stat.setMaxSize(cproperties.getContractCodeCacheSize());
+        stat.setHitCount(stats.hitCount());
+        stat.setMissCount(stats.missCount());
+        stat.setHitRate(stats.hitRate());
+        stat.setEvictionCount(stats.evictionCount());
+        stat.setEmptyCount(emptyCount.get());
+        return stat;
+    }
+}
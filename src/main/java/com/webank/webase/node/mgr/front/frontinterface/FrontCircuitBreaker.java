@@ -0,0 +1,231 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.front.frontinterface;
+
+import com.webank.webase.node.mgr.front.frontinterface.entity.CircuitBreakerInfo;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * circuit breaker of requests to one front by one http method.
+ * CLOSED: request pass, open if consecutive fail over maxFail
+ *     or fail rate of sliding window over failRate;
+ * OPEN: request skipped until openTime passed, then turn to HALF_OPEN;
+ * HALF_OPEN: only one probe request pass, close if success, open again if fail.
+ */
+@Log4j2
+public class FrontCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String key;
+    private final int maxFail;
+    private final long openTime;
+    private final int minRequest;
+    private final double failRate;
+    private final long bucketTime;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFail = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+    /**
+     * start time of probe in flight, 0 if none
+     */
+    private final AtomicLong probeStartAt = new AtomicLong();
+    private final AtomicLong totalSuccess = new AtomicLong();
+    private final AtomicLong totalFail = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private volatile long latestFailTime;
+    private volatile String latestFailReason;
+
+    /**
+     * @param key frontIp:frontPort$method
+     * @param maxFail open if consecutive fail count over it
+     * @param openTime time of OPEN before probe (ms)
+     * @param windowTime time of sliding window (ms)
+     * @param bucketCount buckets of sliding window
+     * @param minRequest fail rate only checked if requests of window reach it
+     * @param failRate open if fail rate of window reach it
+     */
+    public FrontCircuitBreaker(String key, int maxFail, long openTime, long windowTime,
+        int bucketCount, int minRequest, double failRate) {
+        this.key = key;
+        this.maxFail = maxFail;
+        this.openTime = openTime;
+        this.minRequest = minRequest;
+        this.failRate = failRate;
+        this.bucketTime = Math.max(windowTime / bucketCount, 1);
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.set(i, new Bucket(-1));
+        }
+    }
+
+    /**
+     * check whether request can pass, acquire probe if HALF_OPEN.
+     */
+    public boolean allowRequest() {
+        long now = System.currentTimeMillis();
+        State current = state.get();
+        if (current == State.OPEN) {
+            if (now - openedAt.get() < openTime) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                log.info("circuit breaker half open. key:{}", key);
+            }
+        }
+        if (state.get() == State.HALF_OPEN) {
+            // one probe in flight, take over probe if it never reports back
+            long probeStart = probeStartAt.get();
+            if ((probeStart == 0 || now - probeStart > openTime)
+                && probeStartAt.compareAndSet(probeStart, now)) {
+                return true;
+            }
+            rejectedCount.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void recordSuccess() {
+        totalSuccess.incrementAndGet();
+        consecutiveFail.set(0);
+        currentBucket(System.currentTimeMillis()).success.incrementAndGet();
+        if (state.get() != State.CLOSED && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            resetWindow();
+            probeStartAt.set(0);
+            log.info("circuit breaker closed by probe. key:{}", key);
+        }
+    }
+
+    /**
+     * record fail request.
+     * @return true if breaker is open after this fail
+     */
+    public boolean recordFail(String reason) {
+        long now = System.currentTimeMillis();
+        totalFail.incrementAndGet();
+        latestFailTime = now;
+        latestFailReason = reason;
+        int failCount = consecutiveFail.incrementAndGet();
+        currentBucket(now).fail.incrementAndGet();
+
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            if (state.compareAndSet(State.HALF_OPEN, State.OPEN)) {
+                openedAt.set(now);
+                probeStartAt.set(0);
+                log.warn("circuit breaker open again by probe. key:{} reason:{}", key, reason);
+            }
+        } else if (current == State.CLOSED && (failCount > maxFail || isFailRateOver(now))) {
+            if (state.compareAndSet(State.CLOSED, State.OPEN)) {
+                openedAt.set(now);
+                log.warn("circuit breaker open. key:{} consecutiveFail:{} reason:{}",
+                    key, failCount, reason);
+            }
+        }
+        return state.get() == State.OPEN;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public CircuitBreakerInfo getInfo() {
+        long now = System.currentTimeMillis();
+        long[] window = windowCount(now);
+        CircuitBreakerInfo info = new CircuitBreakerInfo();
+        info.setKey(key);
+        info.setState(state.get().name());
+        info.setConsecutiveFail(consecutiveFail.get());
+        info.setWindowSuccess(window[0]);
+        info.setWindowFail(window[1]);
+        info.setTotalSuccess(totalSuccess.get());
+        info.setTotalFail(totalFail.get());
+        info.setRejectedCount(rejectedCount.get());
+        info.setLatestFailTime(latestFailTime);
+        info.setLatestFailReason(latestFailReason);
+        if (state.get() == State.OPEN) {
+            info.setRemainOpenTime(Math.max(openTime - (now - openedAt.get()), 0));
+        }
+        return info;
+    }
+
+    private boolean isFailRateOver(long now) {
+        long[] window = windowCount(now);
+        long total = window[0] + window[1];
+        return total >= minRequest && window[1] >= total * failRate;
+    }
+
+    /**
+     * success and fail count of buckets in window.
+     */
+    private long[] windowCount(long now) {
+        long epoch = now / bucketTime;
+        long success = 0;
+        long fail = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (epoch - bucket.epoch < buckets.length()) {
+                success += bucket.success.get();
+                fail += bucket.fail.get();
+            }
+        }
+        return new long[]{success, fail};
+    }
+
+    /**
+     * bucket of now, replace the expired one of same slot.
+     */
+    private Bucket currentBucket(long now) {
+        long epoch = now / bucketTime;
+        int index = (int) (epoch % buckets.length());
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket.epoch >= epoch) {
+                return bucket;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private void resetWindow() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, new Bucket(-1));
+        }
+    }
+
+    private static class Bucket {
+        private final long epoch;
+        private final AtomicLong success = new AtomicLong();
+        private final AtomicLong fail = new AtomicLong();
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
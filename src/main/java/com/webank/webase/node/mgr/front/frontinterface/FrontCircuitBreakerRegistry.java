@@ -0,0 +1,73 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.front.frontinterface;
+
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.front.frontinterface.entity.CircuitBreakerInfo;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * circuit breakers of front, key is frontIp:frontPort$method.
+ */
+@Component
+public class FrontCircuitBreakerRegistry {
+
+    @Autowired
+    private ConstantProperties cproperties;
+
+    private final Map<String, FrontCircuitBreaker> breakerMap = new ConcurrentHashMap<>();
+
+    /**
+     * get breaker of front and method, create if not exist.
+     */
+    public FrontCircuitBreaker getBreaker(String frontIp, int frontPort, String method) {
+        String key = buildKey(frontIp, frontPort, method);
+        return breakerMap.computeIfAbsent(key, k -> new FrontCircuitBreaker(k,
+            cproperties.getMaxRequestFail(), cproperties.getSleepWhenHttpMaxFail(),
+            cproperties.getBreakerWindowTime(), cproperties.getBreakerWindowBuckets(),
+            cproperties.getBreakerMinRequest(), cproperties.getBreakerFailRate()));
+    }
+
+    /**
+     * breaker info of all fronts, or of one front if frontIp and frontPort not null.
+     */
+    public List<CircuitBreakerInfo> getBreakerInfoList(String frontIp, Integer frontPort) {
+        String prefix = StringUtils.isBlank(frontIp) || frontPort == null ? ""
+            : frontIp + ":" + frontPort + "$";
+        return breakerMap.entrySet().stream()
+            .filter(entry -> entry.getKey().startsWith(prefix))
+            .map(entry -> entry.getValue().getInfo())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * remove breakers of front, such as front removed.
+     */
+    public void removeBreaker(String frontIp, int frontPort) {
+        String prefix = frontIp + ":" + frontPort + "$";
+        breakerMap.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static String buildKey(String frontIp, int frontPort, String method) {
+        return frontIp + ":" + frontPort + "$" + method;
+    }
+}
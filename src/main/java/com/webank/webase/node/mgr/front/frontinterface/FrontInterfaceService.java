@@ -69,6 +69,10 @@ public class FrontInterfaceService {
 
     @Autowired
     private FrontRestTools frontRestTools;
+    @Autowired
+    private FrontReadCache frontReadCache;
+    @Autowired
+    private ContractCodeCache contractCodeCache;
     @Qualifier(value = "genericRestTemplate")
     @Autowired
     private RestTemplate genericRestTemplate;
@@ -204,6 +208,15 @@ public class FrontInterfaceService {
             SyncStatusInfo.class);
     }
 
+    /**
+     * get latest block number from specific front.
+     */
+    public BigInteger getBlockNumberFromSpecificFront(String frontIp, Integer frontPort,
+            Integer groupId) {
+        return getFromSpecificFront(groupId, frontIp, frontPort, FrontRestTools.URI_BLOCK_NUMBER,
+            BigInteger.class);
+    }
+
     public BcosBlock.Block getBlockByNumberFromSpecificFront(String frontIp, Integer frontPort,
 													   Integer groupId, BigInteger blockNumber) {
 		log.debug("start getBlockByNumberFromSpecificFront frontIp:{},frontPort{}," +
@@ -333,7 +346,8 @@ public class FrontInterfaceService {
         log.debug("start getCodeFromFront. groupId:{} contractAddress:{} blockNumber:{}", groupId,
                 contractAddress, blockNumber);
         String uri = String.format(FrontRestTools.URI_CODE, contractAddress, blockNumber);
-        String code = frontRestTools.getForEntity(groupId, uri, String.class);
+        String code = contractCodeCache.get(groupId, contractAddress,
+            () -> frontRestTools.getForEntity(groupId, uri, String.class));
 
         log.debug("end getCodeFromFront:{}", code);
         return code;
@@ -384,10 +398,11 @@ public class FrontInterfaceService {
      */
     public List<String> getObserverList(Integer groupId) {
         log.debug("start getObserverList. groupId:{}", groupId);
-        List<String> observers =
-                frontRestTools.getForEntity(groupId, FrontRestTools.URI_GET_OBSERVER_LIST, List.class);
+        List<String> observers = frontReadCache.get(groupId, FrontRestTools.URI_GET_OBSERVER_LIST,
+            () -> frontRestTools.getForEntity(groupId, FrontRestTools.URI_GET_OBSERVER_LIST, List.class));
         log.debug("end getObserverList. observers:{}", JsonTools.toJSONString(observers));
-        return observers;
+        // copy of cached list
+        return new ArrayList<>(observers);
     }
 
     /**
@@ -405,8 +420,9 @@ public class FrontInterfaceService {
      */
     public ConsensusInfo getConsensusStatus(Integer groupId) {
         log.debug("start getConsensusStatus. groupId:{}", groupId);
-        ConsensusInfo consensusInfo = frontRestTools.getForEntity(groupId,
-                FrontRestTools.URI_CONSENSUS_STATUS, ConsensusInfo.class);
+        ConsensusInfo consensusInfo = frontReadCache.get(groupId,
+            FrontRestTools.URI_CONSENSUS_STATUS, () -> frontRestTools.getForEntity(groupId,
+                FrontRestTools.URI_CONSENSUS_STATUS, ConsensusInfo.class));
         log.debug("end getConsensusStatus. consensusInfo:{}", consensusInfo);
         return consensusInfo;
     }
@@ -416,8 +432,9 @@ public class FrontInterfaceService {
      */
     public SyncStatusInfo getSyncStatus(Integer groupId) {
         log.debug("start getSyncStatus. groupId:{}", groupId);
-        SyncStatusInfo ststus = frontRestTools.getForEntity(groupId, FrontRestTools.URI_SYNC_STATUS,
-            SyncStatusInfo.class);
+        SyncStatusInfo ststus = frontReadCache.get(groupId, FrontRestTools.URI_SYNC_STATUS,
+            () -> frontRestTools.getForEntity(groupId, FrontRestTools.URI_SYNC_STATUS,
+                SyncStatusInfo.class));
         log.debug("end getSyncStatus. ststus:{}", JsonTools.toJSONString(ststus));
         return ststus;
     }
@@ -427,8 +444,9 @@ public class FrontInterfaceService {
      */
     public BigInteger getLatestBlockNumber(Integer groupId) {
         log.debug("start getLatestBlockNumber. groupId:{}", groupId);
-        BigInteger latestBlockNmber = frontRestTools.getForEntity(groupId,
-                FrontRestTools.URI_BLOCK_NUMBER, BigInteger.class);
+        BigInteger latestBlockNmber = frontReadCache.get(groupId, FrontRestTools.URI_BLOCK_NUMBER,
+            () -> frontRestTools.getForEntity(groupId, FrontRestTools.URI_BLOCK_NUMBER,
+                BigInteger.class));
         log.debug("end getLatestBlockNumber. latestBlockNmber:{}", latestBlockNmber);
         return latestBlockNmber;
     }
@@ -438,10 +456,11 @@ public class FrontInterfaceService {
      */
     public List<String> getSealerList(Integer groupId) {
         log.debug("start getSealerList. groupId:{}", groupId);
-        List getSealerList = frontRestTools.getForEntity(groupId,
-                FrontRestTools.URI_GET_SEALER_LIST, List.class);
+        List<String> getSealerList = frontReadCache.get(groupId, FrontRestTools.URI_GET_SEALER_LIST,
+            () -> frontRestTools.getForEntity(groupId, FrontRestTools.URI_GET_SEALER_LIST, List.class));
         log.debug("end getSealerList. getSealerList:{}", JsonTools.toJSONString(getSealerList));
-        return getSealerList;
+        // copy of cached list
+        return new ArrayList<>(getSealerList);
     }
 
     /**
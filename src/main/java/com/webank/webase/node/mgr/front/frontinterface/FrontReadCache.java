@@ -0,0 +1,152 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.front.frontinterface;
+
+import com.webank.webase.node.mgr.block.NewBlockEvent;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.front.frontinterface.entity.ReadCacheStat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * read-through cache of hot read-only front requests by group.
+ * requests of the same group and uri share one request in flight,
+ * response is kept for ttl of uri, and dropped when group has new block.
+ */
+@Log4j2
+@Component
+public class FrontReadCache {
+
+    @Autowired
+    private ConstantProperties cproperties;
+
+    private final Map<String, CacheEntry> cacheMap = new ConcurrentHashMap<>();
+    private final Map<String, UriStat> statMap = new ConcurrentHashMap<>();
+
+    /**
+     * get cached response, or request front by loader if absent or expired.
+     * @param uri key of ttl in frontReadCacheTtl, ttl not above 0 means no cache
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(int groupId, String uri, Supplier<T> loader) {
+        Long ttl = cproperties.getFrontReadCacheTtl().get(uri);
+        if (ttl == null || ttl <= 0) {
+            return loader.get();
+        }
+        UriStat stat = statMap.computeIfAbsent(uri, k -> new UriStat());
+        String key = buildKey(groupId, uri);
+        long now = System.currentTimeMillis();
+        CacheEntry entry = cacheMap.get(key);
+        if (entry != null && !entry.isExpired(now)) {
+            (entry.future.isDone() ? stat.hitCount : stat.coalescedCount).incrementAndGet();
+            return (T) join(entry);
+        }
+
+        CacheEntry fresh = new CacheEntry();
+        CacheEntry current = cacheMap.compute(key,
+            (k, old) -> old != null && !old.isExpired(now) ? old : fresh);
+        if (current != fresh) {
+            (current.future.isDone() ? stat.hitCount : stat.coalescedCount).incrementAndGet();
+            return (T) join(current);
+        }
+        // this thread requests front for all waiting ones
+        stat.missCount.incrementAndGet();
+        try {
+            T value = loader.get();
+            fresh.expireAt = System.currentTimeMillis() + ttl;
+            fresh.future.complete(value);
+            return value;
+        } catch (RuntimeException ex) {
+            stat.failCount.incrementAndGet();
+            cacheMap.remove(key, fresh);
+            fresh.future.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * drop cached responses of group.
+     */
+    public void invalidateGroup(int groupId) {
+        String prefix = groupId + "_";
+        cacheMap.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    @EventListener
+    public void onNewBlock(NewBlockEvent event) {
+        log.debug("onNewBlock invalidate read cache. groupId:{} blockNumber:{}",
+            event.getGroupId(), event.getBlockNumber());
+        invalidateGroup(event.getGroupId());
+    }
+
+    public List<ReadCacheStat> getStatList() {
+        return statMap.entrySet().stream().map(entry -> {
+            UriStat uriStat = entry.getValue();
+            ReadCacheStat stat = new ReadCacheStat();
+            stat.setUri(entry.getKey());
+            stat.setTtl(cproperties.getFrontReadCacheTtl().get(entry.getKey()));
+            stat.setHitCount(uriStat.hitCount.get());
+            stat.setMissCount(uriStat.missCount.get());
+            stat.setCoalescedCount(uriStat.coalescedCount.get());
+            stat.setFailCount(uriStat.failCount.get());
+            return stat;
+        }).collect(Collectors.toList());
+    }
+
+    private static Object join(CacheEntry entry) {
+        try {
+            return entry.future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private static String buildKey(int groupId, String uri) {
+        return groupId + "_" + uri;
+    }
+
+    /**
+     * entry in flight never expires until loaded.
+     */
+    private static class CacheEntry {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private volatile long expireAt = Long.MAX_VALUE;
+
+        private boolean isExpired(long now) {
+            return now >= expireAt;
+        }
+    }
+
+    private static class UriStat {
+        private final AtomicLong hitCount = new AtomicLong();
+        private final AtomicLong missCount = new AtomicLong();
+        private final AtomicLong coalescedCount = new AtomicLong();
+        private final AtomicLong failCount = new AtomicLong();
+    }
+}
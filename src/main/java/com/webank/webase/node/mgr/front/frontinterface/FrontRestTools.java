@@ -24,17 +24,11 @@ import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.front.FrontService;
 import com.webank.webase.node.mgr.frontgroupmap.FrontGroupMapCache;
 import com.webank.webase.node.mgr.frontgroupmap.entity.FrontGroup;
-import com.webank.webase.node.mgr.front.frontinterface.entity.FailInfo;
 import com.webank.webase.node.mgr.node.NodeService;
-import java.time.Duration;
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
@@ -180,7 +174,10 @@ public class FrontRestTools {
     private NodeService nodeService;
     private static final int NODE_IS_DOWN = -1;
 
-    private static Map<String, FailInfo> failRequestMap = new HashMap<>();
+    @Autowired
+    private FrontCircuitBreakerRegistry breakerRegistry;
+    @Autowired
+    private FrontSelector frontSelector;
 
 
     /**
@@ -201,92 +198,19 @@ public class FrontRestTools {
         return groupId + "/" + uri;
     }
 
-    /**
-     * check url status.
-     * @return if sleeping, true
-     */
-    private boolean isServiceSleep(String url, String methType) {
-        //get failInfo
-        String key = buildKey(url, methType);
-        FailInfo failInfo = failRequestMap.get(key);
-
-        //check server status
-        if (failInfo == null) {
-            return false;
-        }
-        int failCount = failInfo.getFailCount();
-        Long subTime = Duration.between(failInfo.getLatestTime(), Instant.now()).toMillis();
-        if (failCount > cproperties.getMaxRequestFail() && subTime < cproperties
-            .getSleepWhenHttpMaxFail()) {
-            return true;
-        } else if (subTime > cproperties.getSleepWhenHttpMaxFail()) {
-            //service is sleep
-            deleteKeyOfMap(failRequestMap, key);
-        }
-        return false;
-
-    }
-
-    /**
-     * set request fail times.
-     */
-    private void setFailCount(String url, String methodType) {
-        //get failInfo
-        String key = buildKey(url, methodType);
-        FailInfo failInfo = failRequestMap.get(key);
-        if (failInfo == null) {
-            failInfo = new FailInfo();
-            failInfo.setFailUrl(url);
-        }
-
-        //reset failInfo
-        failInfo.setLatestTime(Instant.now());
-        failInfo.setFailCount(failInfo.getFailCount() + 1);
-        failRequestMap.put(key, failInfo);
-        log.info("the latest failInfo:{}", JsonTools.toJSONString(failRequestMap));
-    }
-
-
-    /**
-     * build key description: frontIp$frontPort example: 2651654951545$8081.
-     */
-    private String buildKey(String url, String methodType) {
-        return url.hashCode() + "$" + methodType;
-    }
-
-
-    /**
-     * delete key of map.
-     */
-    private static void deleteKeyOfMap(Map<String, FailInfo> map, String rkey) {
-        log.info("start deleteKeyOfMap. rkey:{} map:{}", rkey, map);
-        Iterator<String> iter = map.keySet().iterator();
-        while (iter.hasNext()) {
-            String key = iter.next();
-            // fix null
-            if (key.equals(rkey)) {
-                iter.remove();
-            }
-        }
-        log.info("end deleteKeyOfMap. rkey:{} map:{}", rkey, map);
-    }
-
-
     /**
      * build  url of front service.
      * @remind v1.4.1 rm random
      */
-    private FrontUrlInfo buildFrontUrl(ArrayList<FrontGroup> list, String uri, HttpMethod httpMethod) {
-        // v1.4.2 recover random one
-        Collections.shuffle(list);
-        log.debug("====================map list:{}", JsonTools.toJSONString(list));
+    private FrontUrlInfo buildFrontUrl(List<FrontGroup> list, String uri, HttpMethod httpMethod) {
+        // list is ordered by FrontSelector
         Iterator<FrontGroup> iterator = list.iterator();
         String uriTemp = uri;
         while (iterator.hasNext()) {
             FrontGroup frontGroup = iterator.next();
-            log.debug("============frontGroup:{}", JsonTools.toJSONString(frontGroup));
             FrontUrlInfo frontUrlInfo = new FrontUrlInfo();
             frontUrlInfo.setFrontId(frontGroup.getFrontId());
+            frontUrlInfo.setGroupId(frontGroup.getGroupId());
 
             uri = uriAddGroupId(frontGroup.getGroupId(), uriTemp);//append groupId to uri
             String url = String
@@ -295,11 +219,14 @@ public class FrontRestTools {
                 .replaceAll(" ", "");
             iterator.remove();
 
-            if (isServiceSleep(url, httpMethod.toString())) {
-                log.warn("front url[{}] is sleep,jump over", url);
+            FrontCircuitBreaker breaker = breakerRegistry.getBreaker(frontGroup.getFrontIp(),
+                frontGroup.getFrontPort(), httpMethod.toString());
+            if (!breaker.allowRequest()) {
+                log.warn("front url[{}] is sleep,jump over. breaker:{}", url, breaker.getState());
                 continue;
             }
             frontUrlInfo.setUrl(url);
+            frontUrlInfo.setBreaker(breaker);
             return frontUrlInfo;
         }
         log.info("end buildFrontUrl. url is null");
@@ -381,7 +308,7 @@ public class FrontRestTools {
             throw new NodeMgrException(ConstantCode.FRONT_LIST_NOT_FOUNT.getCode(),
                     "all front of group: " + groupId + " is stopped");
         }
-        ArrayList<FrontGroup> list = new ArrayList<>(frontList);
+        List<FrontGroup> list = frontSelector.order(frontList, method);
         RestTemplate restTemplate = caseRestemplate(uri);
 
         while (list.size() > 0) {
@@ -399,6 +326,8 @@ public class FrontRestTools {
                 log.warn("restTemplateExchange buildFrontUrl get null url:{}", list);
                 throw new NodeMgrException(ConstantCode.AVAILABLE_FRONT_URL_IS_NULL);
             }
+            long startTime = frontSelector.markStart(frontUrlInfo.getFrontId());
+            boolean reachable = false;
             try {
                 log.info("FrontRestTools call front:[{}]", url);
 
@@ -409,13 +338,18 @@ public class FrontRestTools {
                     throw new NodeMgrException(ConstantCode.SYSTEM_EXCEPTION.attach("restTemplate is null"));
                 }
                 ResponseEntity<T> response = restTemplate.exchange(url, method, entity, clazz);
+                reachable = true;
+                frontUrlInfo.getBreaker().recordSuccess();
+                if (URI_BLOCK_NUMBER.equals(uri) && response.getBody() instanceof Number) {
+                    frontSelector.updateBlockNumber(frontUrlInfo.getFrontId(),
+                        frontUrlInfo.getGroupId(), ((Number) response.getBody()).longValue());
+                }
                 frontService.updateFrontWithInternal(frontUrlInfo.getFrontId(), DataStatus.NORMAL.getValue());
                 return response.getBody();
             } catch (ResourceAccessException ex) {
                 // case1: request front failed
                 log.warn("fail restTemplateExchange", ex);
-                setFailCount(url, method.toString());
-                if (isServiceSleep(url, method.toString())) {
+                if (frontUrlInfo.getBreaker().recordFail(ex.getMessage())) {
                     frontService.updateFrontWithInternal(frontUrlInfo.getFrontId(), DataStatus.INVALID.getValue());
                     throw new NodeMgrException(ConstantCode.REQUEST_FRONT_FAIL, ex);
                 }
@@ -423,6 +357,8 @@ public class FrontRestTools {
                 continue;
             } catch (HttpStatusCodeException ex) {
                 // case2: request front success but return fail
+                reachable = true;
+                frontUrlInfo.getBreaker().recordSuccess();
                 JsonNode error = JsonTools.stringToJsonNode(ex.getResponseBodyAsString());
                 log.error("http request:[{}] fail. error:{}", url, JsonTools.toJSONString(error), ex);
                 try {
@@ -437,6 +373,8 @@ public class FrontRestTools {
                 } catch (NullPointerException e) {
                     throw new NodeMgrException(ConstantCode.REQUEST_FRONT_FAIL);
                 }
+            } finally {
+                frontSelector.markEnd(frontUrlInfo.getFrontId(), startTime, reachable);
             }
         }
         return null;
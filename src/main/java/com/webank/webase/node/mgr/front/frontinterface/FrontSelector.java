@@ -0,0 +1,230 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.front.frontinterface;
+
+import com.webank.webase.node.mgr.base.enums.FrontSelectStrategy;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.front.frontinterface.entity.FrontLoadInfo;
+import com.webank.webase.node.mgr.frontgroupmap.entity.FrontGroup;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+/**
+ * order fronts of group by select strategy, and keep latency stat of each front.
+ * read request(GET) use frontReadSelectStrategy, others use frontSelectStrategy.
+ * block number of front is refreshed by topology discovery, and expires after
+ * frontBlockNumberTtl; latency of idle front decays, so it is tried again.
+ */
+@Component
+public class FrontSelector {
+
+    @Autowired
+    private ConstantProperties cproperties;
+
+    private final Map<Integer, FrontLoad> loadMap = new ConcurrentHashMap<>();
+
+    /**
+     * copy of front list in order of trying.
+     */
+    public List<FrontGroup> order(List<FrontGroup> frontList, HttpMethod method) {
+        List<FrontGroup> list = new ArrayList<>(frontList);
+        // shuffle first, fronts of same score share the traffic
+        Collections.shuffle(list);
+        if (list.size() < 2) {
+            return list;
+        }
+        String strategyValue = method == HttpMethod.GET ? cproperties.getFrontReadSelectStrategy()
+            : cproperties.getFrontSelectStrategy();
+        FrontSelectStrategy strategy = FrontSelectStrategy.getByValue(strategyValue);
+        if (strategy == FrontSelectStrategy.RANDOM) {
+            return list;
+        }
+        // sort a copy of scores, stat changed by requests meanwhile is not seen in sort
+        long now = System.currentTimeMillis();
+        List<FrontScore> scoreList = list.stream().map(fg -> score(fg, now))
+            .collect(Collectors.toList());
+        boolean allHeightKnown = scoreList.stream().allMatch(s -> s.blockNumber != null);
+        scoreList.sort(getComparator(strategy, allHeightKnown));
+        return scoreList.stream().map(s -> s.frontGroup).collect(Collectors.toList());
+    }
+
+    /**
+     * mark request start.
+     * @return start time (ns)
+     */
+    public long markStart(int frontId) {
+        FrontLoad load = getLoad(frontId);
+        load.outstanding.incrementAndGet();
+        load.chosenCount.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * mark request end, unreachable request count as timeout latency.
+     */
+    public void markEnd(int frontId, long startTime, boolean reachable) {
+        FrontLoad load = getLoad(frontId);
+        load.outstanding.decrementAndGet();
+        double latency = (System.nanoTime() - startTime) / 1000000.0;
+        if (!reachable) {
+            load.failCount.incrementAndGet();
+            latency = Math.max(latency, cproperties.getHttpTimeOut());
+        }
+        load.updateEwma(latency, cproperties.getFrontLatencyEwmaAlpha());
+    }
+
+    /**
+     * record latest block number of front's group.
+     */
+    public void updateBlockNumber(int frontId, int groupId, long blockNumber) {
+        getLoad(frontId).blockNumberMap.put(groupId,
+            new BlockHeight(blockNumber, System.currentTimeMillis()));
+    }
+
+    public void removeFront(int frontId) {
+        loadMap.remove(frontId);
+    }
+
+    public List<FrontLoadInfo> getLoadInfoList() {
+        return loadMap.entrySet().stream().map(entry -> {
+            FrontLoad load = entry.getValue();
+            FrontLoadInfo info = new FrontLoadInfo();
+            info.setFrontId(entry.getKey());
+            info.setEwmaLatency(decay(load, System.currentTimeMillis()));
+            info.setOutstanding(load.outstanding.get());
+            info.setChosenCount(load.chosenCount.get());
+            info.setFailCount(load.failCount.get());
+            Map<Integer, Long> blockNumberMap = new HashMap<>();
+            load.blockNumberMap.forEach((groupId, height) -> blockNumberMap.put(groupId,
+                height.blockNumber));
+            info.setBlockNumberMap(blockNumberMap);
+            return info;
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * ordering of fronts, fall back to latency if height of any front unknown or expired.
+     */
+    private static Comparator<FrontScore> getComparator(FrontSelectStrategy strategy,
+        boolean allHeightKnown) {
+        Comparator<FrontScore> byLatency = Comparator.comparingDouble(s -> s.ewma);
+        switch (strategy) {
+            case LEAST_OUTSTANDING:
+                return Comparator.comparingInt((FrontScore s) -> s.outstanding)
+                    .thenComparing(byLatency);
+            case HIGHEST_BLOCK:
+                if (!allHeightKnown) {
+                    return byLatency;
+                }
+                return Comparator.comparingLong((FrontScore s) -> s.blockNumber)
+                    .reversed().thenComparing(byLatency);
+            default:
+                return byLatency;
+        }
+    }
+
+    private FrontScore score(FrontGroup frontGroup, long now) {
+        FrontLoad load = getLoad(frontGroup.getFrontId());
+        BlockHeight height = load.blockNumberMap.get(frontGroup.getGroupId());
+        Long blockNumber = null;
+        if (height != null && now - height.updateTime <= cproperties.getFrontBlockNumberTtl()) {
+            blockNumber = height.blockNumber;
+        }
+        return new FrontScore(frontGroup, decay(load, now), load.outstanding.get(), blockNumber);
+    }
+
+    /**
+     * ewma latency halved every frontLatencyHalfLife since last request,
+     * slow front not chosen for a while is probed again.
+     */
+    private double decay(FrontLoad load, long now) {
+        long idle = Math.max(now - load.lastUpdateTime, 0);
+        return load.getEwma() * Math.pow(0.5, (double) idle / cproperties.getFrontLatencyHalfLife());
+    }
+
+    private FrontLoad getLoad(int frontId) {
+        return loadMap.computeIfAbsent(frontId, k -> new FrontLoad());
+    }
+
+    /**
+     * load of one front, front without request has 0 latency to be tried first.
+     */
+    private static class FrontLoad {
+        private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToLongBits(0));
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicLong chosenCount = new AtomicLong();
+        private final AtomicLong failCount = new AtomicLong();
+        private final Map<Integer, BlockHeight> blockNumberMap = new ConcurrentHashMap<>();
+        private volatile long lastUpdateTime = System.currentTimeMillis();
+
+        private double getEwma() {
+            return Double.longBitsToDouble(ewmaBits.get());
+        }
+
+        private void updateEwma(double latency, double alpha) {
+            lastUpdateTime = System.currentTimeMillis();
+            while (true) {
+                long bits = ewmaBits.get();
+                double ewma = Double.longBitsToDouble(bits);
+                double updated = ewma == 0 ? latency : alpha * latency + (1 - alpha) * ewma;
+                if (ewmaBits.compareAndSet(bits, Double.doubleToLongBits(updated))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static class BlockHeight {
+        private final long blockNumber;
+        private final long updateTime;
+
+        private BlockHeight(long blockNumber, long updateTime) {
+            this.blockNumber = blockNumber;
+            this.updateTime = updateTime;
+        }
+    }
+
+    /**
+     * score of front copied before sort.
+     */
+    private static class FrontScore {
+        private final FrontGroup frontGroup;
+        private final double ewma;
+        private final int outstanding;
+        /**
+         * null if unknown or expired
+         */
+        private final Long blockNumber;
+
+        private FrontScore(FrontGroup frontGroup, double ewma, int outstanding, Long blockNumber) {
+            this.frontGroup = frontGroup;
+            this.ewma = ewma;
+            this.outstanding = outstanding;
+            this.blockNumber = blockNumber;
+        }
+    }
+}
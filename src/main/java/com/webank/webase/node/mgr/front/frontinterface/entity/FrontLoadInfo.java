@@ -0,0 +1,45 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.front.frontinterface.entity;
+
+import java.util.Map;
+import lombok.Data;
+
+/**
+ * latency and choice stat of one front.
+ */
+@Data
+public class FrontLoadInfo {
+
+    private Integer frontId;
+    /**
+     * ewma latency of request (ms)
+     */
+    private Double ewmaLatency;
+    /**
+     * requests in flight
+     */
+    private Integer outstanding;
+    /**
+     * times chosen to request
+     */
+    private Long chosenCount;
+    private Long failCount;
+    /**
+     * latest block number of front's groups, key is groupId
+     */
+    private Map<Integer, Long> blockNumberMap;
+}
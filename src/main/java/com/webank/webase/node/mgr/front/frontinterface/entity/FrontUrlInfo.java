@@ -16,6 +16,7 @@
 
 package com.webank.webase.node.mgr.front.frontinterface.entity;
 
+import com.webank.webase.node.mgr.front.frontinterface.FrontCircuitBreaker;
 import lombok.Data;
 
 /**
@@ -24,5 +25,10 @@ import lombok.Data;
 @Data
 public class FrontUrlInfo {
 	private Integer frontId;
+	private Integer groupId;
 	private String url;
+	/**
+	 * breaker of this front and http method
+	 */
+	private FrontCircuitBreaker breaker;
 }
@@ -15,97 +15,153 @@ package com.webank.webase.node.mgr.frontgroupmap;
 
 
 import com.webank.webase.node.mgr.base.enums.ConsensusType;
-import java.util.List;
-import java.util.stream.Collectors;
-
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Component;
-
 import com.webank.webase.node.mgr.base.enums.GroupStatus;
 import com.webank.webase.node.mgr.frontgroupmap.entity.FrontGroup;
 import com.webank.webase.node.mgr.frontgroupmap.entity.MapListParam;
-
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+/**
+ * immutable snapshot of front_group_map, indexed by groupId and frontId.
+ * snapshot is replaced as a whole in background on FrontGroupMapChangeEvent,
+ * readers never query db except loading the first snapshot.
+ */
 @Log4j2
 @Component
-public class FrontGroupMapCache {
+public class FrontGroupMapCache implements DisposableBean {
 
     @Autowired
     private FrontGroupMapService mapService;
 
-    private static List<FrontGroup> mapList;
-
+    private volatile Snapshot snapshot;
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(
+        new CustomizableThreadFactory("node-mgr-map-refresh-"));
 
     /**
-     * clear mapList.
+     * refresh snapshot in background after transaction of change committed,
+     * changes during a refresh trigger one more refresh.
      */
-    public void clearMapList() {
-        mapList = null;
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMapChange(FrontGroupMapChangeEvent event) {
+        log.debug("onMapChange reason:{}", event.getReason());
+        if (refreshPending.compareAndSet(false, true)) {
+            refreshExecutor.execute(() -> {
+                refreshPending.set(false);
+                try {
+                    resetMapList();
+                } catch (Exception ex) {
+                    log.error("fail refresh front group map, keep old one", ex);
+                }
+            });
+        }
     }
 
     /**
      * get map filter by consensus type, sealer first
-     * filter by block height
      * @return
      */
-    @Transactional(isolation= Isolation.READ_COMMITTED)
     public List<FrontGroup> getSealerOrObserverMap() {
-        MapListParam param = new MapListParam();
-        param.setType(ConsensusType.SEALER.getValue());
-        List<FrontGroup> targetMap = null;
-        targetMap = mapService.getList(param);
-        log.debug("get sealer map:{} param:{}", targetMap, param);
-        if (targetMap == null || targetMap.isEmpty()) {
-            param.setType(ConsensusType.OBSERVER.getValue());
-            targetMap = mapService.getList(param);
-            log.debug("get observer map:{} param:{}", targetMap, param);
+        List<FrontGroup> allMap = mapService.getList(new MapListParam());
+        List<FrontGroup> targetMap = allMap.stream()
+            .filter(m -> m.getType() != null && m.getType() == ConsensusType.SEALER.getValue())
+            .collect(Collectors.toList());
+        if (targetMap.isEmpty()) {
+            targetMap = allMap.stream()
+                .filter(m -> m.getType() != null
+                    && m.getType() == ConsensusType.OBSERVER.getValue())
+                .collect(Collectors.toList());
         }
-        log.debug("getSealerOrObserverMap targetMap:{}", targetMap);
+        log.debug("getSealerOrObserverMap targetMap size:{}", targetMap.size());
         return targetMap;
     }
 
     /**
-     * reset mapList.
+     * reload mapList and replace snapshot.
      * 优先选择共识节点
      */
-    @Transactional
-    public List<FrontGroup> resetMapList() {
-        mapList = this.getSealerOrObserverMap();
-        return mapList;
+    public synchronized List<FrontGroup> resetMapList() {
+        Snapshot newSnapshot = new Snapshot(this.getSealerOrObserverMap());
+        snapshot = newSnapshot;
+        log.info("resetMapList map size:{}", newSnapshot.allList.size());
+        return newSnapshot.allList;
     }
 
     /**
      * get all mapList.
      */
-    @Transactional
     public List<FrontGroup> getAllMap() {
-        if (mapList == null || mapList.size() == 0) {
-            mapList = resetMapList();
-        }
-        return mapList;
+        return getSnapshot().allList;
     }
+
     /**
-     * get mapList.
-     * filter by group status
+     * get mapList of group which groupStatus is normal.
      */
-    @Transactional
     public List<FrontGroup> getMapListByGroupId(int groupId) {
-        List<FrontGroup> list = getAllMap();
-        if (list == null) {
-            log.warn("getMapListByGroupId getAllMap is null.");
-            return null;
+        return getSnapshot().normalGroupMap.getOrDefault(groupId, Collections.emptyList());
+    }
+
+    /**
+     * get mapList of front.
+     */
+    public List<FrontGroup> getMapListByFrontId(int frontId) {
+        return getSnapshot().frontMap.getOrDefault(frontId, Collections.emptyList());
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        // first read before any snapshot loaded
+        synchronized (this) {
+            if (snapshot == null) {
+                resetMapList();
+            }
+            return snapshot;
         }
-        // filter all FrontGroup which groupStatus is normal
-        List<FrontGroup> map = list.stream()
-            .filter(m -> groupId == m.getGroupId()
-                    && m.getStatus() == GroupStatus.NORMAL.getValue())
-            .collect(Collectors.toList());
-        log.debug("getMapListByGroupId map size:{}", map.size());
-        return map;
     }
 
+    /**
+     * lists in snapshot are unmodifiable and shared by readers.
+     */
+    private static class Snapshot {
+        private final List<FrontGroup> allList;
+        private final Map<Integer, List<FrontGroup>> normalGroupMap;
+        private final Map<Integer, List<FrontGroup>> frontMap;
 
+        private Snapshot(List<FrontGroup> mapList) {
+            this.allList = Collections.unmodifiableList(new ArrayList<>(mapList));
+            Map<Integer, List<FrontGroup>> normalGroup = new HashMap<>();
+            Map<Integer, List<FrontGroup>> front = new HashMap<>();
+            for (FrontGroup map : mapList) {
+                if (map.getStatus() != null && map.getStatus() == GroupStatus.NORMAL.getValue()) {
+                    normalGroup.computeIfAbsent(map.getGroupId(), k -> new ArrayList<>()).add(map);
+                }
+                front.computeIfAbsent(map.getFrontId(), k -> new ArrayList<>()).add(map);
+            }
+            normalGroup.replaceAll((k, v) -> Collections.unmodifiableList(v));
+            front.replaceAll((k, v) -> Collections.unmodifiableList(v));
+            this.normalGroupMap = normalGroup;
+            this.frontMap = front;
+        }
+    }
 }
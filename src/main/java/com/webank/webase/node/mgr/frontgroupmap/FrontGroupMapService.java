@@ -32,6 +32,7 @@ import com.webank.webase.node.mgr.node.NodeService;
 import java.util.List;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
@@ -46,7 +47,7 @@ public class FrontGroupMapService {
     @Autowired
     private FrontInterfaceService frontInterface;
     @Autowired
-    private FrontGroupMapCache frontGroupMapCache;
+    private ApplicationEventPublisher eventPublisher;
     /**
      * to check map sealer or observer
      */
@@ -85,6 +86,7 @@ public class FrontGroupMapService {
             res = frontGroupMapMapper.update(tbFrontGroupMap);
         }
         log.info("end newFrontGroup res:{}", res);
+        publishMapChange("newFrontGroup");
 
         return tbFrontGroupMap;
     }
@@ -98,6 +100,7 @@ public class FrontGroupMapService {
 
         //add db
         frontGroupMapMapper.insertSelective(tbFrontGroupMap);
+        publishMapChange("newFrontGroup");
 
         return tbFrontGroupMap;
     }
@@ -130,6 +133,26 @@ public class FrontGroupMapService {
         }
     }
 
+    /**
+     * save changed maps of resetGroupList, insert if mapId is 0, else update.
+     * cache is refreshed once for all maps.
+     */
+    @Transactional
+    public void saveFrontGroupList(List<TbFrontGroupMap> mapList) {
+        if (mapList.isEmpty()) {
+            return;
+        }
+        for (TbFrontGroupMap tbFrontGroupMap : mapList) {
+            log.info("saveFrontGroupList tbFrontGroupMap:{}", tbFrontGroupMap);
+            if (tbFrontGroupMap.getMapId() == 0) {
+                frontGroupMapMapper.insertSelective(tbFrontGroupMap);
+            } else {
+                frontGroupMapMapper.update(tbFrontGroupMap);
+            }
+        }
+        publishMapChange("saveFrontGroupList");
+    }
+
     /**
      * get map count
      */
@@ -147,6 +170,7 @@ public class FrontGroupMapService {
         }
         // remove by groupId
         frontGroupMapMapper.removeByGroupId(groupId);
+        publishMapChange("removeByGroupId");
     }
 
     /**
@@ -158,6 +182,7 @@ public class FrontGroupMapService {
         }
         //remove by frontId
         frontGroupMapMapper.removeByFrontId(frontId);
+        publishMapChange("removeByFrontId");
     }
     
     /**
@@ -210,6 +235,7 @@ public class FrontGroupMapService {
                 frontGroupMapMapper.removeByMapId(mapId);
             }
         });
+        publishMapChange("removeInvalidFrontGroupMap");
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
@@ -217,7 +243,7 @@ public class FrontGroupMapService {
         // update status
         log.info("Update frontGroupMap:[{}] all group map to status:[{}]", frontId, status);
         frontGroupMapMapper.updateAllGroupsStatus(frontId, status.getValue());
-        this.frontGroupMapCache.clearMapList();
+        publishMapChange("updateFrontMapStatus");
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
@@ -225,7 +251,7 @@ public class FrontGroupMapService {
         // update status
         log.info("Update frontGroupMap:[{}] group:[{}] map to status:[{}]", frontId, groupId, status);
         frontGroupMapMapper.updateOneGroupStatus(frontId, status.getValue(), groupId);
-        this.frontGroupMapCache.clearMapList();
+        publishMapChange("updateFrontMapStatus");
     }
 
     /**
@@ -260,4 +286,11 @@ public class FrontGroupMapService {
         log.info("getOneNormalMap list:{}", list);
         return list.get(0);
     }
+
+    /**
+     * FrontGroupMapCache refresh after transaction committed
+     */
+    private void publishMapChange(String reason) {
+        eventPublisher.publishEvent(new FrontGroupMapChangeEvent(this, reason));
+    }
 }
@@ -29,8 +29,14 @@ import com.webank.webase.node.mgr.group.entity.ReqUpdateDesc;
 import com.webank.webase.node.mgr.group.entity.RspGroupStatus;
 import com.webank.webase.node.mgr.group.entity.RspOperateResult;
 import com.webank.webase.node.mgr.group.entity.TbGroup;
+import com.webank.webase.node.mgr.scheduler.GroupTaskExecutor;
 import com.webank.webase.node.mgr.scheduler.ResetGroupListTask;
 import com.webank.webase.node.mgr.scheduler.StatisticsTransdailyTask;
+import com.webank.webase.node.mgr.retention.RetentionService;
+import com.webank.webase.node.mgr.retention.entity.TbRetentionCheckpoint;
+import com.webank.webase.node.mgr.scheduler.entity.GroupTaskInfo;
+import com.webank.webase.node.mgr.table.PartitionService;
+import com.webank.webase.node.mgr.table.entity.PartitionInfo;
 import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.tools.pagetools.List2Page;
 import com.webank.webase.node.mgr.transdaily.SeventDaysTrans;
@@ -69,6 +75,12 @@ public class GroupController extends BaseController {
     private StatisticsTransdailyTask statisticsTask;
     @Autowired
     private ResetGroupListTask resetGroupListTask;
+    @Autowired
+    private GroupTaskExecutor groupTaskExecutor;
+    @Autowired
+    private PartitionService partitionService;
+    @Autowired
+    private RetentionService retentionService;
     
 
     /**
@@ -212,6 +224,54 @@ public class GroupController extends BaseController {
         return pageResponse;
     }
 
+    /**
+     * get wait time and run time of group's scheduled task.
+     */
+    @GetMapping("/taskStat")
+    public BaseResponse getGroupTaskStat() {
+        BaseResponse baseResponse = new BaseResponse(ConstantCode.SUCCESS);
+        Instant startTime = Instant.now();
+        log.info("start getGroupTaskStat startTime:{}", startTime.toEpochMilli());
+        List<GroupTaskInfo> taskInfoList = groupTaskExecutor.getTaskInfoList();
+        baseResponse.setData(taskInfoList);
+        log.info("end getGroupTaskStat useTime:{} result:{}",
+                Duration.between(startTime, Instant.now()).toMillis(),
+                JsonTools.toJSONString(baseResponse));
+        return baseResponse;
+    }
+
+    /**
+     * get partitions of block, trans and monitor table of group.
+     */
+    @GetMapping("/partition/{groupId}")
+    public BaseResponse getPartitionInfo(@PathVariable("groupId") Integer groupId) {
+        BaseResponse baseResponse = new BaseResponse(ConstantCode.SUCCESS);
+        Instant startTime = Instant.now();
+        log.info("start getPartitionInfo startTime:{} groupId:{}", startTime.toEpochMilli(),
+            groupId);
+        List<PartitionInfo> infoList = partitionService.getPartitionInfo(groupId);
+        baseResponse.setData(infoList);
+        log.info("end getPartitionInfo useTime:{}",
+                Duration.between(startTime, Instant.now()).toMillis());
+        return baseResponse;
+    }
+
+    /**
+     * get progress, rows per second and remaining blocks of old rows deleted in chunks.
+     */
+    @GetMapping("/retention/{groupId}")
+    public BaseResponse getRetentionInfo(@PathVariable("groupId") Integer groupId) {
+        BaseResponse baseResponse = new BaseResponse(ConstantCode.SUCCESS);
+        Instant startTime = Instant.now();
+        log.info("start getRetentionInfo startTime:{} groupId:{}", startTime.toEpochMilli(),
+            groupId);
+        List<TbRetentionCheckpoint> checkpointList = retentionService.listCheckpoint(groupId);
+        baseResponse.setData(checkpointList);
+        log.info("end getRetentionInfo useTime:{}",
+                Duration.between(startTime, Instant.now()).toMillis());
+        return baseResponse;
+    }
+
     /**
      * generate group to single node(single front)
      */
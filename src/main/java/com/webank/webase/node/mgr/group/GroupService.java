@@ -18,6 +18,7 @@ import static com.webank.webase.node.mgr.base.code.ConstantCode.INSERT_GROUP_ERR
 import com.webank.webase.node.mgr.contract.abi.AbiService;
 import com.webank.webase.node.mgr.base.code.ConstantCode;
 import com.webank.webase.node.mgr.base.entity.BaseResponse;
+import com.webank.webase.node.mgr.base.enums.ConsensusType;
 import com.webank.webase.node.mgr.base.enums.DataStatus;
 import com.webank.webase.node.mgr.base.enums.DeployType;
 import com.webank.webase.node.mgr.base.enums.FrontStatusEnum;
@@ -51,9 +52,11 @@ import com.webank.webase.node.mgr.front.entity.FrontParam;
 import com.webank.webase.node.mgr.front.entity.TbFront;
 import com.webank.webase.node.mgr.front.entity.TotalTransCountInfo;
 import com.webank.webase.node.mgr.frontgroupmap.FrontGroupMapCache;
+import com.webank.webase.node.mgr.frontgroupmap.FrontGroupMapChangeEvent;
 import com.webank.webase.node.mgr.frontgroupmap.FrontGroupMapService;
 import com.webank.webase.node.mgr.frontgroupmap.entity.FrontGroup;
 import com.webank.webase.node.mgr.frontgroupmap.entity.MapListParam;
+import com.webank.webase.node.mgr.frontgroupmap.entity.TbFrontGroupMap;
 import com.webank.webase.node.mgr.front.frontinterface.FrontInterfaceService;
 import com.webank.webase.node.mgr.front.frontinterface.entity.GenerateGroupInfo;
 import com.webank.webase.node.mgr.precompiled.permission.governvote.GovernVoteService;
@@ -66,9 +69,10 @@ import com.webank.webase.node.mgr.group.entity.StatisticalGroupTransInfo;
 import com.webank.webase.node.mgr.group.entity.TbGroup;
 import com.webank.webase.node.mgr.method.MethodService;
 import com.webank.webase.node.mgr.node.NodeService;
-import com.webank.webase.node.mgr.node.entity.PeerInfo;
 import com.webank.webase.node.mgr.node.entity.TbNode;
 import com.webank.webase.node.mgr.statistic.StatService;
+import com.webank.webase.node.mgr.retention.RetentionService;
+import com.webank.webase.node.mgr.monitor.MonitorShardService;
 import com.webank.webase.node.mgr.table.TableService;
 import com.webank.webase.node.mgr.transdaily.TransDailyService;
 import java.io.IOException;
@@ -80,13 +84,12 @@ import java.security.MessageDigest;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -95,6 +98,7 @@ import org.fisco.bcos.sdk.client.protocol.response.BcosBlock;
 import org.springframework.aop.framework.AopContext;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
@@ -124,6 +128,8 @@ public class GroupService {
     @Autowired
     private FrontGroupMapCache frontGroupMapCache;
     @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
     private FrontGroupMapService frontGroupMapService;
     @Autowired
     private NodeService nodeService;
@@ -153,6 +159,12 @@ public class GroupService {
     private ExtContractService extContractService;
     @Autowired
     private StatService statService;
+    @Autowired
+    private MonitorShardService monitorShardService;
+    @Autowired
+    private RetentionService retentionService;
+    @Autowired
+    private TopologyService topologyService;
 
 
     @Autowired private ChainService chainService;
@@ -276,6 +288,8 @@ public class GroupService {
 
     /**
      * reset groupList.
+     * groups and nodes of all fronts are got concurrently as one snapshot,
+     * then only the difference with db is saved.
      * synchronized to avoid deadlock
      */
     @Transactional(isolation= Isolation.READ_COMMITTED)
@@ -288,9 +302,6 @@ public class GroupService {
         Instant startTime = Instant.now();
         log.info("start resetGroupList. startTime:{}", startTime.toEpochMilli());
 
-        // all groupId from chain and all node, to check the whole group whether normal
-        Set<Integer> allGroupSet = new HashSet<>();
-
         // get all front
         List<TbFront> frontList = frontMapper.getAllList();
         if (frontList == null || frontList.size() == 0) {
@@ -298,15 +309,18 @@ public class GroupService {
             return;
         }
 
-        // clear cache
-        frontGroupMapCache.clearMapList();
+        // groups and nodes(peers, sealer, observer) of all fronts
+        TopologySnapshot snapshot = topologyService.discover(frontList);
+        // all groupId from chain and all node, to check the whole group whether normal
+        Set<Integer> allGroupSet = snapshot.getAllGroupSet();
 
         // save group and nodes(peers, sealer, observer) and front_group_map from chain
-        // update front_group_map by group list on chain
-        saveDataOfGroup(frontList, allGroupSet);
-
-        //remove invalid peers
-        removeInvalidPeer(frontList);
+        // update front_group_map by group list on chain, and remove invalid peers
+        Map<String, FrontGroup> localMap = frontGroupMapService.getList(new MapListParam())
+            .stream()
+            .collect(Collectors.toMap(m -> m.getFrontId() + "_" + m.getGroupId(), m -> m,
+                (m1, m2) -> m1));
+        saveDataOfGroup(frontList, snapshot, localMap);
 
         // check group status(normal or maintaining), update by local group list
         // if groupid not in allGroupSet, remove it
@@ -323,179 +337,116 @@ public class GroupService {
         // v1.4.3 remove
         frontGroupMapService.removeInvalidFrontGroupMap();
         // update front_group_map status of local group
-        checkGroupMapByLocalGroupList(frontList);
+        checkGroupMapByLocalGroupList(frontList, snapshot, localMap);
+        // replace cache once after committed, readers keep old cache until then
+        eventPublisher.publishEvent(new FrontGroupMapChangeEvent(this, "resetGroupList"));
         log.info("end resetGroupList. useTime:{} ",
                 Duration.between(startTime, Instant.now()).toMillis());
     }
 
     /**
-     * check group status(normal or maintaining), update by local group list
-     * if groupid not in allGroupSet, remove it
+     * save group, nodes and front_group_map that differs from snapshot,
+     * and remove invalid peers
      * @param frontList all front
-     * @param allGroupSet to record all group from each front
+     * @param snapshot groups and nodes of all fronts
+     * @param localMap front_group_map in db by frontId_groupId
      */
-    @Transactional(propagation = Propagation.REQUIRED)
-    private void saveDataOfGroup(List<TbFront> frontList, Set<Integer> allGroupSet) {
-        log.info("saveDataOfGroup frontList:{}", frontList);
-        for (TbFront front : frontList) {
-            String frontIp = front.getFrontIp();
-            int frontPort = front.getFrontPort();
-            // query group list from chain
-            List<String> groupIdList;
-            try {
-                // if observer to removed, this observer would still return groupId
-                groupIdList = frontInterface.getGroupListFromSpecificFront(frontIp, frontPort);
-            } catch (Exception ex) {
-                log.error("saveDataOfGroup fail getGroupListFromSpecificFront.", ex);
-                continue;
+    private void saveDataOfGroup(List<TbFront> frontList, TopologySnapshot snapshot,
+        Map<String, FrontGroup> localMap) {
+        Map<Integer, TbFront> frontMap = frontList.stream()
+            .collect(Collectors.toMap(TbFront::getFrontId, f -> f));
+        Map<Integer, TbGroup> localGroupMap = getGroupList(null).stream()
+            .collect(Collectors.toMap(TbGroup::getGroupId, g -> g));
+        List<TbFrontGroupMap> changedMapList = new ArrayList<>();
+        for (Integer gId : snapshot.getKnownGroupSet()) {
+            // check group not existed or node count differs
+            int nodeCount = snapshot.getNodeCount(gId);
+            TbGroup localGroup = localGroupMap.get(gId);
+            if (Objects.isNull(localGroup)) {
+                TbFront front = frontMap.get(snapshot.getTopologyList(gId).get(0).getFrontId());
+                saveGroup(gId, nodeCount, "synchronous",
+                    GroupType.SYNC, GroupStatus.NORMAL, front.getChainId(), front.getChainName());
+            } else if (nodeCount != localGroup.getNodeCount()) {
+                updateGroupNodeCount(gId, nodeCount);
             }
-            // update by group list on chain
-            log.info("saveDataOfGroup groupIdList:{}", groupIdList);
-            for (String groupId : groupIdList) {
-                Integer gId = Integer.valueOf(groupId);
-
-                allGroupSet.add(gId);
-                // peer in group
-                List<String> groupPeerList;
-                try {
-                    // if observer set removed, it still return itself as observer
-                    groupPeerList = frontInterface.getGroupPeersFromSpecificFront(frontIp, frontPort, gId);
-                } catch (Exception e) {
-                    // case: if front1 group1 stopped, getGroupPeers error, update front1_group1_map invalid fail
-                    log.warn("saveDataOfGroup getGroupPeersFromSpecificFront fail, frontId:{}, groupId:{}",
-                            front.getFrontId(), groupId);
-                    continue;
-                }
-                // check group not existed or node count differs
-                // save group entity
-                TbGroup checkGroupExist = getGroupById(gId);
-                if (Objects.isNull(checkGroupExist) || groupPeerList.size() != checkGroupExist.getNodeCount()) {
-                    saveGroup(gId, groupPeerList.size(), "synchronous",
-                            GroupType.SYNC, GroupStatus.NORMAL, front.getChainId(), front.getChainName());
-                }
-                // refresh front group map by group list on chain
-                // different from checkGroupMapByLocalGroupList which update by local groupList
-                // 1.4.3 add consensus type of front group map
-                frontGroupMapService.newFrontGroup(front, gId);
-
-                //save new peers(tb_node)
-                savePeerList(frontIp, frontPort, gId, groupPeerList);
 
-                //refresh: add sealer and observer no matter validity
-                frontService.refreshSealerAndObserverInNodeList(frontIp, frontPort, gId);
-            }
-        }
-    }
-
-    /**
-     * separated from saveDataOfGroup, separated save and delete, delete first
-     * @param frontList
-     */
-    private void removeInvalidPeer(List<TbFront> frontList) {
-        log.info("removeInvalidPeer frontList:{}", frontList);
-        for (TbFront front : frontList) {
-            String frontIp = front.getFrontIp();
-            int frontPort = front.getFrontPort();
-            // query group list from chain
-            List<String> groupIdList;
-            try {
-                // if observer to removed, this observer would still return groupId
-                groupIdList = frontInterface.getGroupListFromSpecificFront(frontIp, frontPort);
-            } catch (Exception ex) {
-                log.error("removeInvalidPeer fail getGroupListFromSpecificFront.", ex);
-                continue;
-            }
-            // update by group list on chain
-            log.info("removeInvalidPeer groupIdList:{}", groupIdList);
-            for (String groupId : groupIdList) {
-                Integer gId = Integer.valueOf(groupId);
-
-                // peer in group
-                List<String> groupPeerList;
-                try {
-                    // if observer set removed, it still return itself as observer
-                    groupPeerList = frontInterface.getGroupPeersFromSpecificFront(frontIp, frontPort, gId);
-                } catch (Exception e) {
-                    // case: if front1 group1 stopped, getGroupPeers error, update front1_group1_map invalid fail
-                    log.warn("saveDataOfGroup getGroupPeersFromSpecificFront fail, frontId:{}, groupId:{}",
-                        front.getFrontId(), groupId);
-                    continue;
+            // save new peers(tb_node) and remove invalid peers
+            List<TbNode> localNodeList = savePeerList(gId, snapshot);
+
+            // refresh front group map by group list on chain
+            // different from checkGroupMapByLocalGroupList which update by local groupList
+            // 1.4.3 add consensus type of front group map
+            snapshot.getGroupStatusOfFront(gId).forEach((frontId, groupStatus) -> {
+                int status = RUNNING_GROUP.equals(groupStatus) ? GroupStatus.NORMAL.getValue()
+                    : GroupStatus.MAINTAINING.getValue();
+                int type = getConsensusType(localNodeList, frontMap.get(frontId).getNodeId());
+                FrontGroup local = localMap.get(frontId + "_" + gId);
+                if (local == null) {
+                    changedMapList.add(new TbFrontGroupMap(frontId, gId, status, type));
+                } else if (!Objects.equals(local.getStatus(), status)
+                    || !Objects.equals(local.getType(), type)) {
+                    TbFrontGroupMap tbFrontGroupMap = new TbFrontGroupMap(frontId, gId, status, type);
+                    tbFrontGroupMap.setMapId(local.getMapId());
+                    changedMapList.add(tbFrontGroupMap);
                 }
-                removeInvalidPeer(gId, groupPeerList);
-            }
+            });
         }
+        log.info("saveDataOfGroup changed front_group_map:{}", changedMapList.size());
+        frontGroupMapService.saveFrontGroupList(changedMapList);
     }
 
     /**
-     * remove invalid peer.
+     * save nodes of group not in db, and remove nodes not expected(not in group peers or
+     * not sealer or observer), starting node is kept.
+     * @return local nodes after saved
      */
-    private void removeInvalidPeer(int groupId, List<String> groupPeerList) {
-        if (groupId == 0) {
-            return;
-        }
-        //get local peers
-        List<TbNode> localNodes = nodeService.queryByGroupId(groupId);
-        if (CollectionUtils.isEmpty(localNodes)) {
-            return;
+    private List<TbNode> savePeerList(int groupId, TopologySnapshot snapshot) {
+        Set<String> expectedNodeSet = snapshot.getExpectedNodeSet(groupId);
+        List<TbNode> localNodeList = nodeService.queryByGroupId(groupId);
+        Set<String> localNodeSet = localNodeList.stream().map(TbNode::getNodeId)
+            .collect(Collectors.toSet());
+        boolean changed = false;
+        for (String nodeId : expectedNodeSet) {
+            if (!localNodeSet.contains(nodeId)) {
+                nodeService.addNodeInfo(groupId, snapshot.getPeerInfo(groupId, nodeId));
+                changed = true;
+            }
         }
-        //remove node that's not in groupPeerList and not in sealer/observer list
         // 1.4.3 if observer is removed, observer's nodeId still in groupPeerList
-        localNodes.stream()
-                .filter(n -> ! DataStatus.starting(n.getNodeActive()))
-                .forEach(node -> {
-                    boolean isRemoved = !checkSealerAndObserverListContains(groupId, node.getNodeId());
-                    if(isRemoved || !groupPeerList.contains(node.getNodeId()) ) {
-                        nodeService.deleteByNodeAndGroupId(node.getNodeId(), groupId);
-                    }
-                });
-    }
-
-    /**
-     * simular as frontInterface's getGroupPeers
-     * but if observer is removed, observer's nodeId still in groupPeerList
-     * @param groupId
-     * @param nodeId
-     * @return
-     */
-    private boolean checkSealerAndObserverListContains(int groupId, String nodeId) {
-        //get sealer and observer on chain
-        List<PeerInfo> sealerAndObserverList = nodeService.getSealerAndObserverList(groupId);
-        for (PeerInfo peerInfo : sealerAndObserverList) {
-            if (nodeId.equals(peerInfo.getNodeId())) {
-                log.debug("checkSealerAndObserverListNotContains true nodeId:{},groupId:{}",
-                    nodeId, groupId);
-                return true;
+        // remove only if sealer and observer list is known, nodes of group 0 are kept
+        if (groupId != 0 && snapshot.getConsensusNodeSet(groupId) != null) {
+            for (TbNode node : localNodeList) {
+                if (!DataStatus.starting(node.getNodeActive())
+                    && !expectedNodeSet.contains(node.getNodeId())) {
+                    log.info("remove invalid peer nodeId:{} groupId:{}", node.getNodeId(), groupId);
+                    nodeService.deleteByNodeAndGroupId(node.getNodeId(), groupId);
+                    changed = true;
+                }
             }
         }
-        log.debug("checkSealerAndObserverListNotContains false nodeId:{},groupId:{} ",
-            nodeId, groupId);
-        return false;
+        return changed ? nodeService.queryByGroupId(groupId) : localNodeList;
     }
 
     /**
-     * save new peers that not in group peers
+     * same as NodeService.checkNodeType, but by nodes already loaded:
+     * node at local highest block height is sealer, lower is observer
      */
-    private void savePeerList(String frontIp, Integer frontPort, int groupId, List<String> groupPeerList) {
-        //get all local nodes
-        List<TbNode> localNodeList = nodeService.queryByGroupId(groupId);
-        //get peers on chain
-        PeerInfo[] peerArr = frontInterface.getPeersFromSpecificFront(frontIp, frontPort, groupId);
-        List<PeerInfo> peerList = Arrays.asList(peerArr);
-        //save new nodes
-        for (String nodeId : groupPeerList) {
-            // if local hash node, count = 1
-            long count = localNodeList.stream()
-                .filter(
-                    ln -> nodeId.equals(ln.getNodeId()) && groupId == ln.getGroupId())
-                .count();
-            // local node not contains this one:
-            if (count != 1) {
-                PeerInfo newPeer = peerList.stream()
-                    .filter(peer -> nodeId.equals(peer.getNodeId()))
-                    .findFirst().orElseGet(() -> new PeerInfo(nodeId));
-                nodeService.addNodeInfo(groupId, newPeer);
-            }
+    private int getConsensusType(List<TbNode> localNodeList, String nodeId) {
+        int localHighestHeight = localNodeList.stream()
+            .filter(n -> n.getBlockNumber() != null)
+            .mapToInt(n -> n.getBlockNumber().intValue())
+            .max().orElse(0);
+        int nodeBlockHeight = localNodeList.stream()
+            .filter(n -> n.getNodeId().equals(nodeId) && n.getBlockNumber() != null)
+            .mapToInt(n -> n.getBlockNumber().intValue())
+            .findFirst().orElse(0);
+        if (localHighestHeight == nodeBlockHeight) {
+            return ConsensusType.SEALER.getValue();
+        } else if (localHighestHeight > nodeBlockHeight) {
+            return ConsensusType.OBSERVER.getValue();
         }
+        log.error("node block height larger than local! check later! nodeId:{}", nodeId);
+        return 0;
     }
 
 
@@ -673,38 +624,47 @@ public class GroupService {
      *
      * @case: front1 has group2, front2 not has group2,
      * so groupListOnChain from front don't contain group2, need to check if front_group_map of front2_group2 in db
-     * if so, remove it
+     * if so, set it as maintaining
      */
-    public void checkGroupMapByLocalGroupList(List<TbFront> frontList) {
+    private void checkGroupMapByLocalGroupList(List<TbFront> frontList, TopologySnapshot snapshot,
+        Map<String, FrontGroup> localMap) {
         // local group id
         List<TbGroup> groupListLocal = getGroupList(null);
         log.debug("checkGroupMapByLocalGroupList frontList:{},groupListLocal:{}",
                 frontList, groupListLocal);
+        List<TbFrontGroupMap> changedMapList = new ArrayList<>();
         for (TbFront front : frontList) {
             if( ! FrontStatusEnum.isRunning(front.getStatus())){
                 log.warn("Front:[{}:{}] is not running.",front.getFrontIp(),front.getHostIndex());
                 continue;
             }
-            // query roup list from chain
-            List<String> groupListOnChain;
-            try {
-                groupListOnChain = frontInterface.getGroupListFromSpecificFront(front.getFrontIp(), front.getFrontPort());
-            } catch (Exception ex) {
-                log.error("checkGroupMapByLocalGroupList fail getGroupListFromSpecificFront.", ex);
+            // group list from chain, null if front not reachable
+            List<Integer> groupListOnChain = snapshot.getGroupListOfFront(front.getFrontId());
+            if (groupListOnChain == null) {
                 continue;
             }
             // group list local
             groupListLocal.forEach(group -> {
                 Integer groupId = group.getGroupId();
                 // only check local group id
-                if (!groupListOnChain.contains(groupId.toString())) {
-                    log.info("update front_group_map by local data front:{}, groupId:{} ",
-                            front, groupId);
-                    // case: group2 in font1, not in front2, but local has group2, so add front1_group2_map but not front2_group2_map
-                    frontGroupMapService.newFrontGroupWithStatus(front.getFrontId(), groupId, GroupStatus.MAINTAINING.getValue());
+                if (groupListOnChain.contains(groupId)) {
+                    return;
+                }
+                // case: group2 in font1, not in front2, but local has group2, so add front1_group2_map but not front2_group2_map
+                FrontGroup local = localMap.get(front.getFrontId() + "_" + groupId);
+                if (local == null) {
+                    changedMapList.add(new TbFrontGroupMap(front.getFrontId(), groupId,
+                        GroupStatus.MAINTAINING.getValue()));
+                } else if (!Objects.equals(local.getStatus(), GroupStatus.MAINTAINING.getValue())) {
+                    TbFrontGroupMap tbFrontGroupMap = new TbFrontGroupMap(front.getFrontId(),
+                        groupId, GroupStatus.MAINTAINING.getValue());
+                    tbFrontGroupMap.setMapId(local.getMapId());
+                    changedMapList.add(tbFrontGroupMap);
                 }
             });
         }
+        log.info("checkGroupMapByLocalGroupList changed front_group_map:{}", changedMapList.size());
+        frontGroupMapService.saveFrontGroupList(changedMapList);
     }
 
     /**
@@ -794,6 +754,10 @@ public class GroupService {
         extContractService.deleteByGroupId(groupId);
         // delete statistic block data
         statService.deleteByGroupId(groupId);
+        // delete trans monitor shard lease
+        monitorShardService.deleteByGroupId(groupId);
+        // delete retention checkpoint
+        retentionService.deleteByGroupId(groupId);
         // drop table.
         tableService.dropTableByGroupId(groupId);
         log.warn("end removeAllDataByGroupId");
@@ -0,0 +1,233 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.group;
+
+import com.webank.webase.node.mgr.base.entity.BaseResponse;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.front.entity.TbFront;
+import com.webank.webase.node.mgr.front.frontinterface.FrontInterfaceService;
+import com.webank.webase.node.mgr.front.frontinterface.FrontSelector;
+import com.webank.webase.node.mgr.group.entity.GroupTopology;
+import com.webank.webase.node.mgr.node.entity.PeerInfo;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * discover groups and nodes of all fronts concurrently by its own bounded pool.
+ * a running query can't be cancelled, so each front stops requesting once past
+ * topologyFrontTimeout, and every request is bounded by httpTimeOut.
+ */
+@Log4j2
+@Service
+public class TopologyService implements InitializingBean, DisposableBean {
+
+    /**
+     * fronts waiting for a thread at most, more is taken as not reachable
+     */
+    private static final int QUEUE_CAPACITY = 256;
+
+    @Autowired
+    private FrontInterfaceService frontInterface;
+    @Autowired
+    private ConstantProperties constants;
+    @Autowired
+    private FrontSelector frontSelector;
+
+    private ThreadPoolExecutor topologyExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        int threadCount = Math.max(constants.getTopologyThreadCount(), 1);
+        topologyExecutor = new ThreadPoolExecutor(threadCount, threadCount, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            new CustomizableThreadFactory("node-mgr-topology-"));
+        topologyExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void destroy() {
+        topologyExecutor.shutdownNow();
+    }
+
+    /**
+     * query each front concurrently, front not finished in topologyFrontTimeout
+     * is taken as not reachable, same as front failed to get group list.
+     */
+    public TopologySnapshot discover(List<TbFront> frontList) {
+        Instant startTime = Instant.now();
+        long deadline = System.currentTimeMillis() + constants.getTopologyFrontTimeout();
+        List<CompletableFuture<FrontTopology>> futureList = new ArrayList<>(frontList.size());
+        for (TbFront front : frontList) {
+            CompletableFuture<FrontTopology> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> discoverFront(front, deadline),
+                    topologyExecutor);
+            } catch (RejectedExecutionException ex) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(ex);
+            }
+            futureList.add(future);
+        }
+
+        TopologySnapshot snapshot = new TopologySnapshot();
+        for (int i = 0; i < frontList.size(); i++) {
+            TbFront front = frontList.get(i);
+            CompletableFuture<FrontTopology> future = futureList.get(i);
+            try {
+                long remain = Math.max(deadline - System.currentTimeMillis(), 0);
+                FrontTopology frontTopology = future.get(remain, TimeUnit.MILLISECONDS);
+                if (frontTopology != null) {
+                    snapshot.addFront(front.getFrontId(), frontTopology.groupList,
+                        frontTopology.topologyList);
+                }
+            } catch (TimeoutException ex) {
+                // the query stops by itself at its next request
+                log.warn("discover front timeout, frontId:{}", front.getFrontId());
+            } catch (ExecutionException ex) {
+                log.error("discover front fail, frontId:{}", front.getFrontId(), ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.info("discover fronts:{} reachable:{} useTime:{}", frontList.size(),
+            snapshot.getReachableFrontCount(),
+            Duration.between(startTime, Instant.now()).toMillis());
+        return snapshot;
+    }
+
+    /**
+     * group list, then peers, sealers, observers and status of each group on front.
+     * @return null if fail to get group list or past deadline
+     */
+    private FrontTopology discoverFront(TbFront front, long deadline) {
+        if (System.currentTimeMillis() >= deadline) {
+            return null;
+        }
+        String frontIp = front.getFrontIp();
+        int frontPort = front.getFrontPort();
+        List<String> groupIdList;
+        try {
+            // if observer to removed, this observer would still return groupId
+            groupIdList = frontInterface.getGroupListFromSpecificFront(frontIp, frontPort);
+        } catch (Exception ex) {
+            log.error("discoverFront fail getGroupListFromSpecificFront, frontId:{}",
+                front.getFrontId(), ex);
+            return null;
+        }
+        log.debug("discoverFront frontId:{} groupIdList:{}", front.getFrontId(), groupIdList);
+
+        List<Integer> groupList = new ArrayList<>(groupIdList.size());
+        List<GroupTopology> topologyList = new ArrayList<>(groupIdList.size());
+        for (String groupId : groupIdList) {
+            if (System.currentTimeMillis() >= deadline) {
+                log.warn("discoverFront past deadline, frontId:{}", front.getFrontId());
+                return null;
+            }
+            Integer gId = Integer.valueOf(groupId);
+            groupList.add(gId);
+            GroupTopology topology = new GroupTopology();
+            topology.setFrontId(front.getFrontId());
+            topology.setNodeId(front.getNodeId());
+            topology.setGroupId(gId);
+            try {
+                // if observer set removed, it still return itself as observer
+                topology.setGroupPeerList(
+                    frontInterface.getGroupPeersFromSpecificFront(frontIp, frontPort, gId));
+            } catch (Exception ex) {
+                // case: if front1 group1 stopped, getGroupPeers error
+                log.warn("discoverFront getGroupPeersFromSpecificFront fail, frontId:{}, groupId:{}",
+                    front.getFrontId(), groupId);
+                continue;
+            }
+            try {
+                PeerInfo[] peerArr = frontInterface.getPeersFromSpecificFront(frontIp, frontPort, gId);
+                topology.setPeerList(peerArr == null ? Collections.emptyList() : Arrays.asList(peerArr));
+            } catch (Exception ex) {
+                log.warn("discoverFront getPeersFromSpecificFront fail, frontId:{}, groupId:{}",
+                    front.getFrontId(), groupId);
+                topology.setPeerList(Collections.emptyList());
+            }
+            try {
+                topology.setSealerList(
+                    frontInterface.getSealerListFromSpecificFront(frontIp, frontPort, gId));
+                topology.setObserverList(
+                    frontInterface.getObserverListFromSpecificFront(frontIp, frontPort, gId));
+            } catch (Exception ex) {
+                log.warn("discoverFront get sealer and observer fail, frontId:{}, groupId:{}",
+                    front.getFrontId(), groupId);
+                topology.setSealerList(null);
+                topology.setObserverList(null);
+            }
+            try {
+                // "INEXISTENT"、"STOPPING"、"RUNNING"、"STOPPED"、"DELETED"
+                BaseResponse res = frontInterface.operateGroup(frontIp, frontPort, gId,
+                    GroupService.OPERATE_STATUS_GROUP);
+                if (res.getCode() == 0) {
+                    topology.setGroupStatus((String) res.getData());
+                } else {
+                    log.warn("discoverFront get group status fail. frontId:{}, res:{}",
+                        front.getFrontId(), res);
+                }
+            } catch (Exception ex) {
+                log.warn("discoverFront get group status fail, frontId:{}, groupId:{}",
+                    front.getFrontId(), groupId);
+            }
+            try {
+                // refresh height of every front, used by highestBlock front select strategy
+                BigInteger blockNumber = frontInterface.getBlockNumberFromSpecificFront(frontIp,
+                    frontPort, gId);
+                if (blockNumber != null) {
+                    frontSelector.updateBlockNumber(front.getFrontId(), gId,
+                        blockNumber.longValue());
+                }
+            } catch (Exception ex) {
+                log.warn("discoverFront get block number fail, frontId:{}, groupId:{}",
+                    front.getFrontId(), groupId);
+            }
+            topologyList.add(topology);
+        }
+        return new FrontTopology(groupList, topologyList);
+    }
+
+    private static class FrontTopology {
+        private final List<Integer> groupList;
+        private final List<GroupTopology> topologyList;
+
+        private FrontTopology(List<Integer> groupList, List<GroupTopology> topologyList) {
+            this.groupList = groupList;
+            this.topologyList = topologyList;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.group;
+
+import com.webank.webase.node.mgr.group.entity.GroupTopology;
+import com.webank.webase.node.mgr.node.entity.PeerInfo;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * groups, peers, sealers and observers of all reachable fronts, got in one round.
+ * front that failed or timed out is absent, and none of its data is used.
+ */
+public class TopologySnapshot {
+
+    /**
+     * frontId to group list on front
+     */
+    private final Map<Integer, List<Integer>> groupListOfFront = new HashMap<>();
+    private final Map<Integer, List<GroupTopology>> topologyOfGroup = new HashMap<>();
+
+    /**
+     * add result of one reachable front.
+     * @param groupIdList group list on front
+     * @param topologyList groups whose peers are got
+     */
+    public void addFront(int frontId, List<Integer> groupIdList, List<GroupTopology> topologyList) {
+        groupListOfFront.put(frontId, Collections.unmodifiableList(new ArrayList<>(groupIdList)));
+        for (GroupTopology topology : topologyList) {
+            topologyOfGroup.computeIfAbsent(topology.getGroupId(), k -> new ArrayList<>())
+                .add(topology);
+        }
+    }
+
+    /**
+     * group list on front, null if front not reachable.
+     */
+    public List<Integer> getGroupListOfFront(int frontId) {
+        return groupListOfFront.get(frontId);
+    }
+
+    /**
+     * all groups on any reachable front.
+     */
+    public Set<Integer> getAllGroupSet() {
+        Set<Integer> groupSet = new TreeSet<>();
+        groupListOfFront.values().forEach(groupSet::addAll);
+        return groupSet;
+    }
+
+    /**
+     * groups whose peers are got from at least one front.
+     */
+    public Set<Integer> getKnownGroupSet() {
+        return new TreeSet<>(topologyOfGroup.keySet());
+    }
+
+    public List<GroupTopology> getTopologyList(int groupId) {
+        return topologyOfGroup.getOrDefault(groupId, Collections.emptyList());
+    }
+
+    /**
+     * node count of group, the largest group peers size of fronts.
+     */
+    public int getNodeCount(int groupId) {
+        return getTopologyList(groupId).stream()
+            .mapToInt(t -> t.getGroupPeerList().size())
+            .max().orElse(0);
+    }
+
+    /**
+     * group peers reported by any front.
+     */
+    public Set<String> getGroupPeerSet(int groupId) {
+        Set<String> peerSet = new LinkedHashSet<>();
+        getTopologyList(groupId).forEach(t -> peerSet.addAll(t.getGroupPeerList()));
+        return peerSet;
+    }
+
+    /**
+     * sealers and observers of group, null if no front returns them.
+     * removed observer still reports itself as observer,
+     * so take the lists from a front whose node is sealer first.
+     */
+    public Set<String> getConsensusNodeSet(int groupId) {
+        GroupTopology chosen = null;
+        for (GroupTopology topology : getTopologyList(groupId)) {
+            if (topology.getSealerList() == null || topology.getObserverList() == null) {
+                continue;
+            }
+            if (topology.getSealerList().contains(topology.getNodeId())) {
+                chosen = topology;
+                break;
+            }
+            if (chosen == null) {
+                chosen = topology;
+            }
+        }
+        if (chosen == null) {
+            return null;
+        }
+        Set<String> nodeSet = new LinkedHashSet<>(chosen.getSealerList());
+        nodeSet.addAll(chosen.getObserverList());
+        return nodeSet;
+    }
+
+    /**
+     * nodes of group expected in db: group peers which are sealer or observer,
+     * or all group peers and reported sealers and observers if consensus list unknown.
+     */
+    public Set<String> getExpectedNodeSet(int groupId) {
+        Set<String> peerSet = getGroupPeerSet(groupId);
+        Set<String> consensusSet = getConsensusNodeSet(groupId);
+        if (consensusSet != null) {
+            peerSet.retainAll(consensusSet);
+            return peerSet;
+        }
+        for (GroupTopology topology : getTopologyList(groupId)) {
+            if (topology.getSealerList() != null) {
+                peerSet.addAll(topology.getSealerList());
+            }
+            if (topology.getObserverList() != null) {
+                peerSet.addAll(topology.getObserverList());
+            }
+        }
+        return peerSet;
+    }
+
+    /**
+     * peer info with ip and port of node, or peer info of only nodeId if not connected.
+     */
+    public PeerInfo getPeerInfo(int groupId, String nodeId) {
+        for (GroupTopology topology : getTopologyList(groupId)) {
+            for (PeerInfo peer : topology.getPeerList()) {
+                if (nodeId.equals(peer.getNodeId())) {
+                    return peer;
+                }
+            }
+        }
+        return new PeerInfo(nodeId);
+    }
+
+    /**
+     * fronts of group whose status is got.
+     */
+    public Map<Integer, String> getGroupStatusOfFront(int groupId) {
+        Map<Integer, String> statusMap = new HashMap<>();
+        for (GroupTopology topology : getTopologyList(groupId)) {
+            if (topology.getGroupStatus() != null) {
+                statusMap.put(topology.getFrontId(), topology.getGroupStatus());
+            }
+        }
+        return statusMap;
+    }
+
+    public int getReachableFrontCount() {
+        return groupListOfFront.size();
+    }
+}
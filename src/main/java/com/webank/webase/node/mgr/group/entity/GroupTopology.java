@@ -0,0 +1,48 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.group.entity;
+
+import com.webank.webase.node.mgr.node.entity.PeerInfo;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * group peers, sealers and observers reported by one front.
+ */
+@Data
+public class GroupTopology {
+
+    private Integer frontId;
+    /**
+     * nodeId of front's own node
+     */
+    private String nodeId;
+    private Integer groupId;
+    /**
+     * group status on front, such as RUNNING, STOPPED, null if fail to get
+     */
+    private String groupStatus;
+    private List<String> groupPeerList;
+    /**
+     * connected peers with ip and port, empty if fail to get
+     */
+    private List<PeerInfo> peerList;
+    /**
+     * sealer and observer list, null if fail to get
+     */
+    private List<String> sealerList;
+    private List<String> observerList;
+}
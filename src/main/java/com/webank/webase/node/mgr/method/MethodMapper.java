@@ -15,6 +15,7 @@ package com.webank.webase.node.mgr.method;
 
 
 import com.webank.webase.node.mgr.method.entity.TbMethod;
+import java.util.List;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 
@@ -27,4 +28,6 @@ public interface MethodMapper {
 
     TbMethod getMethodById(@Param("methodId") String methodId, @Param("groupId") Integer groupId);
 
+    List<TbMethod> listByGroupId(@Param("groupId") int groupId);
+
 }
@@ -0,0 +1,262 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.method;
+
+import com.webank.webase.node.mgr.base.enums.ContractType;
+import com.webank.webase.node.mgr.contract.ContractBinChangeEvent;
+import com.webank.webase.node.mgr.method.entity.TbMethod;
+import com.webank.webase.node.mgr.tools.JsonTools;
+import com.webank.webase.node.mgr.tools.Web3Tools;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.fisco.bcos.sdk.abi.wrapper.ABIDefinition;
+import org.fisco.bcos.sdk.crypto.CryptoSuite;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * per group index from 4-byte function selector to method of tb_method and its ABIDefinition.
+ * group is loaded from tb_method on first lookup, then grows as methods saved;
+ * methods of system contract are stored in group 0 and visible to all groups.
+ * selectors of each contract's abi are kept as sorted int[] to check which contract owns a function,
+ * functions found only in contract abi are not in tb_method and never returned as method.
+ */
+@Log4j2
+@Component
+public class MethodSelectorIndex {
+
+    private static final int SYSTEM_GROUP_ID = 0;
+
+    @Autowired
+    private MethodMapper methodMapper;
+    @Autowired
+    private CryptoSuite cryptoSuite;
+
+    private final Map<Integer, GroupSelectorIndex> groupIndexMap = new ConcurrentHashMap<>();
+
+    /**
+     * copy of saved method of function selector, system contract first,
+     * null if not a function selector or not loaded.
+     */
+    public TbMethod getMethod(int groupId, String methodId) {
+        Entry entry = getSavedEntry(groupId, methodId);
+        return entry == null ? null : copyMethod(entry.method);
+    }
+
+    /**
+     * function of saved method, loaded from tb_method if not in index,
+     * functions only found in contract abi are ignored.
+     */
+    public ABIDefinition getFunction(int groupId, String methodId) {
+        Entry entry = getSavedEntry(groupId, methodId);
+        if (entry != null) {
+            return entry.function;
+        }
+        TbMethod tbMethod = queryMethod(groupId, methodId);
+        if (tbMethod == null || !"function".equals(tbMethod.getMethodType())) {
+            return null;
+        }
+        addMethods(tbMethod.getGroupId(), Collections.singletonList(tbMethod));
+        return parseFunction(tbMethod.getAbiInfo());
+    }
+
+    /**
+     * function of selector if it belongs to abi of the contract.
+     */
+    public ABIDefinition getContractFunction(int groupId, int contractId, String contractAbi,
+        String methodId) {
+        Integer selector = SelectorTable.parseSelector(methodId);
+        if (selector == null) {
+            return null;
+        }
+        GroupSelectorIndex index = getGroupIndex(groupId);
+        int[] contractSelectors = index.contractSelectorMap.computeIfAbsent(contractId,
+            id -> indexContractAbi(groupId, contractAbi));
+        if (Arrays.binarySearch(contractSelectors, selector) < 0) {
+            return null;
+        }
+        Entry entry = index.functions.get(selector);
+        return entry == null ? null : entry.function;
+    }
+
+    /**
+     * add saved methods to group loaded, selector resolves to the same name
+     * whichever contract it comes from, so entries of a rollback are harmless.
+     */
+    public void addMethods(int groupId, Collection<TbMethod> methodList) {
+        // wait for loading group, which may miss methods not committed yet
+        groupIndexMap.computeIfPresent(groupId, (id, index) -> {
+            synchronized (index) {
+                index.functions = plus(index.functions, methodList, true);
+            }
+            return index;
+        });
+    }
+
+    public void removeGroup(int groupId) {
+        groupIndexMap.remove(groupId);
+    }
+
+    /**
+     * abi of contract may change with contract.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBinChange(ContractBinChangeEvent event) {
+        GroupSelectorIndex index = groupIndexMap.get(event.getGroupId());
+        if (index != null) {
+            index.contractSelectorMap.clear();
+        }
+    }
+
+    /**
+     * saved entry of selector, system contract first.
+     */
+    private Entry getSavedEntry(int groupId, String methodId) {
+        Integer selector = SelectorTable.parseSelector(methodId);
+        if (selector == null) {
+            return null;
+        }
+        Entry entry = getGroupIndex(SYSTEM_GROUP_ID).functions.get(selector);
+        if ((entry == null || !entry.saved) && groupId != SYSTEM_GROUP_ID) {
+            entry = getGroupIndex(groupId).functions.get(selector);
+        }
+        return entry == null || !entry.saved ? null : entry;
+    }
+
+    /**
+     * method saved by other instances, system contract method of any group.
+     */
+    private TbMethod queryMethod(int groupId, String methodId) {
+        if (SelectorTable.parseSelector(methodId) == null) {
+            return null;
+        }
+        TbMethod tbMethod = methodMapper.getMethodById(methodId, null);
+        if (tbMethod != null && (tbMethod.getContractType() == null
+            || ContractType.SYSTEMCONTRACT.getValue() != tbMethod.getContractType())) {
+            tbMethod = methodMapper.getMethodById(methodId, groupId);
+        }
+        return tbMethod;
+    }
+
+    private GroupSelectorIndex getGroupIndex(int groupId) {
+        return groupIndexMap.computeIfAbsent(groupId, id -> {
+            GroupSelectorIndex index = new GroupSelectorIndex();
+            index.functions = plus(SelectorTable.empty(), methodMapper.listByGroupId(groupId), true);
+            log.info("load method selector of group:{} size:{}", groupId, index.functions.size());
+            return index;
+        });
+    }
+
+    /**
+     * selectors of contract abi, its functions are added to group too.
+     */
+    private int[] indexContractAbi(int groupId, String contractAbi) {
+        List<TbMethod> methodList = new ArrayList<>();
+        try {
+            for (ABIDefinition abiDefinition : Web3Tools.loadContractDefinition(contractAbi)) {
+                if ("function".equals(abiDefinition.getType())) {
+                    TbMethod tbMethod = new TbMethod();
+                    tbMethod.setGroupId(groupId);
+                    tbMethod.setMethodId(Web3Tools.buildMethodId(abiDefinition, cryptoSuite));
+                    tbMethod.setMethodType(abiDefinition.getType());
+                    tbMethod.setAbiInfo(JsonTools.toJSONString(abiDefinition));
+                    methodList.add(tbMethod);
+                }
+            }
+        } catch (Exception ex) {
+            log.warn("fail index contract abi of group:{} error:{}", groupId, ex.getMessage());
+            return new int[0];
+        }
+        GroupSelectorIndex index = getGroupIndex(groupId);
+        synchronized (index) {
+            List<TbMethod> newList = new ArrayList<>();
+            for (TbMethod tbMethod : methodList) {
+                if (index.functions.get(SelectorTable.parseSelector(tbMethod.getMethodId())) == null) {
+                    newList.add(tbMethod);
+                }
+            }
+            index.functions = plus(index.functions, newList, false);
+        }
+        return SelectorTable.sortedKeys(methodList.stream()
+            .mapToInt(m -> SelectorTable.parseSelector(m.getMethodId())).toArray());
+    }
+
+    /**
+     * parse abi of function methods and add copies to table.
+     */
+    private SelectorTable<Entry> plus(SelectorTable<Entry> table, Collection<TbMethod> methodList,
+        boolean saved) {
+        if (methodList == null || methodList.isEmpty()) {
+            return table;
+        }
+        List<Integer> keyList = new ArrayList<>(methodList.size());
+        List<Entry> entryList = new ArrayList<>(methodList.size());
+        for (TbMethod tbMethod : methodList) {
+            Integer selector = SelectorTable.parseSelector(tbMethod.getMethodId());
+            if (selector == null || !"function".equals(tbMethod.getMethodType())) {
+                continue;
+            }
+            ABIDefinition function = parseFunction(tbMethod.getAbiInfo());
+            if (function != null) {
+                keyList.add(selector);
+                entryList.add(new Entry(copyMethod(tbMethod), function, saved));
+            }
+        }
+        int[] keys = keyList.stream().mapToInt(Integer::intValue).toArray();
+        return table.plus(keys, entryList.toArray(new Entry[0]));
+    }
+
+    private ABIDefinition parseFunction(String abiInfo) {
+        try {
+            List<ABIDefinition> abiList = Web3Tools.loadContractDefinition("[" + abiInfo + "]");
+            return abiList.isEmpty() ? null : abiList.get(0);
+        } catch (Exception ex) {
+            log.warn("fail parse abi of method:{}", abiInfo, ex);
+            return null;
+        }
+    }
+
+    private static TbMethod copyMethod(TbMethod tbMethod) {
+        TbMethod copy = new TbMethod();
+        BeanUtils.copyProperties(tbMethod, copy);
+        return copy;
+    }
+
+    private static class GroupSelectorIndex {
+        private volatile SelectorTable<Entry> functions;
+        private final Map<Integer, int[]> contractSelectorMap = new ConcurrentHashMap<>();
+    }
+
+    private static class Entry {
+        private final TbMethod method;
+        private final ABIDefinition function;
+        private final boolean saved;
+
+        private Entry(TbMethod method, ABIDefinition function, boolean saved) {
+            this.method = method;
+            this.function = function;
+            this.saved = saved;
+        }
+    }
+}
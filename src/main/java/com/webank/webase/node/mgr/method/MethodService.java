@@ -22,6 +22,7 @@ import com.webank.webase.node.mgr.method.entity.NewMethodInputParam;
 import com.webank.webase.node.mgr.method.entity.TbMethod;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -39,6 +40,8 @@ public class MethodService {
     private MethodMapper methodMapper;
     @Autowired
     private CryptoSuite cryptoSuite;
+    @Autowired
+    private MethodSelectorIndex methodSelectorIndex;
 
     /**
      * save method by abi string
@@ -66,18 +69,21 @@ public class MethodService {
     public void saveMethod(NewMethodInputParam newMethodInputParam, Integer type) {
         int groupId = newMethodInputParam.getGroupId();
         List<Method> methodList = newMethodInputParam.getMethodList();
-        TbMethod tbMethod = new TbMethod();
-        tbMethod.setGroupId(groupId);
-        tbMethod.setContractType(type);
+        List<TbMethod> savedList = new ArrayList<>();
         //save each method
         for (Method method : methodList) {
             if (checkMethodExist(method.getMethodId(), groupId)) {
                 log.info("methodId of [{}] in group [{}] exist, jump over", method.getMethodId(), groupId);
                 continue;
             }
+            TbMethod tbMethod = new TbMethod();
+            tbMethod.setGroupId(groupId);
+            tbMethod.setContractType(type);
             BeanUtils.copyProperties(method, tbMethod);
             methodMapper.add(tbMethod);
+            savedList.add(tbMethod);
         }
+        methodSelectorIndex.addMethods(groupId, savedList);
     }
 
     /**
@@ -95,18 +101,27 @@ public class MethodService {
     }
 
     /**
-     * query by methodId.
+     * query by methodId, function selector is served by MethodSelectorIndex first,
+     * then by db for other method types and methods saved by other instances.
      */
     public TbMethod getByMethodId(String methodId, Integer groupId) {
+        if (groupId != null) {
+            TbMethod cached = methodSelectorIndex.getMethod(groupId, methodId);
+            if (Objects.nonNull(cached)) {
+                return cached;
+            }
+        }
         TbMethod tbMethod = methodMapper.getMethodById(methodId, null);
         if (Objects.nonNull(tbMethod)) {
-            if (ContractType.SYSTEMCONTRACT.getValue() == tbMethod.getContractType().intValue()) {
-                return tbMethod;
-            } else {
-                return methodMapper.getMethodById(methodId, groupId);
+            if (ContractType.SYSTEMCONTRACT.getValue() != tbMethod.getContractType().intValue()) {
+                tbMethod = methodMapper.getMethodById(methodId, groupId);
+            }
+            if (Objects.nonNull(tbMethod)) {
+                methodSelectorIndex.addMethods(tbMethod.getGroupId(),
+                    Collections.singletonList(tbMethod));
             }
         }
-        return null;
+        return tbMethod;
     }
 
     /**
@@ -117,6 +132,7 @@ public class MethodService {
             return;
         }
         methodMapper.removeByGroupId(groupId);
+        methodSelectorIndex.removeGroup(groupId);
     }
 
 }
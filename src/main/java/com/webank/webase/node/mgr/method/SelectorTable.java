@@ -0,0 +1,134 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.method;
+
+import java.util.Arrays;
+
+/**
+ * immutable open addressing map from 4-byte selector to value, keys kept as primitive int.
+ * add returns a new table, so readers never lock.
+ */
+public class SelectorTable<V> {
+
+    private static final SelectorTable<?> EMPTY = new SelectorTable<>(new int[0], new Object[0], 0);
+
+    private final int[] keys;
+    private final Object[] values;
+    private final int size;
+
+    private SelectorTable(int[] keys, Object[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> SelectorTable<V> empty() {
+        return (SelectorTable<V>) EMPTY;
+    }
+
+    /**
+     * parse "0x" and 8 hex characters, return null if not a function selector.
+     */
+    public static Integer parseSelector(String methodId) {
+        if (methodId == null || methodId.length() != 10 || !methodId.startsWith("0x")) {
+            return null;
+        }
+        try {
+            return Integer.parseUnsignedInt(methodId.substring(2), 16);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (size == 0) {
+            return null;
+        }
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * copy with entries added, existing key is replaced.
+     */
+    @SuppressWarnings("unchecked")
+    public SelectorTable<V> plus(int[] addKeys, V[] addValues) {
+        int capacity = tableSize(size + addKeys.length);
+        int[] newKeys = new int[capacity];
+        Object[] newValues = new Object[capacity];
+        int newSize = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                newSize += put(newKeys, newValues, keys[i], values[i]);
+            }
+        }
+        for (int i = 0; i < addKeys.length; i++) {
+            if (addValues[i] != null) {
+                newSize += put(newKeys, newValues, addKeys[i], addValues[i]);
+            }
+        }
+        return new SelectorTable<>(newKeys, newValues, newSize);
+    }
+
+    /**
+     * sorted distinct keys, for membership check by binary search.
+     */
+    public static int[] sortedKeys(int[] keys) {
+        return Arrays.stream(keys).distinct().sorted().toArray();
+    }
+
+    private static int put(int[] keys, Object[] values, int key, Object value) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return 0;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        return 1;
+    }
+
+    /**
+     * power of two, load factor at most 0.5.
+     */
+    private static int tableSize(int count) {
+        int capacity = 4;
+        while (capacity < count * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -20,6 +20,7 @@ import com.webank.webase.node.mgr.base.entity.BasePageResponse;
 import com.webank.webase.node.mgr.base.entity.BaseResponse;
 import com.webank.webase.node.mgr.base.code.ConstantCode;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
+import com.webank.webase.node.mgr.monitor.entity.MonitorShardInfo;
 import com.webank.webase.node.mgr.monitor.entity.TbMonitor;
 import com.webank.webase.node.mgr.monitor.entity.UnusualContractInfo;
 import com.webank.webase.node.mgr.monitor.entity.UnusualUserInfo;
@@ -41,6 +42,8 @@ public class MonitorController {
 
     @Autowired
     private MonitorService monitorService;
+    @Autowired
+    private MonitorShardService monitorShardService;
 
     /**
      * monitor user list.
@@ -165,4 +168,21 @@ public class MonitorController {
             Duration.between(startTime, Instant.now()).toMillis(), JsonTools.toJSONString(pageResponse));
         return pageResponse;
     }
+
+    /**
+     * lease and audit progress of trans monitor shards.
+     */
+    @GetMapping(value = "/shardStat/{groupId}")
+    public BaseResponse monitorShardStat(@PathVariable("groupId") Integer groupId)
+        throws NodeMgrException {
+        Instant startTime = Instant.now();
+        log.info("start monitorShardStat startTime:{} groupId:{} ", startTime.toEpochMilli(),
+            groupId);
+
+        List<MonitorShardInfo> shardList = monitorShardService.getShardInfoList(groupId);
+
+        log.info("end monitorShardStat useTime:{}",
+            Duration.between(startTime, Instant.now()).toMillis());
+        return new BaseResponse(ConstantCode.SUCCESS, shardList);
+    }
 }
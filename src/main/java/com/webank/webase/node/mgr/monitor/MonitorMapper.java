@@ -28,26 +28,33 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface MonitorMapper {
 
-    void add(@Param("tableName") String tableName, @Param("monitor") TbMonitor tbMonitor);
-
-    void update(@Param("tableName") String tableName, @Param("monitor") TbMonitor tbMonitor);
-
-    Integer deleteAndRetainMax(@Param("tableName") String tableName,
-        @Param("monitorInfoRetainMax") Integer monitorInfoRetainMax);
-
-    void updateUnusualUser(@Param("tableName") String tableName,
+    /**
+     * insert row of monitor key and day, or add transCount to it
+     */
+    int upsertCount(@Param("tableName") String tableName, @Param("monitor") TbMonitor tbMonitor);
+
+    /**
+     * copy rows of unusual user to its name, added into row of the same key and day
+     */
+    int mergeUnusualUser(@Param("tableName") String tableName,
         @Param("userName") String userName, @Param("address") String address);
 
-    void updateUnusualContract(@Param("tableName") String tableName,
+    int deleteUnusualUser(@Param("tableName") String tableName,
+        @Param("address") String address);
+
+    /**
+     * copy rows of unusual contract to its name, added into row of the same key and day
+     */
+    int mergeUnusualContract(@Param("tableName") String tableName,
         @Param("contractName") String contractName,
         @Param("contractBin") String contractBin, @Param("interfaceName") String interfaceName,
         @Param("transUnusualType") int transUnusualType);
 
-    String queryUnusualTxhash(@Param("tableName") String tableName,
+    int deleteUnusualContract(@Param("tableName") String tableName,
         @Param("contractBin") String contractBin);
 
-    TbMonitor queryTbMonitor(@Param("tableName") String tableName,
-        @Param("monitor") TbMonitor tbMonitor);
+    String queryUnusualTxhash(@Param("tableName") String tableName,
+        @Param("contractBin") String contractBin);
 
     List<TbMonitor> monitorUserList(@Param("tableName") String tableName);
 
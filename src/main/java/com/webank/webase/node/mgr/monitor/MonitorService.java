@@ -23,16 +23,13 @@ import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.config.properties.ConstantProperties;
 import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.tools.NodeMgrTools;
-import com.webank.webase.node.mgr.tools.Web3Tools;
 import com.webank.webase.node.mgr.contract.ContractService;
 import com.webank.webase.node.mgr.contract.abi.AbiService;
 import com.webank.webase.node.mgr.contract.abi.entity.AbiInfo;
 import com.webank.webase.node.mgr.contract.abi.entity.ReqAbiListParam;
-import com.webank.webase.node.mgr.contract.entity.ContractParam;
 import com.webank.webase.node.mgr.contract.entity.TbContract;
 import com.webank.webase.node.mgr.front.frontinterface.FrontInterfaceService;
-import com.webank.webase.node.mgr.method.MethodService;
-import com.webank.webase.node.mgr.method.entity.TbMethod;
+import com.webank.webase.node.mgr.method.MethodSelectorIndex;
 import com.webank.webase.node.mgr.monitor.entity.ChainTransInfo;
 import com.webank.webase.node.mgr.monitor.entity.ContractMonitorResult;
 import com.webank.webase.node.mgr.monitor.entity.MonitorTrans;
@@ -48,20 +45,27 @@ import java.math.BigInteger;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
 import org.fisco.bcos.sdk.abi.wrapper.ABIDefinition;
-import org.fisco.bcos.sdk.crypto.CryptoSuite;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 /**
@@ -71,6 +75,11 @@ import org.springframework.stereotype.Service;
 @Service
 public class MonitorService {
 
+    /**
+     * max trans hash kept in one monitor row
+     */
+    private static final int MONITOR_TRANS_HASHS_MAX = 5;
+
     @Autowired
     private MonitorMapper monitorMapper;
     @Autowired
@@ -86,29 +95,44 @@ public class MonitorService {
     @Autowired
     private MonitorTransactionService monitorTransactionService;
     @Autowired
-    private MethodService methodService;
+    private MethodSelectorIndex methodSelectorIndex;
     @Autowired
     private ConstantProperties cProperties;
     @Autowired
-    private CryptoSuite cryptoSuite;
-    @Autowired
     @Lazy
     private AbiService abiService;
+    @Qualifier(value = "mgrAsyncExecutor")
+    @Autowired
+    private ThreadPoolTaskExecutor mgrAsyncExecutor;
 
 
     /**
      * monitor every group.
      */
-    @Async(value = "mgrAsyncExecutor")
-    public void transMonitorByGroupId(CountDownLatch latch, int groupId) {
+    public void transMonitorByGroupId(int groupId) {
+        transMonitor(groupId, () -> transHashService.queryUnStatTransHashList(groupId),
+            () -> true, transHashList -> true);
+    }
+
+    /**
+     * monitor one shard of group, trans of shard has block_number mod shardCount equal to shardItem.
+     * @param fence checked in the transaction writing counts of a page, stop if it returns false
+     * @param onPage called after each page audited, stop if it returns false
+     */
+    public void transMonitorByShard(int groupId, int shardCount, int shardItem,
+        BooleanSupplier fence, Predicate<List<TbTransHash>> onPage) {
+        transMonitor(groupId,
+            () -> transHashService.queryUnStatTransHashListByJob(groupId, shardCount, shardItem),
+            fence, onPage);
+    }
+
+    private void transMonitor(int groupId, Supplier<List<TbTransHash>> pageQuery,
+        BooleanSupplier fence, Predicate<List<TbTransHash>> onPage) {
         try {
             Instant startTimem = Instant.now();//start time
             Long useTimeSum = 0L;
-            LocalDateTime start = LocalDateTime.now(); //createTime of monitor info
-            LocalDateTime createTime = start;
             do {
-                List<TbTransHash> transHashList = transHashService
-                    .queryUnStatTransHashList(groupId);
+                List<TbTransHash> transHashList = pageQuery.get();
                 log.info("=== groupId:{} transHashList:{}", groupId, transHashList.size());
                 if (transHashList.size() == 0) {
                     log.debug("transMonitorByGroupId jump over. transHashList is empty");
@@ -120,20 +144,21 @@ public class MonitorService {
                 }
 
                 //monitor
-                for (TbTransHash trans : transHashList) {
-                    if (createTime.getDayOfYear() != trans.getBlockTimestamp().getDayOfYear()
-                        || start == createTime) {
-                        log.info(
-                            "============== createTime:{} blockTimestamp:{}",
-                            createTime,
-                            trans.getBlockTimestamp());
-                        log.info(
-                            "============== createData:{} blockTimestampData:{}",
-                            createTime.getDayOfYear(),
-                            trans.getBlockTimestamp().getDayOfYear());
-                        createTime = trans.getBlockTimestamp();
+                boolean committed = true;
+                if (cProperties.getIsMonitorBatch()) {
+                    committed = monitorTransBatch(groupId, transHashList, fence);
+                } else {
+                    for (TbTransHash trans : transHashList) {
+                        committed = monitorTransHash(groupId, trans, getMonitorCreateTime(trans),
+                            fence);
+                        if (!committed) {
+                            break;
+                        }
                     }
-                    monitorTransHash(groupId, trans, createTime);
+                }
+                if (!committed || !onPage.test(transHashList)) {
+                    log.info("=== stop monitor. groupId:{}", groupId);
+                    return;
                 }
 
                 //monitor useTime
@@ -144,12 +169,111 @@ public class MonitorService {
             log.info("=== end monitor. groupId:{} allUseTime:{}s", groupId, useTimeSum);
         } catch (Exception ex) {
             log.error("fail transMonitorByGroupId, group:{}", groupId, ex);
-        } finally {
-            if (Objects.nonNull(latch)) {
-                // finish one group, count down
-                latch.countDown();
+        }
+    }
+
+    /**
+     * createTime of monitor info, it's the start of the day of blockTimestamp,
+     * so trans of one day are counted in the same row.
+     */
+    private LocalDateTime getMonitorCreateTime(TbTransHash trans) {
+        return trans.getBlockTimestamp().toLocalDate().atStartOfDay();
+    }
+
+    /**
+     * monitor a page of trans: fetch trans from front concurrently, reuse user and contract
+     * result in the page, count trans by monitor row in memory, then flush rows and stat flag
+     * in one db transaction.
+     * @return false if fence rejected the page
+     */
+    private boolean monitorTransBatch(int groupId, List<TbTransHash> transHashList,
+        BooleanSupplier fence) {
+        List<CompletableFuture<ChainTransInfo>> futureList = transHashList.stream()
+            .map(trans -> CompletableFuture.supplyAsync(
+                () -> frontInterface.getTransInfoByHash(groupId, trans.getTransHash()),
+                mgrAsyncExecutor))
+            .collect(Collectors.toList());
+
+        Map<String, UserMonitorResult> userResultMap = new HashMap<>();
+        Map<String, ContractMonitorResult> callResultMap = new HashMap<>();
+        Map<String, TbMonitor> monitorMap = new LinkedHashMap<>();
+        List<String> statTransHashList = new ArrayList<>();
+        for (int i = 0; i < transHashList.size(); i++) {
+            TbTransHash trans = transHashList.get(i);
+            LocalDateTime createTime = getMonitorCreateTime(trans);
+            try {
+                ChainTransInfo chanTrans = futureList.get(i).join();
+                if (Objects.isNull(chanTrans)) {
+                    log.error("monitor jump over,invalid hash. groupId:{} hash:{}", groupId,
+                        trans.getTransHash());
+                    continue;
+                }
+                UserMonitorResult userResult = userResultMap.computeIfAbsent(
+                    trans.getTransFrom(), from -> monitorUser(groupId, from));
+                ContractMonitorResult contractRes;
+                if (isDeploy(chanTrans.getTo())) {
+                    contractRes = monitorContract(groupId, trans.getTransHash(),
+                        chanTrans.getTo(), chanTrans.getInput(), trans.getBlockNumber());
+                } else {
+                    // same contract and method in one page share the result
+                    contractRes = callResultMap.computeIfAbsent(
+                        chanTrans.getTo() + "_" + chanTrans.getInput().substring(0, 10),
+                        k -> monitorContract(groupId, trans.getTransHash(), chanTrans.getTo(),
+                            chanTrans.getInput(), trans.getBlockNumber()));
+                }
+
+                TbMonitor tbMonitor = new TbMonitor();
+                BeanUtils.copyProperties(userResult, tbMonitor);
+                BeanUtils.copyProperties(contractRes, tbMonitor);
+                tbMonitor.setCreateTime(createTime);
+                String monitorKey = buildMonitorKey(tbMonitor);
+                TbMonitor aggregate = monitorMap.get(monitorKey);
+                if (aggregate == null) {
+                    tbMonitor.setTransHashs(trans.getTransHash());
+                    tbMonitor.setTransCount(1);
+                    aggregate = tbMonitor;
+                    monitorMap.put(monitorKey, aggregate);
+                } else {
+                    if (aggregate.getTransCount() < MONITOR_TRANS_HASHS_MAX) {
+                        aggregate.setTransHashs(
+                            aggregate.getTransHashs() + "," + trans.getTransHash());
+                    }
+                    aggregate.setTransCount(aggregate.getTransCount() + 1);
+                }
+                aggregate.setTransHashLastest(trans.getTransHash());
+                aggregate.setModifyTime(trans.getBlockTimestamp());
+                statTransHashList.add(trans.getTransHash());
+            } catch (Exception ex) {
+                log.error("transaction:{} analysis fail...", trans.getTransHash(), ex);
             }
         }
+
+        if (!statTransHashList.isEmpty() && !monitorTransactionService
+            .batchAddAndUpdate(groupId, monitorMap.values(), statTransHashList, fence)) {
+            log.warn("monitorTransBatch fenced, page dropped. groupId:{} transSize:{}", groupId,
+                transHashList.size());
+            return false;
+        }
+        log.info("monitorTransBatch groupId:{} transSize:{} statSize:{} monitorRowSize:{}",
+            groupId, transHashList.size(), statTransHashList.size(), monitorMap.size());
+        try {
+            Thread.sleep(cProperties.getAnalysisSleepTime());
+        } catch (InterruptedException e) {
+            log.error("thread sleep fail", e);
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    /**
+     * columns to locate one monitor row.
+     */
+    private static String buildMonitorKey(TbMonitor tbMonitor) {
+        return String.join("|", tbMonitor.getUserName(), String.valueOf(tbMonitor.getUserType()),
+            tbMonitor.getContractName(), tbMonitor.getContractAddress(),
+            tbMonitor.getInterfaceName(), String.valueOf(tbMonitor.getTransType()),
+            String.valueOf(tbMonitor.getTransUnusualType()),
+            String.valueOf(tbMonitor.getCreateTime()));
     }
 
     /**
@@ -172,16 +296,7 @@ public class MonitorService {
 
     public void updateUnusualUser(Integer groupId, String userName, String address) {
         log.info("start updateUnusualUser address:{}", address);
-        monitorMapper.updateUnusualUser(TableName.MONITOR.getTableName(groupId), userName, address);
-    }
-
-    /**
-     * Remove trans monitor info.
-     */
-    public Integer delete(Integer groupId, Integer monitorInfoRetainMax) {
-        String tableName = TableName.MONITOR.getTableName(groupId);
-        Integer affectRow = monitorMapper.deleteAndRetainMax(tableName, monitorInfoRetainMax);
-        return affectRow;
+        monitorTransactionService.renameUnusualUser(groupId, userName, address);
     }
 
     /**
@@ -207,7 +322,7 @@ public class MonitorService {
                 trans.getInput(), trans.getBlockNumber());
 
             //update monitor into
-            monitorMapper.updateUnusualContract(tableName, contractName, subContractBin,
+            monitorTransactionService.renameUnusualContract(groupId, contractName, subContractBin,
                 contractResult.getInterfaceName(), contractResult.getTransUnusualType());
         } catch (Exception ex) {
             log.error("fail updateUnusualContract", ex);
@@ -338,7 +453,8 @@ public class MonitorService {
     /**
      * monitor TransHash.
      */
-    public void monitorTransHash(int groupId, TbTransHash trans, LocalDateTime createTime) {
+    public boolean monitorTransHash(int groupId, TbTransHash trans, LocalDateTime createTime,
+        BooleanSupplier fence) {
 
         try {
             ChainTransInfo chanTrans = frontInterface
@@ -346,7 +462,7 @@ public class MonitorService {
             if (Objects.isNull(chanTrans)) {
                 log.error("monitor jump over,invalid hash. groupId:{} hash:{}", groupId,
                     trans.getTransHash());
-                return;
+                return true;
             }
 
             // monitor user
@@ -364,10 +480,15 @@ public class MonitorService {
             tbMonitor.setCreateTime(createTime);
             tbMonitor.setModifyTime(trans.getBlockTimestamp());
             //refresh transaction audit
-            monitorTransactionService.dataAddAndUpdate(groupId, tbMonitor);
+            if (!monitorTransactionService.dataAddAndUpdate(groupId, tbMonitor, fence)) {
+                log.warn("monitorTransHash fenced. groupId:{} hash:{}", groupId,
+                    trans.getTransHash());
+                return false;
+            }
+            return true;
         } catch (Exception ex) {
             log.error("transaction:{} analysis fail...", trans.getTransHash(), ex);
-            return;
+            return true;
         } finally {
             try {
                 Thread.sleep(cProperties.getAnalysisSleepTime());
@@ -392,16 +513,16 @@ public class MonitorService {
             contractAddress = frontInterface.getAddressByHash(groupId, transHash);
             if (ConstantProperties.ADDRESS_DEPLOY.equals(contractAddress)) {
                 contractBin = StringUtils.removeStart(transInput, "0x");
-                
-                ContractParam param = new ContractParam();
-                param.setGroupId(groupId);
-                param.setPartOfBytecodeBin(contractBin);
-                TbContract tbContract = contractService.queryContract(param);
-                // add abi query
-                ReqAbiListParam paramTbAbi = new ReqAbiListParam();
-                paramTbAbi.setGroupId(groupId);
-                paramTbAbi.setPartOfContractBin(contractBin);
-                AbiInfo abiInfo = abiService.getAbiInfoByBin(paramTbAbi);
+
+                TbContract tbContract = contractService.queryContractByDeployInput(groupId, contractBin);
+                // abi only has runtime bin, which is inside deploy input
+                AbiInfo abiInfo = null;
+                if (Objects.isNull(tbContract)) {
+                    ReqAbiListParam paramTbAbi = new ReqAbiListParam();
+                    paramTbAbi.setGroupId(groupId);
+                    paramTbAbi.setPartOfContractBin(contractBin);
+                    abiInfo = abiService.getAbiInfoByBin(paramTbAbi);
+                }
                 if (Objects.nonNull(tbContract)) {
                     contractName = tbContract.getContractName();
                 } else if (Objects.nonNull(abiInfo)) {
@@ -416,10 +537,7 @@ public class MonitorService {
 
                 List<TbContract> contractRow = contractService.queryContractByBin(groupId, contractBin);
                 // add abi query
-                ReqAbiListParam paramTbAbi = new ReqAbiListParam();
-                paramTbAbi.setGroupId(groupId);
-                paramTbAbi.setPartOfContractBin(contractBin);
-                AbiInfo abiInfo = abiService.getAbiInfoByBin(paramTbAbi);
+                AbiInfo abiInfo = abiService.getAbiInfoByRuntimeBin(groupId, contractBin);
                 if (contractRow != null && contractRow.size() > 0) {
                     contractName = contractRow.get(0).getContractName();
                 } else if (Objects.nonNull(abiInfo)) {
@@ -439,8 +557,10 @@ public class MonitorService {
 
             List<TbContract> contractRow = contractService.queryContractByBin(groupId, contractBin);
             if (contractRow != null && contractRow.size() > 0) {
-                contractName = contractRow.get(0).getContractName();
-                interfaceName = getInterfaceName(methodId, contractRow.get(0).getContractAbi());
+                TbContract tbContract = contractRow.get(0);
+                contractName = tbContract.getContractName();
+                interfaceName = getInterfaceName(methodSelectorIndex.getContractFunction(groupId,
+                    tbContract.getContractId(), tbContract.getContractAbi(), methodId));
                 if (StringUtils.isBlank(interfaceName)) {
                     interfaceName = transInput.substring(0, 10);
                     transUnusualType = TransUnusualType.FUNCTION.getValue();
@@ -448,9 +568,8 @@ public class MonitorService {
             } else {
                 // no contract name, use bin as contract name
                 contractName = getNameFromContractBin(groupId, contractBin);
-                TbMethod tbMethod = methodService.getByMethodId(methodId, groupId);
-                if (Objects.nonNull(tbMethod)) {
-                    interfaceName = getInterfaceName(methodId, "[" + tbMethod.getAbiInfo() + "]");
+                interfaceName = getInterfaceName(methodSelectorIndex.getFunction(groupId, methodId));
+                if (StringUtils.isNotBlank(interfaceName)) {
                     log.info("monitor methodId:{} interfaceName:{}", methodId, interfaceName);
                 }
                 // no method id, deploy tx
@@ -499,45 +618,15 @@ public class MonitorService {
     /**
      * get interface name.
      */
-    private String getInterfaceName(String methodId, String contractAbi) {
-        if (StringUtils.isAnyBlank(methodId, contractAbi)) {
-            log.warn("fail getInterfaceName. methodId:{} contractAbi:{}", methodId, contractAbi);
-            return null;
-        }
-
-        String interfaceName = null;
-        try {
-            List<ABIDefinition> abiList = Web3Tools.loadContractDefinition(contractAbi);
-            for (ABIDefinition abiDefinition : abiList) {
-                if ("function".equals(abiDefinition.getType())) {
-                    // support guomi sm3
-                    String buildMethodId = Web3Tools.buildMethodId(abiDefinition, cryptoSuite);
-                    if (methodId.equals(buildMethodId)) {
-                        interfaceName = abiDefinition.getName();
-                        break;
-                    }
-                }
-            }
-        } catch (Exception ex) {
-            log.error("fail getInterfaceName", ex);
-        }
-        return interfaceName;
+    private String getInterfaceName(ABIDefinition function) {
+        return function == null ? null : function.getName();
     }
 
     /**
      * remove "0x" and last 68 character.
      */
     private String removeBinFirstAndLast(String contractBin) {
-        if (StringUtils.isBlank(contractBin)) {
-            return null;
-        }
-        if (contractBin.startsWith("0x")) {
-            contractBin = StringUtils.removeStart(contractBin, "0x");
-        }
-        if (contractBin.length() > 68) {
-            contractBin = contractBin.substring(0, contractBin.length() - 68);
-        }
-        return contractBin;
+        return NodeMgrTools.removeBinFirstAndLast(contractBin, NodeMgrTools.BIN_METADATA_LENGTH);
     }
 
     /**
@@ -0,0 +1,59 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.monitor;
+
+import com.webank.webase.node.mgr.monitor.entity.MonitorShardInfo;
+import java.math.BigInteger;
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * lease of audit shard in tb_monitor_shard, expire time is taken from db clock.
+ */
+@Repository
+public interface MonitorShardMapper {
+
+    /**
+     * insert or take over an expired lease, keep it if held by other owner.
+     */
+    void acquire(@Param("groupId") int groupId, @Param("shardItem") int shardItem,
+        @Param("shardCount") int shardCount, @Param("owner") String owner,
+        @Param("leaseTime") int leaseTime);
+
+    String queryOwner(@Param("groupId") int groupId, @Param("shardItem") int shardItem);
+
+    int renew(@Param("groupId") int groupId, @Param("shardItem") int shardItem,
+        @Param("owner") String owner, @Param("leaseTime") int leaseTime);
+
+    int updateProgress(@Param("groupId") int groupId, @Param("shardItem") int shardItem,
+        @Param("owner") String owner, @Param("leaseTime") int leaseTime,
+        @Param("auditedCount") int auditedCount, @Param("lastBlock") BigInteger lastBlock);
+
+    /**
+     * lock lease row in current transaction if still held by owner,
+     * so it can't be taken over before the transaction ends.
+     */
+    int lockLease(@Param("groupId") int groupId, @Param("shardItem") int shardItem,
+        @Param("owner") String owner);
+
+    int release(@Param("groupId") int groupId, @Param("shardItem") int shardItem,
+        @Param("owner") String owner);
+
+    List<MonitorShardInfo> listByGroupId(@Param("groupId") int groupId);
+
+    void removeByGroupId(@Param("groupId") int groupId);
+}
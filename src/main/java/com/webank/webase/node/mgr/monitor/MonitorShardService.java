@@ -0,0 +1,266 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.monitor;
+
+import com.webank.webase.node.mgr.block.entity.MinMaxBlock;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.monitor.entity.MonitorShardInfo;
+import com.webank.webase.node.mgr.transaction.TransHashService;
+import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import com.webank.webase.node.mgr.transaction.entity.UnStatShardCount;
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * audit trans of group in shards by block_number mod monitorShardCount.
+ * each shard is owned through a lease row in tb_monitor_shard, so shards spread over
+ * worker threads of all node-mgr instances; running leases are renewed by heartbeat,
+ * and the shard of a dead worker is taken over once its lease expired.
+ * counts of each page are written only while the lease row is locked by its owner.
+ */
+@Log4j2
+@Service
+public class MonitorShardService implements InitializingBean, DisposableBean {
+
+    @Autowired
+    private MonitorShardMapper monitorShardMapper;
+    @Autowired
+    private MonitorService monitorService;
+    @Autowired
+    private TransHashService transHashService;
+    @Autowired
+    private ConstantProperties cProperties;
+
+    /**
+     * pid@host of this instance, suffixed to tell restarts apart
+     */
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "-"
+        + UUID.randomUUID().toString().substring(0, 8);
+    private final Map<String, ShardRun> runningMap = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor workerPool;
+    private ScheduledExecutorService heartbeatScheduler;
+
+    @Override
+    public void afterPropertiesSet() {
+        int workerCount = cProperties.getMonitorShardWorkerCount();
+        workerPool = new ThreadPoolExecutor(workerCount, workerCount, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new CustomizableThreadFactory("node-mgr-monitorShard-"));
+        workerPool.allowCoreThreadTimeOut(true);
+        long period = Math.max(cProperties.getMonitorShardLeaseTime() * 1000L / 3, 1000L);
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("node-mgr-monitorShard-heartbeat-"));
+        heartbeatScheduler.scheduleAtFixedRate(this::heartbeat, period, period,
+            TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        heartbeatScheduler.shutdownNow();
+        workerPool.shutdownNow();
+        runningMap.values().stream().filter(run -> run.leased).forEach(this::release);
+    }
+
+    /**
+     * start shards of group not running in this instance,
+     * shard leased by other alive worker is skipped in its round.
+     */
+    public void monitorGroup(int groupId) {
+        int shardCount = cProperties.getMonitorShardCount();
+        for (int shardItem = 0; shardItem < shardCount; shardItem++) {
+            String key = groupId + "_" + shardItem;
+            ShardRun run = new ShardRun(groupId, shardItem, shardCount);
+            if (runningMap.putIfAbsent(key, run) != null) {
+                continue;
+            }
+            try {
+                workerPool.execute(() -> {
+                    try {
+                        runShard(run);
+                    } catch (Exception ex) {
+                        log.error("fail monitor shard. groupId:{} shardItem:{}", groupId,
+                            run.shardItem, ex);
+                    } finally {
+                        runningMap.remove(key);
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                runningMap.remove(key);
+                log.warn("monitor shard rejected. groupId:{} shardItem:{}", groupId, shardItem);
+            }
+        }
+    }
+
+    /**
+     * lease and audit progress of each shard of group.
+     */
+    public List<MonitorShardInfo> getShardInfoList(int groupId) {
+        int shardCount = cProperties.getMonitorShardCount();
+        Map<Integer, MonitorShardInfo> leaseMap = monitorShardMapper.listByGroupId(groupId)
+            .stream().collect(Collectors.toMap(MonitorShardInfo::getShardItem, Function.identity()));
+        Map<Integer, UnStatShardCount> unStatMap = transHashService
+            .queryUnStatCountByShard(groupId, shardCount).stream()
+            .collect(Collectors.toMap(UnStatShardCount::getShardItem, Function.identity()));
+        BigInteger maxBlock = transHashService.queryMinMaxBlock(groupId).stream()
+            .map(MinMaxBlock::getMaxBlockNumber).filter(Objects::nonNull).findFirst()
+            .orElse(BigInteger.ZERO);
+
+        List<MonitorShardInfo> infoList = new ArrayList<>(shardCount);
+        for (int shardItem = 0; shardItem < shardCount; shardItem++) {
+            MonitorShardInfo info = leaseMap.get(shardItem);
+            if (info == null) {
+                info = new MonitorShardInfo();
+                info.setGroupId(groupId);
+                info.setShardItem(shardItem);
+                info.setShardCount(shardCount);
+                info.setAuditedCount(0L);
+                info.setAlive(false);
+            }
+            UnStatShardCount unStat = unStatMap.get(shardItem);
+            info.setUnStatCount(unStat == null ? 0L : unStat.getUnStatCount());
+            info.setLag(unStat == null ? BigInteger.ZERO
+                : maxBlock.subtract(unStat.getMinBlockNumber()).max(BigInteger.ZERO));
+            infoList.add(info);
+        }
+        return infoList;
+    }
+
+    public void deleteByGroupId(int groupId) {
+        monitorShardMapper.removeByGroupId(groupId);
+    }
+
+    private void runShard(ShardRun run) {
+        monitorShardMapper.acquire(run.groupId, run.shardItem, run.shardCount, owner,
+            cProperties.getMonitorShardLeaseTime());
+        if (!owner.equals(monitorShardMapper.queryOwner(run.groupId, run.shardItem))) {
+            log.debug("monitor shard leased by other. groupId:{} shardItem:{}", run.groupId,
+                run.shardItem);
+            return;
+        }
+        run.leased = true;
+        log.info("start monitor shard. groupId:{} shardItem:{}/{}", run.groupId, run.shardItem,
+            run.shardCount);
+        try {
+            monitorService.transMonitorByShard(run.groupId, run.shardCount, run.shardItem,
+                () -> holdLease(run), page -> onPage(run, page));
+        } finally {
+            release(run);
+        }
+    }
+
+    /**
+     * called in the transaction writing counts of a page, the locked lease row
+     * blocks take over until the page committed.
+     */
+    private boolean holdLease(ShardRun run) {
+        if (run.lost) {
+            return false;
+        }
+        if (monitorShardMapper.lockLease(run.groupId, run.shardItem, owner) == 0) {
+            run.lost = true;
+            log.warn("monitor shard lease lost before commit. groupId:{} shardItem:{}",
+                run.groupId, run.shardItem);
+        }
+        return !run.lost;
+    }
+
+    /**
+     * record progress and renew lease after each page, stop if lease lost.
+     */
+    private boolean onPage(ShardRun run, List<TbTransHash> page) {
+        if (run.lost) {
+            return false;
+        }
+        BigInteger lastBlock = page.stream().map(TbTransHash::getBlockNumber)
+            .filter(Objects::nonNull).max(BigInteger::compareTo).orElse(BigInteger.ZERO);
+        int affected = monitorShardMapper.updateProgress(run.groupId, run.shardItem, owner,
+            cProperties.getMonitorShardLeaseTime(), page.size(), lastBlock);
+        if (affected == 0) {
+            run.lost = true;
+            log.warn("monitor shard lease lost. groupId:{} shardItem:{}", run.groupId,
+                run.shardItem);
+        }
+        return !run.lost;
+    }
+
+    /**
+     * renew leases of running shards, a page may take longer than the lease.
+     */
+    private void heartbeat() {
+        for (ShardRun run : runningMap.values()) {
+            if (!run.leased || run.lost) {
+                continue;
+            }
+            try {
+                if (monitorShardMapper.renew(run.groupId, run.shardItem, owner,
+                    cProperties.getMonitorShardLeaseTime()) == 0) {
+                    run.lost = true;
+                    log.warn("monitor shard lease lost on heartbeat. groupId:{} shardItem:{}",
+                        run.groupId, run.shardItem);
+                }
+            } catch (Exception ex) {
+                log.error("fail renew monitor shard lease. groupId:{} shardItem:{}", run.groupId,
+                    run.shardItem, ex);
+            }
+        }
+    }
+
+    private void release(ShardRun run) {
+        try {
+            monitorShardMapper.release(run.groupId, run.shardItem, owner);
+        } catch (Exception ex) {
+            log.warn("fail release monitor shard lease. groupId:{} shardItem:{}", run.groupId,
+                run.shardItem, ex);
+        }
+        run.leased = false;
+    }
+
+    /**
+     * one round of a shard in this instance.
+     */
+    private static class ShardRun {
+        private final int groupId;
+        private final int shardItem;
+        private final int shardCount;
+        private volatile boolean leased;
+        private volatile boolean lost;
+
+        private ShardRun(int groupId, int shardItem, int shardCount) {
+            this.groupId = groupId;
+            this.shardItem = shardItem;
+            this.shardCount = shardCount;
+        }
+    }
+}
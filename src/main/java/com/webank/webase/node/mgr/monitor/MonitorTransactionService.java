@@ -13,10 +13,12 @@
  */
 package com.webank.webase.node.mgr.monitor;
 
-import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.base.enums.TableName;
 import com.webank.webase.node.mgr.monitor.entity.TbMonitor;
 import com.webank.webase.node.mgr.transaction.TransHashService;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BooleanSupplier;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -31,43 +33,65 @@ public class MonitorTransactionService {
     private TransHashService transHashService;
 
     /**
-     * insert and update.
+     * rename rows of unusual user, row of the same name, key and day gets their count.
      */
     @Transactional
-    public void dataAddAndUpdate(int groupId, TbMonitor tbMonitor) {
-        TbMonitor dbInfo = this.queryTbMonitor(groupId, tbMonitor);
-        if (dbInfo == null) {
-            log.info("====== data is not exist, add tbMonitor:{}", JsonTools.toJSONString(tbMonitor));
-            this.addRow(groupId, tbMonitor);
-        } else {
-            String[] txHashsArr = dbInfo.getTransHashs().split(",");
-            if (txHashsArr.length < 5) {
-                StringBuilder sb = new StringBuilder(dbInfo.getTransHashs()).append(",")
-                    .append(tbMonitor.getTransHashLastest());
-                tbMonitor.setTransHashs(sb.toString());
-            } else {
-                tbMonitor.setTransHashs(dbInfo.getTransHashs());
-            }
-            this.updateRow(groupId, tbMonitor);
-        }
-        log.debug("====== updateTransStatFlag transHash:{}", tbMonitor.getTransHashLastest());
-        transHashService.updateTransStatFlag(groupId, tbMonitor.getTransHashLastest());
+    public void renameUnusualUser(int groupId, String userName, String address) {
+        String tableName = TableName.MONITOR.getTableName(groupId);
+        int merged = monitorMapper.mergeUnusualUser(tableName, userName, address);
+        int deleted = monitorMapper.deleteUnusualUser(tableName, address);
+        log.debug("renameUnusualUser groupId:{} address:{} merged:{} deleted:{}", groupId,
+            address, merged, deleted);
     }
 
-
     /**
-     * query monitor info.
+     * rename rows of unusual contract, row of the same name, key and day gets their count.
      */
-    public TbMonitor queryTbMonitor(int groupId, TbMonitor tbMonitor) {
-        return monitorMapper.queryTbMonitor(TableName.MONITOR.getTableName(groupId), tbMonitor);
+    @Transactional
+    public void renameUnusualContract(int groupId, String contractName, String contractBin,
+        String interfaceName, int transUnusualType) {
+        String tableName = TableName.MONITOR.getTableName(groupId);
+        int merged = monitorMapper.mergeUnusualContract(tableName, contractName, contractBin,
+            interfaceName, transUnusualType);
+        int deleted = monitorMapper.deleteUnusualContract(tableName, contractBin);
+        log.debug("renameUnusualContract groupId:{} contractName:{} merged:{} deleted:{}",
+            groupId, contractName, merged, deleted);
     }
 
-    public void addRow(int groupId, TbMonitor tbMonitor) {
-        monitorMapper.add(TableName.MONITOR.getTableName(groupId), tbMonitor);
+    /**
+     * add count of one trans, then update stat flag of trans.
+     * @param fence checked first in the transaction, nothing written if it returns false
+     */
+    @Transactional
+    public boolean dataAddAndUpdate(int groupId, TbMonitor tbMonitor, BooleanSupplier fence) {
+        if (!fence.getAsBoolean()) {
+            return false;
+        }
+        monitorMapper.upsertCount(TableName.MONITOR.getTableName(groupId), tbMonitor);
+        log.debug("====== updateTransStatFlag transHash:{}", tbMonitor.getTransHashLastest());
+        transHashService.updateTransStatFlag(groupId, tbMonitor.getTransHashLastest());
+        return true;
     }
 
-    public void updateRow(int groupId, TbMonitor tbMonitor) {
-        monitorMapper.update(TableName.MONITOR.getTableName(groupId), tbMonitor);
-    }
 
+    /**
+     * add count of aggregated rows by one upsert per row, then update stat flag of trans.
+     * @param monitorList rows with transCount and at most 5 transHashs
+     * @param fence checked first in the transaction, nothing written if it returns false
+     */
+    @Transactional
+    public boolean batchAddAndUpdate(int groupId, Collection<TbMonitor> monitorList,
+        List<String> transHashList, BooleanSupplier fence) {
+        if (!fence.getAsBoolean()) {
+            return false;
+        }
+        String tableName = TableName.MONITOR.getTableName(groupId);
+        for (TbMonitor tbMonitor : monitorList) {
+            monitorMapper.upsertCount(tableName, tbMonitor);
+        }
+        log.debug("batchAddAndUpdate groupId:{} monitorSize:{} transSize:{}", groupId,
+            monitorList.size(), transHashList.size());
+        transHashService.batchUpdateTransStatFlag(groupId, transHashList);
+        return true;
+    }
 }
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.monitor.entity;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import lombok.Data;
+
+/**
+ * lease and progress of one audit shard, row of tb_monitor_shard.
+ */
+@Data
+public class MonitorShardInfo {
+
+    private Integer groupId;
+    private Integer shardItem;
+    private Integer shardCount;
+    /**
+     * instance holding the lease
+     */
+    private String owner;
+    private LocalDateTime leaseExpire;
+    private LocalDateTime heartbeatTime;
+    /**
+     * trans audited by this shard since created
+     */
+    private Long auditedCount;
+    /**
+     * max block number audited
+     */
+    private BigInteger lastBlock;
+    /**
+     * lease not expired
+     */
+    private Boolean alive;
+    /**
+     * trans of shard not audited yet
+     */
+    private Long unStatCount;
+    /**
+     * blocks from oldest trans not audited to latest block of trans table, 0 if none
+     */
+    private BigInteger lag;
+    private LocalDateTime modifyTime;
+}
@@ -70,6 +70,12 @@ public interface NodeMapper {
      */
     Integer update(TbNode dbNode);
 
+    /**
+     * update block number, pbftView and status of nodes in group by one statement.
+     */
+    Integer batchUpdateStatus(@Param("groupId") Integer groupId,
+        @Param("list") List<TbNode> nodeList);
+
     /**
      * update node info of node ip, node agency, node city
      */
@@ -26,6 +26,7 @@ import com.webank.webase.node.mgr.deploy.chain.ChainService;
 import com.webank.webase.node.mgr.deploy.service.AnsibleService;
 import com.webank.webase.node.mgr.deploy.service.PathService;
 import com.webank.webase.node.mgr.front.FrontService;
+import com.webank.webase.node.mgr.front.entity.FrontParam;
 import com.webank.webase.node.mgr.front.entity.TbFront;
 import com.webank.webase.node.mgr.front.frontinterface.FrontInterfaceService;
 import com.webank.webase.node.mgr.front.frontinterface.entity.PeerOfConsensusStatus;
@@ -37,6 +38,7 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import lombok.extern.log4j.Log4j2;
@@ -44,8 +46,6 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.fisco.bcos.sdk.client.protocol.response.ConsensusStatus.ConsensusInfo;
 import org.fisco.bcos.sdk.client.protocol.response.ConsensusStatus.ViewInfo;
-import org.fisco.bcos.sdk.client.protocol.response.SyncStatus.PeersInfo;
-import org.fisco.bcos.sdk.client.protocol.response.SyncStatus.SyncStatusInfo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -203,7 +203,8 @@ public class NodeService {
      * check node status, if pbftView or blockNumber not changing, invalid consensus
      * @case: observer(no pbftView), if observer's blockNumber not equal consensus blockNumber
      * @1.4.3: if request consensus status but return -1, node is down
-     *
+     * sync and consensus status are fetched once for all nodes of group,
+     * and only nodes whose status changed are updated.
      */
     public void checkAndUpdateNodeStatus(int groupId) {
         //get local node list
@@ -222,9 +223,6 @@ public class NodeService {
         int nodeCount = CollectionUtils.size(consensusList) + CollectionUtils.size(observerList);
 
         for (TbNode tbNode : nodeList) {
-            String nodeId = tbNode.getNodeId();
-            BigInteger localBlockNumber = tbNode.getBlockNumber();
-            BigInteger localPbftView = tbNode.getPbftView();
             LocalDateTime modifyTime = tbNode.getModifyTime();
             LocalDateTime createTime = tbNode.getCreateTime();
 
@@ -234,87 +232,70 @@ public class NodeService {
                 log.warn("checkNodeStatus jump over. for time internal subTime:{}", subTime);
                 return;
             }
+        }
+        if (nodeList.isEmpty()) {
+            return;
+        }
 
-
-            int nodeType = 0;   //0-consensus;1-observer
-            if (observerList != null) {
-                nodeType = observerList.stream()
-                        .filter(observer -> observer.equals(tbNode.getNodeId())).map(c -> 1).findFirst()
-                        .orElse(0);
+        NodeStatusSnapshot snapshot = NodeStatusSnapshot.of(frontInterface.getSyncStatus(groupId),
+            consensusList, observerList, () -> frontInterface.getLatestBlockNumber(groupId));
+        List<TbNode> changedList = new ArrayList<>();
+        for (TbNode tbNode : nodeList) {
+            BigInteger localBlockNumber = tbNode.getBlockNumber();
+            BigInteger localPbftView = tbNode.getPbftView();
+            if (!snapshot.evaluate(tbNode)) {
+                continue;
             }
-
-            BigInteger latestNumber = getBlockNumberOfNodeOnChain(groupId, nodeId);//blockNumber
-            BigInteger latestView = consensusList.stream()
-                .filter(cl -> nodeId.equals(cl.getNodeId())).map(PeerOfConsensusStatus::getView).findFirst()
-                .orElse(BigInteger.ZERO);//pbftView
-            
-            if (nodeType == 0) {    //0-consensus;1-observer
-                // if local block number and pbftView equals chain's, invalid
-                if (localBlockNumber.equals(latestNumber) && localPbftView.equals(latestView)) {
-                    log.warn("node[{}] is invalid. localNumber:{} chainNumber:{} localView:{} chainView:{}",
-                        nodeId, localBlockNumber, latestNumber, localPbftView, latestView);
-                    tbNode.setNodeActive(DataStatus.INVALID.getValue());
-                } else {
-                    tbNode.setBlockNumber(latestNumber);
-                    tbNode.setPbftView(latestView);
-                    tbNode.setNodeActive(DataStatus.NORMAL.getValue());
-                }
-            } else { //observer
-                // if latest block number not equal block number of consensus network
-                if (!latestNumber.equals(frontInterface.getLatestBlockNumber(groupId))) {
-                    // if node's block number is not changing, invalid
-                    if (localBlockNumber.equals(latestNumber)) {
-                        log.warn("node[{}] is invalid. localNumber:{} chainNumber:{} localView:{} chainView:{}",
-                            nodeId, localBlockNumber, latestNumber, localPbftView, latestView);
-                        tbNode.setNodeActive(DataStatus.INVALID.getValue());
-                    } else {
-                        // if latest block number not equal network's, but is changing, normal
-                        tbNode.setBlockNumber(latestNumber);
-                        tbNode.setPbftView(latestView);
-                        tbNode.setNodeActive(DataStatus.NORMAL.getValue());
-                    }
-                } else {
-                    tbNode.setBlockNumber(latestNumber);
-                    tbNode.setPbftView(latestView);
-                    tbNode.setNodeActive(DataStatus.NORMAL.getValue());
-                }
+            if (tbNode.getNodeActive() == DataStatus.INVALID.getValue()) {
+                log.warn("node[{}] is invalid. localNumber:{} chainNumber:{} localView:{} chainView:{}",
+                    tbNode.getNodeId(), localBlockNumber, snapshot.getBlockNumber(tbNode.getNodeId()),
+                    localPbftView, snapshot.getView(tbNode.getNodeId()));
             }
-            tbNode.setModifyTime(LocalDateTime.now());
-            //update node
-            updateNode(tbNode);
-            // only update front status if deploy manually
-            if (chainService.runTask()) {
-                TbFront updateFront = frontService.getByNodeId(nodeId);
-                if (updateFront != null) {
-                    // update front status as long as update node (7.5s internal)
-                    log.debug("update front with node update nodeStatus:{}", tbNode.getNodeActive());
-                    // update as 2, same as FrontStatuaEnum
-                    if (tbNode.getNodeActive() == DataStatus.NORMAL.getValue()) {
-                        updateFront.setStatus(FrontStatusEnum.RUNNING.getId());
-                    } else if (tbNode.getNodeActive() == DataStatus.INVALID.getValue()) {
-                        updateFront.setStatus(FrontStatusEnum.STOPPED.getId());
-                    }
-                    frontService.updateFront(updateFront);
-                }
+            changedList.add(tbNode);
+        }
+        if (!changedList.isEmpty()) {
+            try {
+                nodeMapper.batchUpdateStatus(groupId, changedList);
+            } catch (RuntimeException ex) {
+                log.error("checkNodeStatus batchUpdateStatus exception", ex);
+                throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
             }
+            log.debug("checkNodeStatus groupId:{} nodes:{} changed:{}", groupId, nodeList.size(),
+                changedList.size());
+        }
+        // only update front status if deploy manually
+        if (chainService.runTask()) {
+            updateFrontStatusOfNode(nodeList);
         }
-
     }
 
-
     /**
-     * get latest number of peer on chain.
+     * update front status as node status if not same, as 2, same as FrontStatuaEnum
      */
-    private BigInteger getBlockNumberOfNodeOnChain(int groupId, String nodeId) {
-        SyncStatusInfo syncStatus = frontInterface.getSyncStatus(groupId);
-        if (nodeId.equals(syncStatus.getNodeId())) {
-            return new BigInteger(syncStatus.getBlockNumber());
+    private void updateFrontStatusOfNode(List<TbNode> nodeList) {
+        Map<String, TbFront> frontMap = frontService.getFrontList(new FrontParam()).stream()
+            .filter(front -> front.getNodeId() != null)
+            .collect(Collectors.toMap(TbFront::getNodeId, front -> front, (f1, f2) -> f1));
+        for (TbNode tbNode : nodeList) {
+            TbFront updateFront = frontMap.get(tbNode.getNodeId());
+            if (updateFront == null) {
+                continue;
+            }
+            Integer frontStatus;
+            if (tbNode.getNodeActive() == DataStatus.NORMAL.getValue()) {
+                frontStatus = FrontStatusEnum.RUNNING.getId();
+            } else if (tbNode.getNodeActive() == DataStatus.INVALID.getValue()) {
+                frontStatus = FrontStatusEnum.STOPPED.getId();
+            } else {
+                continue;
+            }
+            if (frontStatus.equals(updateFront.getStatus())) {
+                continue;
+            }
+            log.debug("update front with node update nodeStatus:{}", tbNode.getNodeActive());
+            updateFront.setStatus(frontStatus);
+            frontService.updateFront(updateFront);
         }
-        List<PeersInfo> peerList = syncStatus.getPeers();
-        // blockNumber
-        BigInteger latestNumber = peerList.stream().filter(peer -> nodeId.equals(peer.getNodeId()))
-            .map(p -> new BigInteger(p.getBlockNumber())).findFirst().orElse(BigInteger.ZERO);
-        return latestNumber;
     }
 
 
@@ -0,0 +1,118 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.node;
+
+import com.google.common.base.Suppliers;
+import com.webank.webase.node.mgr.base.enums.DataStatus;
+import com.webank.webase.node.mgr.front.frontinterface.entity.PeerOfConsensusStatus;
+import com.webank.webase.node.mgr.node.entity.TbNode;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.fisco.bcos.sdk.client.protocol.response.SyncStatus.PeersInfo;
+import org.fisco.bcos.sdk.client.protocol.response.SyncStatus.SyncStatusInfo;
+
+/**
+ * sync and consensus status of group fetched once, indexed by node id,
+ * to evaluate status of all nodes of group.
+ */
+public class NodeStatusSnapshot {
+
+    private final Map<String, BigInteger> blockNumberMap;
+    private final Map<String, BigInteger> viewMap;
+    private final Set<String> observerSet;
+    private final Supplier<BigInteger> chainBlockNumber;
+
+    /**
+     * @param chainBlockNumber latest block number of group, only got if any observer evaluated
+     */
+    public NodeStatusSnapshot(Map<String, BigInteger> blockNumberMap,
+        Map<String, BigInteger> viewMap, Set<String> observerSet,
+        Supplier<BigInteger> chainBlockNumber) {
+        this.blockNumberMap = blockNumberMap;
+        this.viewMap = viewMap;
+        this.observerSet = observerSet;
+        this.chainBlockNumber = Suppliers.memoize(chainBlockNumber::get);
+    }
+
+    public static NodeStatusSnapshot of(SyncStatusInfo syncStatus,
+        Collection<PeerOfConsensusStatus> consensusList, Collection<String> observerList,
+        Supplier<BigInteger> chainBlockNumber) {
+        Map<String, BigInteger> blockNumberMap = new HashMap<>();
+        if (syncStatus != null) {
+            if (syncStatus.getPeers() != null) {
+                for (PeersInfo peer : syncStatus.getPeers()) {
+                    blockNumberMap.put(peer.getNodeId(), new BigInteger(peer.getBlockNumber()));
+                }
+            }
+            // block number of the front's own node first
+            blockNumberMap.put(syncStatus.getNodeId(), new BigInteger(syncStatus.getBlockNumber()));
+        }
+        Map<String, BigInteger> viewMap = new HashMap<>();
+        for (PeerOfConsensusStatus consensus : consensusList) {
+            viewMap.putIfAbsent(consensus.getNodeId(), consensus.getView());
+        }
+        Set<String> observerSet = observerList == null ? new HashSet<>()
+            : new HashSet<>(observerList);
+        return new NodeStatusSnapshot(blockNumberMap, viewMap, observerSet, chainBlockNumber);
+    }
+
+    /**
+     * evaluate status of node against its status saved last time.
+     * consensus node is invalid if neither block number nor pbftView changed;
+     * observer is invalid if block number not changed and behind the chain.
+     * @return true if block number, pbftView or active status of node changed
+     */
+    public boolean evaluate(TbNode tbNode) {
+        String nodeId = tbNode.getNodeId();
+        BigInteger localBlockNumber = tbNode.getBlockNumber();
+        BigInteger localPbftView = tbNode.getPbftView();
+        int localActive = tbNode.getNodeActive();
+        BigInteger latestNumber = blockNumberMap.getOrDefault(nodeId, BigInteger.ZERO);
+        BigInteger latestView = viewMap.getOrDefault(nodeId, BigInteger.ZERO);
+
+        boolean invalid;
+        if (!observerSet.contains(nodeId)) {
+            invalid = latestNumber.equals(localBlockNumber) && latestView.equals(localPbftView);
+        } else {
+            invalid = latestNumber.equals(localBlockNumber)
+                && !latestNumber.equals(chainBlockNumber.get());
+        }
+        if (invalid) {
+            tbNode.setNodeActive(DataStatus.INVALID.getValue());
+        } else {
+            tbNode.setBlockNumber(latestNumber);
+            tbNode.setPbftView(latestView);
+            tbNode.setNodeActive(DataStatus.NORMAL.getValue());
+        }
+        return localActive != tbNode.getNodeActive()
+            || !Objects.equals(localBlockNumber, tbNode.getBlockNumber())
+            || !Objects.equals(localPbftView, tbNode.getPbftView());
+    }
+
+    public BigInteger getBlockNumber(String nodeId) {
+        return blockNumberMap.getOrDefault(nodeId, BigInteger.ZERO);
+    }
+
+    public BigInteger getView(String nodeId) {
+        return viewMap.getOrDefault(nodeId, BigInteger.ZERO);
+    }
+}
@@ -27,6 +27,7 @@ import com.webank.webase.node.mgr.front.FrontMapper;
 import com.webank.webase.node.mgr.front.entity.TbFront;
 import com.webank.webase.node.mgr.frontgroupmap.FrontGroupMapService;
 import com.webank.webase.node.mgr.front.frontinterface.FrontInterfaceService;
+import com.webank.webase.node.mgr.front.frontinterface.FrontReadCache;
 import com.webank.webase.node.mgr.front.frontinterface.FrontRestTools;
 import com.webank.webase.node.mgr.group.GroupService;
 import com.webank.webase.node.mgr.precompiled.entity.AddressStatusHandle;
@@ -57,6 +58,8 @@ public class PrecompiledService {
     @Autowired
     private FrontInterfaceService frontInterfaceService;
     @Autowired
+    private FrontReadCache frontReadCache;
+    @Autowired
     private UserService userService;
     @Autowired
     private GroupService groupService;
@@ -141,6 +144,8 @@ public class PrecompiledService {
         log.info("nodeManageService now request random available front");
         frontRsp = frontRestTools.postForEntity(groupId, FrontRestTools.URI_CONSENSUS,
             consensusHandle, Object.class);
+        // sealer and observer list changed
+        frontReadCache.invalidateGroup(groupId);
         // update front group map if remove node from sealer/observer
         if (StringUtils.equalsIgnoreCase("remove", consensusHandle.getNodeType()) && front != null) {
             log.info("remove node/front:[{}] from group:[{}], change front group map status to [{}]",
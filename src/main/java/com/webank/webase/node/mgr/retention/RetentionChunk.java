@@ -0,0 +1,62 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.retention;
+
+/**
+ * size of next chunk and pause after chunk.
+ */
+public class RetentionChunk {
+
+    private RetentionChunk() {
+    }
+
+    /**
+     * block heights of first chunk by estimated rows per block,
+     * start from 1 block and grow if not known.
+     */
+    public static long firstBlocks(Double rowsPerBlock, long chunkRows) {
+        if (rowsPerBlock == null) {
+            return 1;
+        }
+        if (rowsPerBlock <= 0) {
+            return Math.max(1, chunkRows);
+        }
+        return Math.max(1, Math.min((long) (chunkRows / rowsPerBlock), chunkRows));
+    }
+
+    /**
+     * block heights of next chunk, so that it deletes about chunkRows rows.
+     * grows at most twice per chunk, and never larger than chunkRows.
+     */
+    public static long nextBlocks(long chunkBlocks, long deletedRows, long chunkRows) {
+        long next;
+        if (deletedRows <= 0) {
+            next = chunkBlocks * 2;
+        } else {
+            next = Math.min(chunkBlocks * chunkRows / deletedRows, chunkBlocks * 2);
+        }
+        return Math.max(1, Math.min(next, chunkRows));
+    }
+
+    /**
+     * pause after chunk, so that deletes take dutyPercent of run time at most.
+     * slow chunk under lock contention with inserts gets longer pause.
+     */
+    public static long pauseTime(long chunkTime, int dutyPercent) {
+        int duty = Math.max(1, Math.min(dutyPercent, 100));
+        return chunkTime * (100 - duty) / duty;
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.retention;
+
+import com.webank.webase.node.mgr.retention.entity.TbRetentionCheckpoint;
+import java.math.BigInteger;
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RetentionMapper {
+
+    /**
+     * delete rows of tb_block_ in [fromBlock, toBlock)
+     */
+    int deleteBlockRange(@Param("tableName") String tableName, @Param("fromBlock") long fromBlock,
+        @Param("toBlock") long toBlock);
+
+    /**
+     * delete counted rows of tb_trans_hash_ in [fromBlock, toBlock)
+     */
+    int deleteTransRange(@Param("tableName") String tableName, @Param("fromBlock") long fromBlock,
+        @Param("toBlock") long toBlock);
+
+    /**
+     * delete rows of group in tb_stat in [fromBlock, toBlock)
+     */
+    int deleteStatRange(@Param("groupId") int groupId, @Param("fromBlock") long fromBlock,
+        @Param("toBlock") long toBlock);
+
+    BigInteger getMinBlock(@Param("tableName") String tableName);
+
+    /**
+     * average trans_count of tb_block_ in [fromBlock, toBlock), null if no block
+     */
+    Double getAvgTransCount(@Param("tableName") String tableName,
+        @Param("fromBlock") long fromBlock, @Param("toBlock") long toBlock);
+
+    /**
+     * sum of trans_count of tb_block_ in [fromBlock, toBlock), null if no block
+     */
+    Long sumTransCount(@Param("tableName") String tableName, @Param("fromBlock") long fromBlock,
+        @Param("toBlock") long toBlock);
+
+    BigInteger getMinStatBlock(@Param("groupId") int groupId);
+
+    BigInteger getMaxStatBlock(@Param("groupId") int groupId);
+
+    TbRetentionCheckpoint getCheckpoint(@Param("groupId") int groupId,
+        @Param("tableName") String tableName);
+
+    List<TbRetentionCheckpoint> listCheckpoint(@Param("groupId") int groupId);
+
+    int saveCheckpoint(TbRetentionCheckpoint checkpoint);
+
+    int deleteByGroupId(@Param("groupId") int groupId);
+}
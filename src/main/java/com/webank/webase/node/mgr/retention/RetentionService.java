@@ -0,0 +1,240 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.retention;
+
+import com.webank.webase.node.mgr.base.enums.TableName;
+import com.webank.webase.node.mgr.block.BlockMapper;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.retention.entity.TbRetentionCheckpoint;
+import com.webank.webase.node.mgr.table.PartitionRange;
+import com.webank.webase.node.mgr.table.PartitionService;
+import com.webank.webase.node.mgr.transaction.TransHashMapper;
+import com.webank.webase.node.mgr.transdaily.TbTransDailyMapper;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * remove rows out of retention of group.
+ * partitioned table drops expired partitions, others delete rows by block number in chunks:
+ * each chunk is committed alone and followed by a pause, run stops at retentionRunTime
+ * and resumes from checkpoint in tb_retention_checkpoint next time.
+ */
+@Log4j2
+@Service
+public class RetentionService {
+
+    @Autowired
+    private RetentionMapper retentionMapper;
+    @Autowired
+    private PartitionService partitionService;
+    @Autowired
+    private BlockMapper blockMapper;
+    @Autowired
+    private TransHashMapper transHashMapper;
+    @Autowired
+    private TbTransDailyMapper tbTransDailyMapper;
+    @Autowired
+    private ConstantProperties cProperties;
+
+    /**
+     * remove blocks below latest blockRetainMax.
+     */
+    public void retainBlock(int groupId) {
+        String tableName = TableName.BLOCK.getTableName(groupId);
+        BigInteger latestBlock = blockMapper.getLatestBlockNumber(tableName);
+        if (latestBlock == null) {
+            return;
+        }
+        long threshold = latestBlock.longValue() - cProperties.getBlockRetainMax().longValue() + 1;
+        if (partitionService.isPartitioned(tableName)) {
+            partitionService.dropPartitions(tableName, threshold);
+            return;
+        }
+        deleteByChunk(groupId, RetentionTable.BLOCK, threshold);
+    }
+
+    /**
+     * remove trans below latest transRetainMax, only if counted by trans daily.
+     */
+    public void retainTrans(int groupId) {
+        String tableName = TableName.TRANS.getTableName(groupId);
+        BigInteger retainFrom = transHashMapper.getRetainFromBlock(tableName,
+            cProperties.getTransRetainMax().intValue());
+        BigInteger statBlock = tbTransDailyMapper.queryMaxBlockByGroup(groupId);
+        if (retainFrom == null || statBlock == null) {
+            return;
+        }
+        long threshold = Math.min(retainFrom.longValue(), statBlock.longValue() + 1);
+        BigInteger unStatBlock = transHashMapper.getMinUnStatBlock(tableName);
+        if (unStatBlock != null) {
+            threshold = Math.min(threshold, unStatBlock.longValue());
+        }
+        if (partitionService.isPartitioned(tableName)) {
+            partitionService.dropPartitions(tableName, threshold);
+            return;
+        }
+        deleteByChunk(groupId, RetentionTable.TRANS, threshold);
+    }
+
+    /**
+     * remove monitor rows before monitorRetainDays, monitor table is always partitioned.
+     */
+    public void retainMonitor(int groupId) {
+        long threshold = PartitionRange.toDays(
+            LocalDate.now().minusDays(cProperties.getMonitorRetainDays()));
+        partitionService.dropPartitions(TableName.MONITOR.getTableName(groupId), threshold);
+    }
+
+    /**
+     * remove block stat below latest statBlockRetainMax.
+     */
+    public void retainStat(int groupId) {
+        BigInteger latestBlock = retentionMapper.getMaxStatBlock(groupId);
+        if (latestBlock == null) {
+            return;
+        }
+        long threshold = latestBlock.longValue()
+            - cProperties.getStatBlockRetainMax().longValue() + 1;
+        deleteByChunk(groupId, RetentionTable.STAT, threshold);
+    }
+
+    /**
+     * progress of chunked delete of group, with remaining block heights and estimated rows.
+     */
+    public List<TbRetentionCheckpoint> listCheckpoint(int groupId) {
+        List<TbRetentionCheckpoint> checkpointList = retentionMapper.listCheckpoint(groupId);
+        String transTableName = RetentionTable.TRANS.getTableName(groupId);
+        for (TbRetentionCheckpoint checkpoint : checkpointList) {
+            long remainingBlocks = Math.max(
+                checkpoint.getTargetBlock() - checkpoint.getNextBlock(), 0);
+            checkpoint.setRemainingBlocks(remainingBlocks);
+            if (remainingBlocks == 0) {
+                checkpoint.setEstimatedRemainingRows(0L);
+            } else if (transTableName.equals(checkpoint.getTableName())) {
+                checkpoint.setEstimatedRemainingRows(retentionMapper.sumTransCount(
+                    TableName.BLOCK.getTableName(groupId), checkpoint.getNextBlock(),
+                    checkpoint.getTargetBlock()));
+            } else {
+                checkpoint.setEstimatedRemainingRows(remainingBlocks);
+            }
+        }
+        return checkpointList;
+    }
+
+    public void deleteByGroupId(int groupId) {
+        int affected = retentionMapper.deleteByGroupId(groupId);
+        log.warn("deleteByGroupId:{} affected:{}", groupId, affected);
+    }
+
+    /**
+     * delete rows below threshold from checkpoint, until done or retentionRunTime used up.
+     */
+    private void deleteByChunk(int groupId, RetentionTable table, long threshold) {
+        String tableName = table.getTableName(groupId);
+        BigInteger minBlock = getMinBlock(groupId, table);
+        if (minBlock == null || minBlock.longValue() >= threshold) {
+            return;
+        }
+        TbRetentionCheckpoint checkpoint = retentionMapper.getCheckpoint(groupId, tableName);
+        long chunkRows = cProperties.getRetentionChunkRows();
+        if (checkpoint == null) {
+            checkpoint = new TbRetentionCheckpoint();
+            checkpoint.setGroupId(groupId);
+            checkpoint.setTableName(tableName);
+            checkpoint.setChunkBlocks(RetentionChunk.firstBlocks(estimateRowsPerBlock(groupId,
+                table, minBlock.longValue(), Math.min(minBlock.longValue() + chunkRows, threshold)),
+                chunkRows));
+        }
+        // continue unfinished round, or start a new one from the oldest row
+        if (checkpoint.getNextBlock() != null
+            && checkpoint.getNextBlock() < checkpoint.getTargetBlock()) {
+            checkpoint.setNextBlock(Math.max(checkpoint.getNextBlock(), minBlock.longValue()));
+        } else {
+            checkpoint.setNextBlock(minBlock.longValue());
+            checkpoint.setDeletedRows(0L);
+        }
+        checkpoint.setTargetBlock(threshold);
+
+        long startTime = System.currentTimeMillis();
+        long deadline = startTime + cProperties.getRetentionRunTime();
+        long runRows = 0;
+        while (checkpoint.getNextBlock() < threshold && System.currentTimeMillis() < deadline) {
+            long fromBlock = checkpoint.getNextBlock();
+            long toBlock = Math.min(fromBlock + checkpoint.getChunkBlocks(), threshold);
+            long chunkStart = System.currentTimeMillis();
+            int rows = deleteRange(groupId, table, fromBlock, toBlock);
+            long chunkTime = System.currentTimeMillis() - chunkStart;
+
+            runRows += rows;
+            checkpoint.setNextBlock(toBlock);
+            checkpoint.setDeletedRows(checkpoint.getDeletedRows() + rows);
+            checkpoint.setChunkBlocks(
+                RetentionChunk.nextBlocks(checkpoint.getChunkBlocks(), rows, chunkRows));
+            checkpoint.setRowsPerSecond(
+                runRows * 1000.0 / Math.max(System.currentTimeMillis() - startTime, 1));
+            retentionMapper.saveCheckpoint(checkpoint);
+            log.debug("delete chunk. table:{} fromBlock:{} toBlock:{} rows:{} useTime:{}",
+                tableName, fromBlock, toBlock, rows, chunkTime);
+            try {
+                TimeUnit.MILLISECONDS.sleep(
+                    RetentionChunk.pauseTime(chunkTime, cProperties.getRetentionDutyPercent()));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.info("end deleteByChunk. table:{} nextBlock:{} targetBlock:{} runRows:{} rowsPerSecond:{}",
+            tableName, checkpoint.getNextBlock(), threshold, runRows,
+            checkpoint.getRowsPerSecond());
+    }
+
+    private int deleteRange(int groupId, RetentionTable table, long fromBlock, long toBlock) {
+        switch (table) {
+            case BLOCK:
+                return retentionMapper.deleteBlockRange(table.getTableName(groupId), fromBlock,
+                    toBlock);
+            case TRANS:
+                return retentionMapper.deleteTransRange(table.getTableName(groupId), fromBlock,
+                    toBlock);
+            default:
+                return retentionMapper.deleteStatRange(groupId, fromBlock, toBlock);
+        }
+    }
+
+    /**
+     * rows of table per block, trans is estimated by trans_count of blocks saved.
+     */
+    private Double estimateRowsPerBlock(int groupId, RetentionTable table, long fromBlock,
+        long toBlock) {
+        if (table != RetentionTable.TRANS) {
+            return 1.0;
+        }
+        return retentionMapper.getAvgTransCount(TableName.BLOCK.getTableName(groupId), fromBlock,
+            toBlock);
+    }
+
+    private BigInteger getMinBlock(int groupId, RetentionTable table) {
+        if (table == RetentionTable.STAT) {
+            return retentionMapper.getMinStatBlock(groupId);
+        }
+        return retentionMapper.getMinBlock(table.getTableName(groupId));
+    }
+}
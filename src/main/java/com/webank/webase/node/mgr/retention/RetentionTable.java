@@ -0,0 +1,36 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.retention;
+
+import com.webank.webase.node.mgr.base.enums.TableName;
+
+/**
+ * table whose old rows are deleted by block number in chunks.
+ */
+public enum RetentionTable {
+    BLOCK, TRANS, STAT;
+
+    public String getTableName(int groupId) {
+        switch (this) {
+            case BLOCK:
+                return TableName.BLOCK.getTableName(groupId);
+            case TRANS:
+                return TableName.TRANS.getTableName(groupId);
+            default:
+                return "tb_stat";
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.retention.entity;
+
+import java.time.LocalDateTime;
+import lombok.Data;
+
+/**
+ * Entity for table tb_retention_checkpoint in db
+ */
+@Data
+public class TbRetentionCheckpoint {
+
+    private Integer groupId;
+    private String tableName;
+    /**
+     * rows below it are deleted, next chunk starts from it
+     */
+    private Long nextBlock;
+    /**
+     * rows below it are deleted in current round
+     */
+    private Long targetBlock;
+    /**
+     * block heights of one chunk, adapted to rows deleted
+     */
+    private Long chunkBlocks;
+    private Long deletedRows;
+    /**
+     * rows deleted per second of last run, pause included
+     */
+    private Double rowsPerSecond;
+    private LocalDateTime modifyTime;
+    /**
+     * block heights (not rows) left in current round, not a column
+     */
+    private Long remainingBlocks;
+    /**
+     * rows left in current round estimated by trans_count of tb_block_,
+     * one row per block for tb_block_ and tb_stat, null if not known, not a column
+     */
+    private Long estimatedRemainingRows;
+}
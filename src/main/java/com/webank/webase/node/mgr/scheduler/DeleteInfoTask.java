@@ -14,8 +14,8 @@
 package com.webank.webase.node.mgr.scheduler;
 
 
-import com.webank.webase.node.mgr.config.properties.ConstantProperties;
-import com.webank.webase.node.mgr.statistic.StatService;
+import com.webank.webase.node.mgr.retention.RetentionService;
+import com.webank.webase.node.mgr.statistic.StatRollupService;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
@@ -26,17 +26,16 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import com.webank.webase.node.mgr.base.enums.DataStatus;
-import com.webank.webase.node.mgr.block.BlockService;
 import com.webank.webase.node.mgr.group.GroupService;
 import com.webank.webase.node.mgr.group.entity.TbGroup;
-import com.webank.webase.node.mgr.monitor.MonitorService;
-import com.webank.webase.node.mgr.transaction.TransHashService;
 
 import lombok.extern.log4j.Log4j2;
 
 /**
  * delete block/trans/monitorTrans data task
  * related: yml-constant-transRetainMax
+ * partitioned table drops expired partitions, table created by old version deletes rows
+ * in chunks, see RetentionService
  */
 @Log4j2
 @Component
@@ -46,15 +45,9 @@ public class DeleteInfoTask {
     @Autowired
     private GroupService groupService;
     @Autowired
-    private BlockService blockService;
+    private RetentionService retentionService;
     @Autowired
-    private TransHashService transHashService;
-    @Autowired
-    private ConstantProperties cProperties;
-    @Autowired
-    private MonitorService monitorService;
-    @Autowired
-    private StatService statService;
+    private StatRollupService statRollupService;
 
 
     @Scheduled(cron = "${constant.deleteInfoCron}")
@@ -93,6 +86,8 @@ public class DeleteInfoTask {
         deleteTransMonitor(groupId);
         // delete block stat data
         deleteBlockStat(groupId);
+        // delete minute and hour rollup of block stat
+        deleteStatRollup(groupId);
     }
 
 
@@ -102,8 +97,8 @@ public class DeleteInfoTask {
     private void deleteBlock(int groupId) {
         log.debug("start deleteBlock. groupId:{}", groupId);
         try {
-            Integer removeCount = blockService.remove(groupId, cProperties.getBlockRetainMax());
-            log.debug("end deleteBlock. groupId:{} removeCount:{}", groupId, removeCount);
+            retentionService.retainBlock(groupId);
+            log.debug("end deleteBlock. groupId:{}", groupId);
         } catch (Exception ex) {
             log.error("fail deleteBlock. groupId:{}", groupId, ex);
         }
@@ -115,15 +110,8 @@ public class DeleteInfoTask {
     private void deleteTransHash(int groupId) {
         log.debug("start deleteTransHash. groupId:{}", groupId);
         try {
-//            TransListParam queryParam = new TransListParam(null, null);
-//            Integer count = transHashService.queryCountOfTran(groupId, queryParam);
-            Integer count = transHashService.queryCountOfTranByMinus(groupId);
-            Integer removeCount = 0;
-            if (count > cProperties.getTransRetainMax().intValue()) {
-                Integer subTransNum = count - cProperties.getTransRetainMax().intValue();
-                removeCount = transHashService.remove(groupId, subTransNum);
-            }
-            log.debug("end deleteTransHash. groupId:{} removeCount:{}", groupId, removeCount);
+            retentionService.retainTrans(groupId);
+            log.debug("end deleteTransHash. groupId:{}", groupId);
         } catch (Exception ex) {
             log.error("fail deleteTransHash. groupId:{}", groupId, ex);
         }
@@ -136,9 +124,8 @@ public class DeleteInfoTask {
     private void deleteTransMonitor(int groupId) {
         log.debug("start deleteTransMonitor. groupId:{}", groupId);
         try {
-            Integer removeCount = monitorService
-                .delete(groupId, cProperties.getMonitorInfoRetainMax());
-            log.debug("end deleteTransMonitor. groupId:{} removeCount:{}", groupId, removeCount);
+            retentionService.retainMonitor(groupId);
+            log.debug("end deleteTransMonitor. groupId:{}", groupId);
         } catch (Exception ex) {
             log.error("fail deleteTransMonitor. groupId:{}", groupId, ex);
         }
@@ -151,11 +138,24 @@ public class DeleteInfoTask {
     private void deleteBlockStat(int groupId) {
         log.debug("start deleteBlockStat. groupId:{}", groupId);
         try {
-            Integer removeCount = statService.remove(groupId, cProperties.getStatBlockRetainMax());
-            log.debug("end deleteBlockStat. groupId:{} removeCount:{}", groupId, removeCount);
+            retentionService.retainStat(groupId);
+            log.debug("end deleteBlockStat. groupId:{}", groupId);
         } catch (Exception ex) {
             log.error("fail deleteBlockStat. groupId:{}", groupId, ex);
         }
     }
 
+    /**
+     * remove minute and hour rollup of block stat
+     */
+    private void deleteStatRollup(int groupId) {
+        log.debug("start deleteStatRollup. groupId:{}", groupId);
+        try {
+            statRollupService.retainRollup(groupId);
+            log.debug("end deleteStatRollup. groupId:{}", groupId);
+        } catch (Exception ex) {
+            log.error("fail deleteStatRollup. groupId:{}", groupId, ex);
+        }
+    }
+
 }
@@ -0,0 +1,153 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.scheduler;
+
+import com.webank.webase.node.mgr.base.enums.GroupTaskType;
+import com.webank.webase.node.mgr.config.properties.ExecutorProperties;
+import com.webank.webase.node.mgr.scheduler.entity.GroupTaskInfo;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * run scheduled task of each group without waiting for other groups.
+ * each task type has its own pool, and each group runs at most
+ * groupTaskConcurrency tasks of one type at the same time, the round of
+ * a group still busy is skipped, so a lagging group holds limited threads
+ * and never delays the rounds of other groups.
+ */
+@Log4j2
+@Component
+public class GroupTaskExecutor implements InitializingBean, DisposableBean {
+
+    @Autowired
+    private ExecutorProperties executorProperties;
+
+    private final Map<GroupTaskType, ThreadPoolExecutor> poolMap =
+        new EnumMap<>(GroupTaskType.class);
+    private final Map<GroupTaskType, Map<Integer, TaskState>> stateMap =
+        new EnumMap<>(GroupTaskType.class);
+
+    @Override
+    public void afterPropertiesSet() {
+        int poolSize = executorProperties.getGroupTaskPoolSize();
+        for (GroupTaskType taskType : GroupTaskType.values()) {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize,
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("node-mgr-" + taskType.getValue() + "-"));
+            pool.allowCoreThreadTimeOut(true);
+            poolMap.put(taskType, pool);
+            stateMap.put(taskType, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        poolMap.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+    /**
+     * submit one round of group's task
+     * @return false if group's previous rounds not finished
+     */
+    public boolean submit(GroupTaskType taskType, int groupId, Runnable task) {
+        TaskState state = stateMap.get(taskType)
+            .computeIfAbsent(groupId, id -> new TaskState());
+        if (state.inFlight.incrementAndGet() > executorProperties.getGroupTaskConcurrency()) {
+            state.inFlight.decrementAndGet();
+            state.skippedCount.incrementAndGet();
+            log.debug("group task jump over, previous not finished. taskType:{} groupId:{}",
+                taskType, groupId);
+            return false;
+        }
+        state.submittedCount.incrementAndGet();
+        long submitTime = System.currentTimeMillis();
+        try {
+            poolMap.get(taskType).execute(() -> {
+                long startTime = System.currentTimeMillis();
+                state.lastWaitTime = startTime - submitTime;
+                state.maxWaitTime = Math.max(state.maxWaitTime, state.lastWaitTime);
+                try {
+                    task.run();
+                } catch (Exception ex) {
+                    log.error("fail run group task. taskType:{} groupId:{}", taskType, groupId,
+                        ex);
+                } finally {
+                    state.lastRunTime = System.currentTimeMillis() - startTime;
+                    state.completedCount.incrementAndGet();
+                    state.inFlight.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            state.inFlight.decrementAndGet();
+            log.warn("group task rejected. taskType:{} groupId:{}", taskType, groupId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * stat of all task types and groups
+     */
+    public List<GroupTaskInfo> getTaskInfoList() {
+        List<GroupTaskInfo> infoList = new ArrayList<>();
+        stateMap.forEach((taskType, groupStates) -> {
+            int queueSize = poolMap.get(taskType).getQueue().size();
+            groupStates.forEach((groupId, state) -> {
+                GroupTaskInfo info = new GroupTaskInfo();
+                info.setTaskType(taskType.getValue());
+                info.setGroupId(groupId);
+                info.setInFlight(state.inFlight.get());
+                info.setSubmittedCount(state.submittedCount.get());
+                info.setSkippedCount(state.skippedCount.get());
+                info.setCompletedCount(state.completedCount.get());
+                info.setLastWaitTime(state.lastWaitTime);
+                info.setMaxWaitTime(state.maxWaitTime);
+                info.setLastRunTime(state.lastRunTime);
+                info.setQueueSize(queueSize);
+                infoList.add(info);
+            });
+        });
+        return infoList;
+    }
+
+    /**
+     * running state of one task type of one group
+     */
+    private static class TaskState {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong submittedCount = new AtomicLong();
+        private final AtomicLong skippedCount = new AtomicLong();
+        private final AtomicLong completedCount = new AtomicLong();
+        private volatile long lastWaitTime;
+        private volatile long maxWaitTime;
+        private volatile long lastRunTime;
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.scheduler;
+
+import com.webank.webase.node.mgr.base.enums.DataStatus;
+import com.webank.webase.node.mgr.group.GroupService;
+import com.webank.webase.node.mgr.group.entity.TbGroup;
+import com.webank.webase.node.mgr.table.PartitionService;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * create partitions of group tables ahead, first run is on startup by TableUpgradeRunner.
+ * related: yml-constant-blockPartitionSize, monitorPartitionDays, partitionAheadCount
+ */
+@Log4j2
+@Component
+public class PartitionTask {
+
+    @Autowired
+    private GroupService groupService;
+    @Autowired
+    private PartitionService partitionService;
+
+    @Scheduled(fixedDelayString = "${constant.partitionTaskFixedDelay}",
+        initialDelayString = "${constant.partitionTaskFixedDelay}")
+    public void taskStart() {
+        extendPartitions();
+    }
+
+    /**
+     * extend partitions of all normal groups.
+     */
+    public void extendPartitions() {
+        List<TbGroup> groupList = groupService.getGroupList(DataStatus.NORMAL.getValue());
+        if (groupList == null || groupList.isEmpty()) {
+            log.debug("PartitionTask jump over, not found any group");
+            return;
+        }
+        for (TbGroup group : groupList) {
+            try {
+                partitionService.extendPartitions(group.getGroupId());
+            } catch (Exception ex) {
+                log.error("fail extendPartitions. groupId:{}", group.getGroupId(), ex);
+            }
+        }
+    }
+}
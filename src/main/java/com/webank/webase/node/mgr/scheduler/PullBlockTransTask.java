@@ -14,13 +14,13 @@
 package com.webank.webase.node.mgr.scheduler;
 
 import com.webank.webase.node.mgr.base.enums.GroupStatus;
+import com.webank.webase.node.mgr.base.enums.GroupTaskType;
 import com.webank.webase.node.mgr.block.BlockService;
 import com.webank.webase.node.mgr.group.GroupService;
 import com.webank.webase.node.mgr.group.entity.TbGroup;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -38,6 +38,8 @@ public class PullBlockTransTask {
     private BlockService blockService;
     @Autowired
     private GroupService groupService;
+    @Autowired
+    private GroupTaskExecutor groupTaskExecutor;
 
     @Scheduled(fixedDelayString = "${constant.pullBlockTaskFixedDelay}")
     public void taskStart() {
@@ -55,17 +57,9 @@ public class PullBlockTransTask {
             log.warn("pullBlock jump over: not found any group");
             return;
         }
-        // count down group, make sure all group's pullBlock finished
-        CountDownLatch latch = new CountDownLatch(groupList.size());
-        groupList
-                .forEach(group -> blockService.pullBlockByGroupId(latch, group.getGroupId()));
-
-        try {
-            latch.await();
-        } catch (InterruptedException ex) {
-            log.error("InterruptedException", ex);
-            Thread.currentThread().interrupt();
-        }
+        // each group runs by itself, group still pulling jump over this round
+        groupList.forEach(group -> groupTaskExecutor.submit(GroupTaskType.PULL_BLOCK,
+            group.getGroupId(), () -> blockService.pullBlockByGroupId(group.getGroupId())));
 
         log.debug("end pullBLock useTime:{} ",
                 Duration.between(startTime, Instant.now()).toMillis());
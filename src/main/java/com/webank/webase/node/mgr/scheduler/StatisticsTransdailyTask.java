@@ -37,6 +37,8 @@ import org.springframework.stereotype.Component;
 /**
  * Timed tasks for counting daily transaction data.
  * using in web's charts
+ * daily count is flushed from blocks counted in memory while saving them,
+ * and reconciled from tb_block for blocks not counted in memory (e.g. saved before restart).
  */
 @Log4j2
 @Component
@@ -55,13 +57,31 @@ public class StatisticsTransdailyTask {
         updateTransdailyData();
     }
 
+    @Scheduled(fixedDelayString = "${constant.transDailyFlushInterval}")
+    public void flushTaskStart() {
+        flushTransdailyData();
+    }
+
+    /**
+     * flush daily transaction data counted in memory.
+     */
+    public synchronized void flushTransdailyData() {
+        try {
+            transDailyService.flushDailyCount();
+        } catch (Exception ex) {
+            log.error("fail flushTransdailyData", ex);
+        }
+    }
+
     /**
-     * counting daily transaction data.
+     * reconcile daily transaction data from blocks not counted in memory.
      */
     public synchronized void updateTransdailyData() {
         Instant startTime = Instant.now();
         log.debug("start updateTransdailyData startTime:{}", startTime.toEpochMilli());
         try {
+            // flush first, so blocks counted in memory are not read from tb_block again
+            transDailyService.flushDailyCount();
 
             // query all group statistical info
             List<StatisticalGroupTransInfo> groupStatisticalList = groupService
@@ -14,14 +14,16 @@
 package com.webank.webase.node.mgr.scheduler;
 
 import com.webank.webase.node.mgr.base.enums.DataStatus;
+import com.webank.webase.node.mgr.base.enums.GroupTaskType;
 import com.webank.webase.node.mgr.group.GroupService;
 import com.webank.webase.node.mgr.group.entity.TbGroup;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
 import com.webank.webase.node.mgr.monitor.MonitorService;
+import com.webank.webase.node.mgr.monitor.MonitorShardService;
 import com.webank.webase.node.mgr.statistic.StatService;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -41,6 +43,12 @@ public class TransMonitorTask {
     private GroupService groupService;
     @Autowired
     private StatService statService;
+    @Autowired
+    private GroupTaskExecutor groupTaskExecutor;
+    @Autowired
+    private MonitorShardService monitorShardService;
+    @Autowired
+    private ConstantProperties cProperties;
 
     @Scheduled(fixedRateString = "${constant.transMonitorTaskFixedRate}")
     public void taskStart() {
@@ -64,16 +72,13 @@ public class TransMonitorTask {
             log.warn("monitor jump over, not found any group");
             return;
         }
-        // count down group, make sure all group's transMonitor finished
-        CountDownLatch latch = new CountDownLatch(groupList.size());
-        groupList
-            .forEach(group -> monitorService.transMonitorByGroupId(latch, group.getGroupId()));
-
-        try {
-             latch.await();
-        } catch (InterruptedException ex) {
-            log.error("InterruptedException", ex);
-            Thread.currentThread().interrupt();
+        if (cProperties.getMonitorShardCount() > 1) {
+            // shards of group run by lease, shard still monitoring jump over this round
+            groupList.forEach(group -> monitorShardService.monitorGroup(group.getGroupId()));
+        } else {
+            // each group runs by itself, group still monitoring jump over this round
+            groupList.forEach(group -> groupTaskExecutor.submit(GroupTaskType.TRANS_MONITOR,
+                group.getGroupId(), () -> monitorService.transMonitorByGroupId(group.getGroupId())));
         }
 
         log.debug("=== end monitor. useTime:{} ",
@@ -92,17 +97,9 @@ public class TransMonitorTask {
             log.warn("blockStat jump over, not found any group");
             return;
         }
-        // count down group, make sure all group's transMonitor finished
-        CountDownLatch latch = new CountDownLatch(groupList.size());
-        groupList
-            .forEach(group -> statService.pullBlockStatistic(latch, group.getGroupId()));
-
-        try {
-             latch.await();
-        } catch (InterruptedException ex) {
-            log.error("InterruptedException", ex);
-            Thread.currentThread().interrupt();
-        }
+        // each group runs by itself, group still pulling stat jump over this round
+        groupList.forEach(group -> groupTaskExecutor.submit(GroupTaskType.BLOCK_STAT,
+            group.getGroupId(), () -> statService.pullBlockStatistic(group.getGroupId())));
 
         log.debug("=== end blockStat. useTime:{} ",
             Duration.between(startTime, Instant.now()).toMillis());
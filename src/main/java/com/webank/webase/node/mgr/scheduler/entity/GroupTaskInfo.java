@@ -0,0 +1,48 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.scheduler.entity;
+
+import lombok.Data;
+
+/**
+ * stat of one task type of one group.
+ */
+@Data
+public class GroupTaskInfo {
+
+    private String taskType;
+    private Integer groupId;
+    /**
+     * tasks queued or running
+     */
+    private Integer inFlight;
+    private Long submittedCount;
+    /**
+     * rounds skipped because group's previous round not finished
+     */
+    private Long skippedCount;
+    private Long completedCount;
+    /**
+     * time from submitted to started (ms)
+     */
+    private Long lastWaitTime;
+    private Long maxWaitTime;
+    private Long lastRunTime;
+    /**
+     * queue depth of task type's pool
+     */
+    private Integer queueSize;
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.statistic;
+
+/**
+ * largest-triangle-three-buckets downsampling of a line,
+ * keeps first and last point, and from each bucket between them the point
+ * forming the largest triangle with the point kept before and the average of next bucket.
+ */
+public class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * @param x ascending x of points
+     * @param y y of points
+     * @param threshold count of points to keep
+     * @return ascending indexes of points kept,
+     * all indexes if threshold not less than size or less than 3
+     */
+    public static int[] selectIndexes(long[] x, double[] y, int threshold) {
+        int size = x.length;
+        if (threshold >= size || threshold < 3) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        int[] kept = new int[threshold];
+        int keptCount = 0;
+        kept[keptCount++] = 0;
+        // points between first and last are split into threshold - 2 buckets
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // average of next bucket, the last point for the last bucket
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int maxIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[a] - avgX) * (y[i] - y[a])
+                    - (x[a] - x[i]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+            kept[keptCount++] = maxIndex;
+            a = maxIndex;
+        }
+        kept[keptCount] = size - 1;
+        return kept;
+    }
+}
@@ -45,13 +45,14 @@ public class StatController {
         @RequestParam(required = false) Long contrastBeginDate,
         @RequestParam(required = false) Long contrastEndDate,
         @RequestParam(required = false, defaultValue = "1") int gap,
-        @RequestParam(defaultValue = "1") int groupId) {
+        @RequestParam(defaultValue = "1") int groupId,
+        @RequestParam(required = false) Integer maxPoints) {
         Instant startTime = Instant.now();
         log.info("getBlockStat start. groupId:[{}], startTime:{}", groupId,
             startTime.toEpochMilli());
 
         List<PerformanceData> performanceList = statService.findContrastDataByTime(groupId,
-            beginDate, endDate, contrastBeginDate, contrastEndDate, gap);
+            beginDate, endDate, contrastBeginDate, contrastEndDate, gap, maxPoints);
         BaseResponse response = new BaseResponse(ConstantCode.SUCCESS, performanceList);
 
         log.info("getBlockStat end. useTime:{}",
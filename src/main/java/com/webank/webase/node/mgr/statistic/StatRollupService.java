@@ -0,0 +1,287 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.statistic;
+
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.statistic.entity.TbStat;
+import com.webank.webase.node.mgr.statistic.entity.TbStatRollup;
+import com.webank.webase.node.mgr.statistic.mapper.TbStatMapper;
+import com.webank.webase.node.mgr.statistic.mapper.TbStatRollupMapper;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * rollup of block stat by 1 minute, 1 hour and 1 day, folded in as stat of blocks saved.
+ * chart of a large gap reads the coarsest tier within the gap instead of raw block stat.
+ * minute and hour tiers are kept for statRollupMinuteRetainDays and statRollupHourRetainDays.
+ * range older than retention of a tier is read from a coarser tier still retained.
+ */
+@Log4j2
+@Service
+public class StatRollupService {
+
+    /**
+     * bucket size of tiers, unit: s, ascending
+     */
+    public static final int[] TIERS = {60, 3600, 86400};
+    /**
+     * interval of raw chart point, gap of chart counts in it, unit: s
+     */
+    public static final int STAT_POINT_INTERVAL = 5;
+
+    @Autowired
+    private TbStatMapper tbStatMapper;
+    @Autowired
+    private TbStatRollupMapper tbStatRollupMapper;
+    @Autowired
+    private ConstantProperties constants;
+
+    /**
+     * insert stat of blocks not saved yet and fold them into rollup in one transaction,
+     * so each block is rolled up exactly once.
+     * @param statList stat of blocks in block order
+     * @return count of blocks saved
+     */
+    @Transactional
+    public int saveAndRollup(int groupId, List<TbStat> statList) {
+        if (statList == null || statList.isEmpty()) {
+            return 0;
+        }
+        Set<Integer> savedSet = new HashSet<>(tbStatMapper.listBlockNumber(groupId,
+            statList.get(0).getBlockNumber(), statList.get(statList.size() - 1).getBlockNumber()));
+        List<TbStat> newList = statList.stream()
+            .filter(stat -> !savedSet.contains(stat.getBlockNumber()))
+            .collect(Collectors.toList());
+        if (newList.isEmpty()) {
+            return 0;
+        }
+        int affected = tbStatMapper.batchInsertIgnore(newList);
+        if (affected != newList.size()) {
+            // saved by other instance meanwhile, roll back and pull again next round
+            throw new DuplicateKeyException(String.format(
+                "stat of group:%d saved concurrently, expect:%d affected:%d", groupId,
+                newList.size(), affected));
+        }
+        rollup(groupId, newList);
+        return affected;
+    }
+
+    /**
+     * remove minute and hour buckets out of retention, day buckets are kept.
+     */
+    public void retainRollup(int groupId) {
+        long now = System.currentTimeMillis();
+        int minuteRows = tbStatRollupMapper.deleteByTierBefore(groupId, TIERS[0],
+            now - TimeUnit.DAYS.toMillis(getRetainDays(TIERS[0])));
+        int hourRows = tbStatRollupMapper.deleteByTierBefore(groupId, TIERS[1],
+            now - TimeUnit.DAYS.toMillis(getRetainDays(TIERS[1])));
+        log.debug("retainRollup groupId:{} minuteRows:{} hourRows:{}", groupId, minuteRows,
+            hourRows);
+    }
+
+    /**
+     * fold stat of blocks into buckets of each tier.
+     * @param statList stat of blocks new to rollup, in block order
+     */
+    private void rollup(int groupId, List<TbStat> statList) {
+        if (!constants.getStatRollupEnable()) {
+            return;
+        }
+        Date now = new Date();
+        List<TbStatRollup> rollupList = new ArrayList<>();
+        for (int tier : TIERS) {
+            long bucketMillis = tier * 1000L;
+            Map<Long, TbStatRollup> bucketMap = new LinkedHashMap<>();
+            for (TbStat stat : statList) {
+                long timestamp = Long.parseLong(stat.getStatTimestamp());
+                long bucketTime = timestamp - timestamp % bucketMillis;
+                TbStatRollup rollup = bucketMap.computeIfAbsent(bucketTime,
+                    k -> newRollup(groupId, tier, k, now));
+                fold(rollup, stat);
+            }
+            rollupList.addAll(bucketMap.values());
+        }
+        int affected = tbStatRollupMapper.batchUpsert(rollupList);
+        log.debug("rollup groupId:{} blocks:{} buckets:{} affected:{}", groupId, statList.size(),
+            rollupList.size(), affected);
+    }
+
+    /**
+     * coarsest tier not larger than resolution of gap, stepped up to the first tier
+     * whose retention still covers startTimestamp, null if raw stat is needed.
+     */
+    public Integer chooseTier(int gap, Long startTimestamp) {
+        if (!constants.getStatRollupEnable()) {
+            return null;
+        }
+        long resolution = (long) STAT_POINT_INTERVAL * gap;
+        int chosen = -1;
+        for (int i = 0; i < TIERS.length; i++) {
+            if (TIERS[i] <= resolution) {
+                chosen = i;
+            }
+        }
+        if (chosen < 0) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        for (int i = chosen; i < TIERS.length; i++) {
+            Long retainDays = getRetainDays(TIERS[i]);
+            if (startTimestamp == null || retainDays == null
+                || startTimestamp >= now - TimeUnit.DAYS.toMillis(retainDays)) {
+                return TIERS[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * retention of tier, null if kept forever
+     */
+    private Long getRetainDays(int tier) {
+        if (tier == TIERS[0]) {
+            return constants.getStatRollupMinuteRetainDays().longValue();
+        }
+        if (tier == TIERS[1]) {
+            return constants.getStatRollupHourRetainDays().longValue();
+        }
+        return null;
+    }
+
+    /**
+     * chart points of tier between timestamps, one point every gap merged from buckets in it,
+     * point without block has null value.
+     */
+    public List<TbStat> findPointList(int groupId, int tier, Long startTimestamp,
+        Long endTimestamp, int gap) {
+        List<TbStat> pointList = new ArrayList<>();
+        if (startTimestamp == null || endTimestamp == null) {
+            return pointList;
+        }
+        long bucketMillis = tier * 1000L;
+        long stepMillis = Math.max((long) STAT_POINT_INTERVAL * gap / tier, 1) * bucketMillis;
+        List<TbStatRollup> rollupList = tbStatRollupMapper.findByTimeBetween(groupId, tier,
+            startTimestamp - startTimestamp % bucketMillis, endTimestamp);
+        TbStatRollup merged = null;
+        long pointTime = -1;
+        for (TbStatRollup rollup : rollupList) {
+            if (pointTime < 0) {
+                pointTime = rollup.getBucketTime();
+            }
+            if (rollup.getBucketTime() >= pointTime + stepMillis) {
+                pointList.add(toPoint(merged, pointTime));
+                merged = null;
+                pointTime += stepMillis;
+                // empty point for steps without block
+                while (rollup.getBucketTime() >= pointTime + stepMillis) {
+                    pointList.add(toPoint(null, pointTime));
+                    pointTime += stepMillis;
+                }
+            }
+            merged = merge(merged, rollup);
+        }
+        if (merged != null) {
+            pointList.add(toPoint(merged, pointTime));
+        }
+        log.debug("findPointList groupId:{} tier:{} buckets:{} points:{}", groupId, tier,
+            rollupList.size(), pointList.size());
+        return pointList;
+    }
+
+    public void deleteByGroupId(int groupId) {
+        int affected = tbStatRollupMapper.deleteByGroupId(groupId);
+        log.warn("deleteByGroupId:{} affected:{}", groupId, affected);
+    }
+
+    private TbStatRollup newRollup(int groupId, int tier, long bucketTime, Date now) {
+        TbStatRollup rollup = new TbStatRollup();
+        rollup.setGroupId(groupId);
+        rollup.setTier(tier);
+        rollup.setBucketTime(bucketTime);
+        rollup.setBlockCount(0);
+        rollup.setTxCount(0L);
+        rollup.setTpsSum(0L);
+        rollup.setBlockCycleSum(0.0);
+        rollup.setCreateTime(now);
+        rollup.setModifyTime(now);
+        return rollup;
+    }
+
+    private void fold(TbStatRollup rollup, TbStat stat) {
+        int tps = stat.getTps() == null ? 0 : stat.getTps();
+        int blockSize = stat.getBlockSize() == null ? 0 : stat.getBlockSize();
+        double blockCycle = stat.getBlockCycle() == null ? 0.0 : stat.getBlockCycle();
+        boolean first = rollup.getBlockCount() == 0;
+        rollup.setBlockCount(rollup.getBlockCount() + 1);
+        rollup.setTxCount(rollup.getTxCount() + blockSize);
+        rollup.setTpsSum(rollup.getTpsSum() + tps);
+        rollup.setBlockCycleSum(rollup.getBlockCycleSum() + blockCycle);
+        rollup.setTpsMin(first ? tps : Math.min(rollup.getTpsMin(), tps));
+        rollup.setTpsMax(first ? tps : Math.max(rollup.getTpsMax(), tps));
+        rollup.setBlockSizeMin(first ? blockSize : Math.min(rollup.getBlockSizeMin(), blockSize));
+        rollup.setBlockSizeMax(first ? blockSize : Math.max(rollup.getBlockSizeMax(), blockSize));
+        rollup.setBlockCycleMin(
+            first ? blockCycle : Math.min(rollup.getBlockCycleMin(), blockCycle));
+        rollup.setBlockCycleMax(
+            first ? blockCycle : Math.max(rollup.getBlockCycleMax(), blockCycle));
+        if (first) {
+            rollup.setFirstBlock(stat.getBlockNumber());
+        }
+        rollup.setLastBlock(stat.getBlockNumber());
+    }
+
+    private TbStatRollup merge(TbStatRollup merged, TbStatRollup rollup) {
+        if (merged == null) {
+            return rollup;
+        }
+        merged.setBlockCount(merged.getBlockCount() + rollup.getBlockCount());
+        merged.setTxCount(merged.getTxCount() + rollup.getTxCount());
+        merged.setTpsSum(merged.getTpsSum() + rollup.getTpsSum());
+        merged.setBlockCycleSum(merged.getBlockCycleSum() + rollup.getBlockCycleSum());
+        merged.setLastBlock(rollup.getLastBlock());
+        return merged;
+    }
+
+    /**
+     * average of buckets as chart point, empty point if no bucket
+     */
+    private TbStat toPoint(TbStatRollup rollup, long pointTime) {
+        TbStat point = new TbStat();
+        point.setStatTimestamp(String.valueOf(pointTime));
+        if (rollup == null) {
+            return point;
+        }
+        int blockCount = Math.max(rollup.getBlockCount(), 1);
+        point.setGroupId(rollup.getGroupId());
+        point.setBlockNumber(rollup.getLastBlock());
+        point.setTps((int) (rollup.getTpsSum() / blockCount));
+        point.setBlockSize((int) (rollup.getTxCount() / blockCount));
+        point.setBlockCycle(rollup.getBlockCycleSum() / blockCount);
+        return point;
+    }
+}
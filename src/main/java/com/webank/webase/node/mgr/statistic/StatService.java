@@ -29,13 +29,15 @@ import java.math.BigInteger;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 @Log4j2
@@ -48,6 +50,11 @@ public class StatService {
     private FrontInterfaceService frontInterfaceService;
     @Autowired
     private ConstantProperties constants;
+    @Autowired
+    private StatRollupService statRollupService;
+    @Autowired
+    @Qualifier(value = "pullBlockExecutor")
+    private ThreadPoolTaskExecutor pullBlockExecutor;
 
     // 每出一个块，获得上一个区块的时间戳相差时间，获得出块周期； 获取多条数据，计算平均值
     // 获得一个块的交易数，除以出块周期则是TPS
@@ -64,11 +71,9 @@ public class StatService {
      * 如0-5s有三个区块，则三个区块的值累加到0-5区间，
      * 如果5-15都没有区块，则5-10, 10-15插入空数据
      * 如15-20有数据，则记录在15-20的区间
-     * @param latch
      * @param groupId
      */
-    @Async(value = "mgrAsyncExecutor")
-    public void pullBlockStatistic(CountDownLatch latch, Integer groupId) {
+    public void pullBlockStatistic(Integer groupId) {
         try {
             Instant startTime = Instant.now();
             log.debug("pullBlockStatistic startTime:{}, groupId:{}", startTime, groupId);
@@ -102,12 +107,19 @@ public class StatService {
                     localBlockNum, blockNumOnChain);
                 return;
             }
+            if (constants.getStatBlockRangeSize() > 1) {
+                pullBlockStatisticByRange(groupId, localBlockNum, lastBlockTimestamp,
+                    blockNumOnChain);
+                log.info("=== end monitor. groupId:{} allUseTime:{}", groupId,
+                    Duration.between(startTime, Instant.now()).toMillis());
+                return;
+            }
             // if local is too far from chain's height, just pull
             if (blockNumOnChain - localBlockNum > constants.getStatBlockPageSize()) {
                 log.debug(
-                    "pullBlockStatistic local {} is too far away from latest blockHeight:{}, pull 10 block one time",
-                    localBlockNum, blockNumOnChain);
-                blockNumOnChain += constants.getStatBlockPageSize();
+                    "pullBlockStatistic local {} is too far away from latest blockHeight:{}, pull {} block one time",
+                    localBlockNum, blockNumOnChain, constants.getStatBlockPageSize());
+                blockNumOnChain = localBlockNum + constants.getStatBlockPageSize();
             }
 
             for (int height = localBlockNum + 1; height <= blockNumOnChain; height++) {
@@ -136,16 +148,78 @@ public class StatService {
                 Duration.between(startTime, Instant.now()).toMillis());
 
         } catch (Exception ex) {
-            log.error("fail transMonitorByGroupId, group:{}", groupId, ex);
-        } finally {
-            if (Objects.nonNull(latch)) {
-                // finish one group, count down
-                latch.countDown();
-            }
+            log.error("fail pullBlockStatistic, group:{}", groupId, ex);
         }
 
     }
 
+    /**
+     * pull block statistic range by range up to blockNumOnChain: fetch heights of range
+     * concurrently, compute cycle and tps in height order, and save range by one insert.
+     * range stops at the first height failed to fetch, and is pulled again in next round.
+     */
+    private void pullBlockStatisticByRange(int groupId, int localBlockNum, Long lastBlockTimestamp,
+        int blockNumOnChain) {
+        int rangeSize = constants.getStatBlockRangeSize();
+        int fromHeight = localBlockNum + 1;
+        while (fromHeight <= blockNumOnChain) {
+            int toHeight = Math.min(fromHeight + rangeSize - 1, blockNumOnChain);
+            log.debug("pullBlockStatisticByRange groupId:{} from:{} to:{}", groupId, fromHeight,
+                toHeight);
+            List<CompletableFuture<RspStatBlock>> futureList = new ArrayList<>(
+                toHeight - fromHeight + 1);
+            for (int height = fromHeight; height <= toHeight; height++) {
+                BigInteger blockNumber = BigInteger.valueOf(height);
+                futureList.add(CompletableFuture.supplyAsync(
+                    () -> frontInterfaceService.getBlockStatisticByNumber(groupId, blockNumber),
+                    pullBlockExecutor));
+            }
+
+            List<TbStat> statList = new ArrayList<>(futureList.size());
+            Date now = new Date();
+            for (int i = 0; i < futureList.size(); i++) {
+                int height = fromHeight + i;
+                RspStatBlock chainBlockStat;
+                try {
+                    chainBlockStat = futureList.get(i).join();
+                } catch (CompletionException ex) {
+                    log.error("pullBlockStatisticByRange fail get block:{}", height, ex.getCause());
+                    chainBlockStat = null;
+                }
+                if (chainBlockStat == null) {
+                    log.error("pullBlockStatisticByRange getBlockStatisticByNumber on chain get null");
+                    futureList.forEach(future -> future.cancel(false));
+                    break;
+                }
+                Long chainTimestamp = chainBlockStat.getTimestamp();
+                // get time interval(unit: s)
+                double blockCycle = (chainTimestamp - lastBlockTimestamp) / 1000.0;
+                int blockSize = chainBlockStat.getTxCount();
+                TbStat tbStat = new TbStat();
+                tbStat.setGroupId(groupId);
+                tbStat.setBlockNumber(height);
+                tbStat.setBlockSize(blockSize);
+                tbStat.setTps((int) (blockSize / blockCycle));
+                tbStat.setBlockCycle(blockCycle);
+                tbStat.setStatTimestamp(String.valueOf(chainTimestamp));
+                tbStat.setCreateTime(now);
+                tbStat.setModifyTime(now);
+                statList.add(tbStat);
+                // update last timestamp
+                lastBlockTimestamp = chainTimestamp;
+            }
+            if (!statList.isEmpty()) {
+                int affected = statRollupService.saveAndRollup(groupId, statList);
+                log.debug("pullBlockStatisticByRange groupId:{} saved:{} affected:{}", groupId,
+                    statList.size(), affected);
+            }
+            if (statList.size() < futureList.size()) {
+                return;
+            }
+            fromHeight = toHeight + 1;
+        }
+    }
+
     public void saveStat(int groupId, int blockNum, int blockSize, int tps, double blockCycle, String timestamp) {
         if (this.checkStatExist(groupId, blockNum)) {
             log.warn("saveStat skip for block num already exist!" +
@@ -163,29 +237,70 @@ public class StatService {
         tbStat.setCreateTime(now);
         tbStat.setModifyTime(now);
         log.debug("saveStat tbStat:{}", tbStat);
-        tbStatMapper.insertSelective(tbStat);
+        statRollupService.saveAndRollup(groupId, Collections.singletonList(tbStat));
     }
 
 
+    /**
+     * chart of large gap is read from the coarsest rollup tier within gap,
+     * and each line is downsampled by lttb if maxPoints is set.
+     * @param maxPoints max points of each line, not downsample if null
+     */
     public List<PerformanceData> findContrastDataByTime(int groupId, Long startTimestamp, Long endTimestamp,
-        Long contrastStartTimestamp, Long contrastEndTimestamp, int gap) {
+        Long contrastStartTimestamp, Long contrastEndTimestamp, int gap, Integer maxPoints) {
+        if (gap == 0) {
+            throw new NodeMgrException(ConstantCode.PARAM_EXCEPTION.getCode(), "gap cannot be 0");
+        }
+        // buckets of the earliest range must be still retained
+        Long earliestStart = contrastStartTimestamp == null || (startTimestamp != null
+            && startTimestamp < contrastStartTimestamp) ? startTimestamp : contrastStartTimestamp;
+        Integer tier = statRollupService.chooseTier(gap, earliestStart);
+        List<TbStat> statList = findPointList(groupId, startTimestamp, endTimestamp, gap, tier);
+        List<TbStat> contrastList = findPointList(groupId, contrastStartTimestamp,
+            contrastEndTimestamp, gap, tier);
+        log.debug("findContrastDataByTime groupId:{} gap:{} tier:{} points:{} contrastPoints:{}",
+            groupId, gap, tier, statList.size(), contrastList.size());
+        return transferToPerformanceData(downsample(statList, maxPoints),
+            downsample(contrastList, maxPoints));
+    }
 
-        List<TbStat> statList;
+    private List<TbStat> findPointList(int groupId, Long startTimestamp, Long endTimestamp,
+        int gap, Integer tier) {
         if (startTimestamp == null || endTimestamp == null) {
-            statList = new ArrayList<>();
-        } else {
-            statList = tbStatMapper.findByTimeBetween(groupId, startTimestamp.toString(),
-                endTimestamp.toString());
+            return new ArrayList<>();
         }
-        List<TbStat> contrastMonitorList = new ArrayList<>();
-        if (contrastStartTimestamp != null && contrastEndTimestamp != null) {
-            contrastMonitorList = tbStatMapper.findByTimeBetween(groupId, contrastStartTimestamp.toString(),
-                contrastEndTimestamp.toString());
+        if (tier != null) {
+            return statRollupService.findPointList(groupId, tier, startTimestamp, endTimestamp,
+                gap);
         }
-        return transferToPerformanceData(transferListByGap(statList, gap),
-            transferListByGap(contrastMonitorList, gap));
+        List<TbStat> statList = tbStatMapper.findByTimeBetween(groupId, startTimestamp.toString(),
+            endTimestamp.toString());
+        return transferListByGap(statList, gap);
     }
-    
+
+    /**
+     * downsample points by lttb on tps, point without value counts as 0.
+     */
+    private List<TbStat> downsample(List<TbStat> statList, Integer maxPoints) {
+        if (maxPoints == null || statList.size() <= maxPoints) {
+            return statList;
+        }
+        int size = statList.size();
+        long[] x = new long[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            TbStat stat = statList.get(i);
+            x[i] = Long.parseLong(stat.getStatTimestamp());
+            y[i] = stat.getTps() == null ? 0 : stat.getTps();
+        }
+        int[] indexes = Lttb.selectIndexes(x, y, maxPoints);
+        List<TbStat> sampledList = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            sampledList.add(statList.get(index));
+        }
+        return sampledList;
+    }
+
     private List<PerformanceData> transferToPerformanceData(List<TbStat> statList,
         List<TbStat> contrastMonitorList) {
         List<Long> timestampList = new ArrayList<>();
@@ -321,16 +436,10 @@ public class StatService {
     /**
      * remove block stat info.
      */
-    public Integer remove(Integer groupId, BigInteger blockRetainMax) {
-        log.info("remove groupId:{}, blockRetainMax:{}", groupId, blockRetainMax);
-        Integer affectRow = tbStatMapper.remove(groupId, blockRetainMax);
-        log.info("remove affectRow{}", affectRow);
-        return affectRow;
-    }
-
     public void deleteByGroupId(int groupId) {
         int affected = tbStatMapper.deleteByGroupId(groupId);
         log.warn("deleteByGroupId:{} affected:{}", groupId, affected);
+        statRollupService.deleteByGroupId(groupId);
     }
 
     public boolean checkStatExist(int groupId, int blockNum) {
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.statistic.entity;
+
+import java.util.Date;
+import lombok.Data;
+
+/**
+ * block stat of group rolled up in a time bucket of tier.
+ */
+@Data
+public class TbStatRollup {
+
+    private Integer groupId;
+    /**
+     * bucket size of tier, unit: s
+     */
+    private Integer tier;
+    /**
+     * start timestamp of bucket, unit: ms
+     */
+    private Long bucketTime;
+    private Integer blockCount;
+    /**
+     * sum of block size
+     */
+    private Long txCount;
+    private Long tpsSum;
+    private Integer tpsMin;
+    private Integer tpsMax;
+    private Integer blockSizeMin;
+    private Integer blockSizeMax;
+    private Double blockCycleSum;
+    private Double blockCycleMin;
+    private Double blockCycleMax;
+    /**
+     * block range rolled in bucket, stat of block not after lastBlock is not rolled again
+     */
+    private Integer firstBlock;
+    private Integer lastBlock;
+    private Date createTime;
+    private Date modifyTime;
+}
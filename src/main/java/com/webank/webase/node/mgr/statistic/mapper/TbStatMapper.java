@@ -20,16 +20,6 @@ public interface TbStatMapper {
     @Delete({ "delete from tb_stat", "where group_id = #{groupId,jdbcType=INTEGER}" })
     int deleteByGroupId(Integer groupId);
 
-    /**
-     * Delete block height.
-     */
-    @Delete({
-        "delete tb from tb_stat as tb,",
-        "(SELECT max(block_number) maxBlock FROM tb_stat where group_id = #{groupId}) AS tmp",
-        "where tb.group_id = #{groupId}",
-        " and tb.block_number <= tmp.maxBlock - ${blockRetainMax}"})
-    Integer remove(@Param("groupId") Integer groupId, @Param("blockRetainMax") BigInteger blockRetainMax);
-
     @Select({"select ", TbStatSqlProvider.ALL_COLUMN_FIELDS,
         " from tb_stat where group_id = #{groupId} ",
         " and stat_timestamp between #{startTimestamp} and #{endTimestamp} order by id"})
@@ -46,6 +36,27 @@ public interface TbStatMapper {
     @Select({ "select", TbStatSqlProvider.ALL_COLUMN_FIELDS, "from tb_stat where ",
             " group_id = #{groupId} ", "and block_number = #{blockNumber}"})
     TbStat findByGroupAndBlockNum(@Param("groupId") Integer groupId, @Param("blockNumber") Integer blockNumber);
+    /**
+     * insert stat of a block range, block already stat is skipped by uk_block.
+     */
+    @Insert({ "<script>", "insert ignore into tb_stat (group_id, block_cycle, tps, block_number,",
+        "block_size, stat_timestamp, create_time, modify_time) values",
+        "<foreach collection=\"list\" item=\"detail\" index=\"index\" separator=\",\">",
+        "(#{detail.groupId,jdbcType=INTEGER}, #{detail.blockCycle,jdbcType=DOUBLE},",
+        "#{detail.tps,jdbcType=INTEGER}, #{detail.blockNumber,jdbcType=INTEGER},",
+        "#{detail.blockSize,jdbcType=INTEGER}, #{detail.statTimestamp,jdbcType=VARCHAR},",
+        "#{detail.createTime,jdbcType=TIMESTAMP}, #{detail.modifyTime,jdbcType=TIMESTAMP})",
+        "</foreach></script>" })
+    int batchInsertIgnore(@Param("list") List<TbStat> list);
+
+    /**
+     * block number of stat saved in a block range.
+     */
+    @Select({ "select block_number from tb_stat where group_id = #{groupId}",
+        "and block_number between #{fromBlock} and #{toBlock}" })
+    List<Integer> listBlockNumber(@Param("groupId") Integer groupId,
+        @Param("fromBlock") Integer fromBlock, @Param("toBlock") Integer toBlock);
+
     /**
      * This method was generated by MyBatis Generator.
      * This method corresponds to the database table tb_stat
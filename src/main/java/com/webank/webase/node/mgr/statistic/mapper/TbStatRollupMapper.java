@@ -0,0 +1,76 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.statistic.mapper;
+
+import com.webank.webase.node.mgr.statistic.entity.TbStatRollup;
+import java.util.List;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+public interface TbStatRollupMapper {
+
+    String ALL_COLUMN_FIELDS = "group_id,tier,bucket_time,block_count,tx_count,tps_sum,tps_min,"
+        + "tps_max,block_size_min,block_size_max,block_cycle_sum,block_cycle_min,block_cycle_max,"
+        + "first_block,last_block,create_time,modify_time";
+
+    /**
+     * fold rollup of blocks into bucket, blocks must be new to the bucket,
+     * which is ensured by rolling up in the transaction inserting their stat.
+     */
+    @Insert({ "<script>", "insert into tb_stat_rollup (", ALL_COLUMN_FIELDS, ") values",
+        "<foreach collection=\"list\" item=\"r\" separator=\",\">",
+        "(#{r.groupId},#{r.tier},#{r.bucketTime},#{r.blockCount},#{r.txCount},#{r.tpsSum},",
+        "#{r.tpsMin},#{r.tpsMax},#{r.blockSizeMin},#{r.blockSizeMax},#{r.blockCycleSum},",
+        "#{r.blockCycleMin},#{r.blockCycleMax},#{r.firstBlock},#{r.lastBlock},",
+        "#{r.createTime},#{r.modifyTime})",
+        "</foreach>",
+        "ON DUPLICATE KEY UPDATE",
+        "block_count = block_count + VALUES(block_count),",
+        "tx_count = tx_count + VALUES(tx_count),",
+        "tps_sum = tps_sum + VALUES(tps_sum),",
+        "tps_min = LEAST(tps_min, VALUES(tps_min)),",
+        "tps_max = GREATEST(tps_max, VALUES(tps_max)),",
+        "block_size_min = LEAST(block_size_min, VALUES(block_size_min)),",
+        "block_size_max = GREATEST(block_size_max, VALUES(block_size_max)),",
+        "block_cycle_sum = block_cycle_sum + VALUES(block_cycle_sum),",
+        "block_cycle_min = LEAST(block_cycle_min, VALUES(block_cycle_min)),",
+        "block_cycle_max = GREATEST(block_cycle_max, VALUES(block_cycle_max)),",
+        "first_block = LEAST(first_block, VALUES(first_block)),",
+        "last_block = GREATEST(last_block, VALUES(last_block)),",
+        "modify_time = VALUES(modify_time)",
+        "</script>" })
+    int batchUpsert(@Param("list") List<TbStatRollup> list);
+
+    @Select({ "select", ALL_COLUMN_FIELDS, "from tb_stat_rollup where group_id = #{groupId}",
+        "and tier = #{tier} and bucket_time between #{startTimestamp} and #{endTimestamp}",
+        "order by bucket_time" })
+    List<TbStatRollup> findByTimeBetween(@Param("groupId") Integer groupId,
+        @Param("tier") Integer tier, @Param("startTimestamp") Long startTimestamp,
+        @Param("endTimestamp") Long endTimestamp);
+
+    /**
+     * delete buckets of tier before timestamp.
+     */
+    @Delete({ "delete from tb_stat_rollup where group_id = #{groupId} and tier = #{tier}",
+        "and bucket_time < #{beforeTimestamp}" })
+    int deleteByTierBefore(@Param("groupId") Integer groupId, @Param("tier") Integer tier,
+        @Param("beforeTimestamp") Long beforeTimestamp);
+
+    @Delete({ "delete from tb_stat_rollup where group_id = #{groupId}" })
+    int deleteByGroupId(@Param("groupId") Integer groupId);
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.table;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * range partition of group table, bound of partition is exclusive.
+ * HEIGHT is partitioned by block_number, DAY by TO_DAYS(create_time).
+ */
+public enum PartitionRange {
+    HEIGHT, DAY;
+
+    /**
+     * TO_DAYS('1970-01-01') of mysql
+     */
+    private static final long TO_DAYS_OF_EPOCH = 719528L;
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    public static long toDays(LocalDate date) {
+        return date.toEpochDay() + TO_DAYS_OF_EPOCH;
+    }
+
+    public static LocalDate fromDays(long days) {
+        return LocalDate.ofEpochDay(days - TO_DAYS_OF_EPOCH);
+    }
+
+    /**
+     * name of partition by its bound, such as p100000 or p20261101.
+     */
+    public String partitionName(long bound) {
+        if (this == DAY) {
+            return "p" + fromDays(bound).format(NAME_FORMAT);
+        }
+        return "p" + bound;
+    }
+
+    /**
+     * readable bound, block number or date.
+     */
+    public String format(long bound) {
+        if (this == DAY) {
+            return fromDays(bound).toString();
+        }
+        return String.valueOf(bound);
+    }
+
+    /**
+     * bounds to add after lastBound, so that partition holding current
+     * and next aheadCount partitions exist. bounds are aligned to step,
+     * rows between lastBound and first new bound go to the first new partition.
+     * @param lastBound largest bound except MAXVALUE, null if none
+     */
+    public static List<Long> newBounds(Long lastBound, long current, long step, int aheadCount) {
+        long aligned = Math.floorDiv(current, step) * step;
+        long target = aligned + step * (aheadCount + 1);
+        List<Long> bounds = new ArrayList<>();
+        for (long bound = aligned + step; bound <= target; bound += step) {
+            if (lastBound == null || bound > lastBound) {
+                bounds.add(bound);
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * bounds whose partition only holds rows below threshold.
+     */
+    public static List<Long> expiredBounds(List<Long> bounds, long threshold) {
+        List<Long> expired = new ArrayList<>();
+        for (Long bound : bounds) {
+            if (bound <= threshold) {
+                expired.add(bound);
+            }
+        }
+        return expired;
+    }
+}
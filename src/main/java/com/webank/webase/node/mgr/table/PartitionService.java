@@ -0,0 +1,178 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.table;
+
+import com.webank.webase.node.mgr.base.enums.TableName;
+import com.webank.webase.node.mgr.block.BlockMapper;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.table.entity.PartitionInfo;
+import com.webank.webase.node.mgr.table.entity.TbPartition;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * rolling range partitions of group tables:
+ * empty partitions are created ahead by splitting partition of MAXVALUE,
+ * and expired rows are removed by dropping whole partitions.
+ */
+@Log4j2
+@Service
+public class PartitionService {
+
+    private static final String MAXVALUE = "MAXVALUE";
+
+    @Autowired
+    private TableMapper tableMapper;
+    @Autowired
+    private TableService tableService;
+    @Autowired
+    private BlockMapper blockMapper;
+    @Autowired
+    private ConstantProperties cProperties;
+
+    /**
+     * partition state of block, trans and monitor table of group.
+     */
+    public List<PartitionInfo> getPartitionInfo(int groupId) {
+        List<PartitionInfo> infoList = new ArrayList<>();
+        for (TableName table : TableName.values()) {
+            String tableName = table.getTableName(groupId);
+            PartitionRange range = getRange(table);
+            List<TbPartition> partitionList = queryPartitions(tableName);
+            partitionList.forEach(p -> p.setLessThan(formatBound(range, p)));
+
+            PartitionInfo info = new PartitionInfo();
+            info.setTableName(tableName);
+            info.setPartitionRange(range.name());
+            info.setPartitioned(isPartitioned(partitionList));
+            info.setPartitionList(partitionList);
+            infoList.add(info);
+        }
+        return infoList;
+    }
+
+    /**
+     * create partitions of group tables ahead.
+     */
+    public void extendPartitions(int groupId) {
+        BigInteger latestBlock = blockMapper.getLatestBlockNumber(
+            TableName.BLOCK.getTableName(groupId));
+        long currentBlock = latestBlock == null ? 0 : latestBlock.longValue();
+        long blockStep = cProperties.getBlockPartitionSize();
+        extendPartitions(TableName.BLOCK.getTableName(groupId), PartitionRange.HEIGHT,
+            currentBlock, blockStep);
+        extendPartitions(TableName.TRANS.getTableName(groupId), PartitionRange.HEIGHT,
+            currentBlock, blockStep);
+        extendPartitions(TableName.MONITOR.getTableName(groupId), PartitionRange.DAY,
+            PartitionRange.toDays(LocalDate.now()), cProperties.getMonitorPartitionDays());
+    }
+
+    private void extendPartitions(String tableName, PartitionRange range, long current,
+        long step) {
+        List<TbPartition> partitionList = queryPartitions(tableName);
+        if (!isPartitioned(partitionList)) {
+            return;
+        }
+        TbPartition maxPartition = partitionList.get(partitionList.size() - 1);
+        if (!MAXVALUE.equals(maxPartition.getPartitionDescription())) {
+            log.warn("extendPartitions jump over, no partition of MAXVALUE. table:{}", tableName);
+            return;
+        }
+        List<Long> bounds = getBounds(partitionList);
+        Long lastBound = bounds.isEmpty() ? null : bounds.get(bounds.size() - 1);
+        List<Long> newBounds = PartitionRange.newBounds(lastBound, current, step,
+            cProperties.getPartitionAheadCount());
+        if (newBounds.isEmpty()) {
+            return;
+        }
+        List<TbPartition> newPartitions = new ArrayList<>();
+        for (Long bound : newBounds) {
+            TbPartition partition = new TbPartition();
+            partition.setPartitionName(range.partitionName(bound));
+            partition.setPartitionDescription(String.valueOf(bound));
+            newPartitions.add(partition);
+        }
+        log.info("reorganize partition. table:{} rowsOfMax:{} newBounds:{}", tableName,
+            maxPartition.getTableRows(), newBounds);
+        tableMapper.reorganizeMaxPartition(tableName, maxPartition.getPartitionName(),
+            newPartitions);
+    }
+
+    /**
+     * drop partitions whose bound is not larger than threshold.
+     * @return count of dropped partitions
+     */
+    public int dropPartitions(String tableName, long threshold) {
+        List<TbPartition> partitionList = queryPartitions(tableName);
+        List<Long> expired = PartitionRange.expiredBounds(getBounds(partitionList), threshold);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        List<String> nameList = partitionList.stream()
+            .filter(p -> StringUtils.isNumeric(p.getPartitionDescription())
+                && expired.contains(Long.valueOf(p.getPartitionDescription())))
+            .map(TbPartition::getPartitionName)
+            .collect(Collectors.toList());
+        log.info("drop partition. table:{} threshold:{} partitions:{}", tableName, threshold,
+            nameList);
+        tableMapper.dropPartition(tableName, nameList);
+        return nameList.size();
+    }
+
+    public boolean isPartitioned(String tableName) {
+        return isPartitioned(queryPartitions(tableName));
+    }
+
+    private boolean isPartitioned(List<TbPartition> partitionList) {
+        return !partitionList.isEmpty() && partitionList.get(0).getPartitionName() != null;
+    }
+
+    private List<TbPartition> queryPartitions(String tableName) {
+        List<TbPartition> partitionList = tableMapper.queryPartitions(tableService.getDbName(),
+            tableName);
+        return partitionList == null ? new ArrayList<>() : partitionList;
+    }
+
+    /**
+     * bounds except MAXVALUE in ascending order.
+     */
+    private static List<Long> getBounds(List<TbPartition> partitionList) {
+        return partitionList.stream()
+            .map(TbPartition::getPartitionDescription)
+            .filter(StringUtils::isNumeric)
+            .map(Long::valueOf)
+            .collect(Collectors.toList());
+    }
+
+    private static String formatBound(PartitionRange range, TbPartition partition) {
+        String description = partition.getPartitionDescription();
+        if (!StringUtils.isNumeric(description)) {
+            return description;
+        }
+        return range.format(Long.parseLong(description));
+    }
+
+    private static PartitionRange getRange(TableName table) {
+        return table == TableName.MONITOR ? PartitionRange.DAY : PartitionRange.HEIGHT;
+    }
+}
@@ -15,6 +15,8 @@
  */
 package com.webank.webase.node.mgr.table;
 
+import com.webank.webase.node.mgr.table.entity.TbPartition;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
@@ -33,4 +35,32 @@ public interface TableMapper {
     int createTransHash(@Param("tableName") String tableName);
 
     int createUserTransactionMonitor(@Param("tableName") String tableName);
-}
\ No newline at end of file
+
+    int countColumn(@Param("dbName") String dbName, @Param("tableName") String tableName,
+        @Param("columnName") String columnName);
+
+    int swapTable(@Param("tableName") String tableName, @Param("oldTableName") String oldTableName,
+        @Param("newTableName") String newTableName);
+
+    LocalDateTime queryMinCreateTime(@Param("tableName") String tableName);
+
+    /**
+     * merge rows in [fromTime, toTime), rows with null create_time if fromTime is null
+     */
+    int mergeMonitorTable(@Param("fromTableName") String fromTableName,
+        @Param("toTableName") String toTableName, @Param("fromTime") LocalDateTime fromTime,
+        @Param("toTime") LocalDateTime toTime);
+
+    int deleteMonitorRange(@Param("tableName") String tableName,
+        @Param("fromTime") LocalDateTime fromTime, @Param("toTime") LocalDateTime toTime);
+
+    List<TbPartition> queryPartitions(@Param("dbName") String dbName,
+        @Param("tableName") String tableName);
+
+    int reorganizeMaxPartition(@Param("tableName") String tableName,
+        @Param("maxPartition") String maxPartition,
+        @Param("partitionList") List<TbPartition> partitionList);
+
+    int dropPartition(@Param("tableName") String tableName,
+        @Param("partitionNameList") List<String> partitionNameList);
+}
@@ -18,13 +18,20 @@ import com.webank.webase.node.mgr.base.enums.TableName;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.tools.NodeMgrTools;
 import com.webank.webase.node.mgr.table.entity.TbInfo;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
+import javax.sql.DataSource;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * service of table
@@ -33,8 +40,17 @@ import org.springframework.stereotype.Service;
 @Service
 public class TableService {
 
+    /**
+     * wait for upgrade by other node-mgr at most, unit: s
+     */
+    private static final int UPGRADE_LOCK_TIMEOUT = 600;
+
     @Autowired
     private TableMapper tableMapper;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
     @Value("${spring.datasource.url}")
     private String dbUrl;
     @Value("${spring.datasource.username}")
@@ -58,6 +74,106 @@ public class TableService {
         tableMapper.createUserTransactionMonitor(TableName.MONITOR.getTableName(groupId));
     }
 
+    /**
+     * v1.5.4 upgrade monitor table created before to count by monitor_key and day:
+     * new table replaces old one in one rename, then rows of old one are merged in,
+     * so trans audited meanwhile are not lost.
+     * rows of each day are merged and deleted from old table in one transaction,
+     * so upgrade resumes after crash without merging twice;
+     * node-mgr instances upgrade one by one by GET_LOCK of db.
+     */
+    public void upgradeMonitorTable(int groupId) {
+        String tableName = TableName.MONITOR.getTableName(groupId);
+        String dbName = getDbName();
+        if (!needUpgradeMonitorTable(dbName, tableName)) {
+            return;
+        }
+        // name of GET_LOCK is at most 64 characters
+        String lockName = "upgrade_" + NodeMgrTools.md5Encrypt(dbName + "." + tableName);
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!getLock(lockConnection, lockName)) {
+                log.warn("upgradeMonitorTable skip, lock not got. tableName:{}", tableName);
+                return;
+            }
+            try {
+                // upgraded by other node-mgr while waiting
+                if (needUpgradeMonitorTable(dbName, tableName)) {
+                    doUpgradeMonitorTable(dbName, tableName);
+                }
+            } finally {
+                releaseLock(lockConnection, lockName);
+            }
+        } catch (SQLException ex) {
+            log.error("fail upgradeMonitorTable. tableName:{}", tableName, ex);
+            throw new NodeMgrException(ConstantCode.DB_EXCEPTION, ex);
+        }
+    }
+
+    private boolean needUpgradeMonitorTable(String dbName, String tableName) {
+        if (tableMapper.queryTables(dbName, tableName).isEmpty()) {
+            return false;
+        }
+        // old table left by last upgrade not finished
+        return !tableMapper.queryTables(dbName, tableName + "_old").isEmpty()
+            || tableMapper.countColumn(dbName, tableName, "monitor_key") == 0;
+    }
+
+    private void doUpgradeMonitorTable(String dbName, String tableName) {
+        String oldTableName = tableName + "_old";
+        log.info("start upgradeMonitorTable. tableName:{}", tableName);
+        if (tableMapper.queryTables(dbName, oldTableName).isEmpty()) {
+            String newTableName = tableName + "_new";
+            tableMapper.createUserTransactionMonitor(newTableName);
+            tableMapper.swapTable(tableName, oldTableName, newTableName);
+        }
+        long merged = 0;
+        LocalDateTime minCreateTime;
+        while ((minCreateTime = tableMapper.queryMinCreateTime(oldTableName)) != null) {
+            LocalDateTime fromTime = minCreateTime.toLocalDate().atStartOfDay();
+            merged += mergeMonitorRange(oldTableName, tableName, fromTime, fromTime.plusDays(1));
+        }
+        // rows without create_time
+        merged += mergeMonitorRange(oldTableName, tableName, null, null);
+        tableMapper.dropTable(dbName, oldTableName);
+        log.info("end upgradeMonitorTable. tableName:{} merged:{}", tableName, merged);
+    }
+
+    /**
+     * merge rows of old table in [fromTime, toTime) and delete them in one transaction,
+     * rows with null create_time if fromTime is null.
+     */
+    private int mergeMonitorRange(String oldTableName, String tableName, LocalDateTime fromTime,
+        LocalDateTime toTime) {
+        Integer merged = transactionTemplate.execute(status -> {
+            int rows = tableMapper.mergeMonitorTable(oldTableName, tableName, fromTime, toTime);
+            tableMapper.deleteMonitorRange(oldTableName, fromTime, toTime);
+            return rows;
+        });
+        log.debug("mergeMonitorRange tableName:{} fromTime:{} merged:{}", tableName, fromTime,
+            merged);
+        return merged == null ? 0 : merged;
+    }
+
+    /**
+     * GET_LOCK is held by session, so lock and release on the same connection.
+     */
+    private boolean getLock(Connection connection, String lockName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, lockName);
+            statement.setInt(2, UPGRADE_LOCK_TIMEOUT);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void releaseLock(Connection connection, String lockName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, lockName);
+            statement.executeQuery().close();
+        }
+    }
+
     /**
      * deop table.
      */
@@ -99,7 +215,7 @@ public class TableService {
     /**
      * get db name.
      */
-    private String getDbName() {
+    String getDbName() {
         if (StringUtils.isBlank(dbUrl)) {
             log.error("fail getDbName. dbUrl is null");
             throw new NodeMgrException(ConstantCode.SYSTEM_EXCEPTION);
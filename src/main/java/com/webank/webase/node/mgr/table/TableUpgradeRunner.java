@@ -0,0 +1,54 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.table;
+
+import com.webank.webase.node.mgr.group.GroupService;
+import com.webank.webase.node.mgr.group.entity.TbGroup;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * upgrade tables of groups created by old version on startup, and create partitions ahead
+ */
+@Log4j2
+@Component
+public class TableUpgradeRunner implements CommandLineRunner {
+
+    @Autowired
+    private GroupService groupService;
+    @Autowired
+    private TableService tableService;
+    @Autowired
+    private PartitionService partitionService;
+
+    @Override
+    public void run(String... args) {
+        for (TbGroup group : groupService.getGroupList(null)) {
+            try {
+                tableService.upgradeMonitorTable(group.getGroupId());
+            } catch (Exception ex) {
+                log.error("fail upgradeMonitorTable, groupId:{}", group.getGroupId(), ex);
+            }
+            try {
+                partitionService.extendPartitions(group.getGroupId());
+            } catch (Exception ex) {
+                log.error("fail extendPartitions, groupId:{}", group.getGroupId(), ex);
+            }
+        }
+    }
+}
@@ -27,7 +27,9 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -68,6 +70,10 @@ public class NodeMgrTools {
         'K', 'L', 'M', 'N', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z'};
     private static Random random = new Random();
     public static final String HEADER_ACCOUNT = "Account";
+    /**
+     * length of metadata tail of runtime bin
+     */
+    public static final int BIN_METADATA_LENGTH = 68;
 
 
     /**
@@ -531,6 +537,31 @@ public class NodeMgrTools {
         return contractBinResult;
     }
 
+    /**
+     * fingerprint of runtime bin: sha256 of bin without "0x" and metadata tail.
+     */
+    public static String getRuntimeBinHash(String runtimeBin) {
+        String normalizedBin = removeBinFirstAndLast(runtimeBin, BIN_METADATA_LENGTH);
+        return StringUtils.isBlank(normalizedBin) ? null : shaEncode(normalizedBin);
+    }
+
+    /**
+     * fingerprint of deploy bytecode: sha256 of bytecode without "0x".
+     * input of deploy tx starts with the whole bytecode, so metadata is kept.
+     */
+    public static String getBytecodeBinHash(String bytecodeBin) {
+        String normalizedBin = removeFirstStr(bytecodeBin, "0x");
+        return StringUtils.isBlank(normalizedBin) ? null : shaEncode(normalizedBin);
+    }
+
+    /**
+     * length of deploy bytecode without "0x".
+     */
+    public static Integer getBytecodeBinLength(String bytecodeBin) {
+        String normalizedBin = removeFirstStr(bytecodeBin, "0x");
+        return StringUtils.isBlank(normalizedBin) ? null : normalizedBin.length();
+    }
+
     /**
      * remove fist string.
      */
@@ -585,6 +616,16 @@ public class NodeMgrTools {
         return version;
     }
     
+    private static final int MD5_HEX_LENGTH = 32;
+    private static final char[] HEX_UPPER = "0123456789ABCDEF".toCharArray();
+    private static final ThreadLocal<MessageDigest> MD5_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     /**
      * md5Encrypt.
      * 
@@ -607,6 +648,28 @@ public class NodeMgrTools {
         return "";
     }
     
+    /**
+     * check signature is md5Encrypt of joined data parts, compared in constant time
+     * without building the joined string or hex of digest.
+     */
+    public static boolean md5SignatureMatches(String signature, String... dataParts) {
+        if (signature == null || signature.length() != MD5_HEX_LENGTH) {
+            return false;
+        }
+        MessageDigest digest = MD5_DIGEST.get();
+        digest.reset();
+        for (String part : dataParts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] hash = digest.digest();
+        int diff = 0;
+        for (int i = 0; i < hash.length; i++) {
+            diff |= signature.charAt(2 * i) ^ HEX_UPPER[(hash[i] >> 4) & 0xF];
+            diff |= signature.charAt(2 * i + 1) ^ HEX_UPPER[hash[i] & 0xF];
+        }
+        return diff == 0;
+    }
+
     /**
      * writerFile.
      * 
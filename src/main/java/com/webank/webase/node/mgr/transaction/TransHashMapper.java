@@ -15,11 +15,13 @@
  */
 package com.webank.webase.node.mgr.transaction;
 
+import java.math.BigInteger;
 import java.util.List;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 import com.webank.webase.node.mgr.block.entity.MinMaxBlock;
 import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import com.webank.webase.node.mgr.transaction.entity.UnStatShardCount;
 import com.webank.webase.node.mgr.transaction.entity.TransListParam;
 
 /**
@@ -30,6 +32,8 @@ public interface TransHashMapper {
 
     Integer add(@Param("tableName") String tableName,@Param("trans")TbTransHash tbTransHash);
 
+    Integer batchAdd(@Param("tableName") String tableName,@Param("list") List<TbTransHash> list);
+
     Integer getCount(@Param("tableName") String tableName,@Param("param") TransListParam param);
 
     Integer getCountByMinMax(@Param("tableName") String tableName);
@@ -38,8 +42,13 @@ public interface TransHashMapper {
 
     List<MinMaxBlock> queryMinMaxBlock(@Param("tableName") String tableName);
 
-    Integer remove(@Param("tableName") String tableName,
-        @Param("subTransNum") Integer subTransNum,@Param("groupId") Integer groupId);
+    /**
+     * block of the oldest trans in latest transRetainMax trans, null if not more than it.
+     */
+    BigInteger getRetainFromBlock(@Param("tableName") String tableName,
+        @Param("transRetainMax") Integer transRetainMax);
+
+    BigInteger getMinUnStatBlock(@Param("tableName") String tableName);
 
     List<TbTransHash> listOfUnStatTransHash(@Param("tableName") String tableName);
 
@@ -47,6 +56,12 @@ public interface TransHashMapper {
         @Param("shardingTotalCount") Integer shardingTotalCount,
         @Param("shardingItem") Integer shardingItem);
 
+    List<UnStatShardCount> listUnStatCountByShard(@Param("tableName") String tableName,
+        @Param("shardingTotalCount") Integer shardingTotalCount);
+
     void updateTransStatFlag(@Param("tableName") String tableName,@Param("transHash") String transHash);
 
+    void batchUpdateTransStatFlag(@Param("tableName") String tableName,
+        @Param("list") List<String> transHashList);
+
 }
@@ -21,6 +21,7 @@ import com.webank.webase.node.mgr.block.entity.MinMaxBlock;
 import com.webank.webase.node.mgr.front.frontinterface.FrontInterfaceService;
 import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
 import com.webank.webase.node.mgr.transaction.entity.TransListParam;
+import com.webank.webase.node.mgr.transaction.entity.UnStatShardCount;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
@@ -43,6 +44,10 @@ public class TransHashService {
     private TransHashMapper transHashMapper;
     @Autowired
     private FrontInterfaceService frontInterface;
+    /**
+     * max rows of one insert statement
+     */
+    private static final int BATCH_INSERT_SIZE = 500;
 
     /**
      * add trans hash info.
@@ -55,6 +60,20 @@ public class TransHashService {
         log.debug("end addTransInfo");
     }
 
+    /**
+     * add trans hash info of blocks by multi-row insert.
+     */
+    public void batchAddTransInfo(int groupId, List<TbTransHash> transList)
+        throws NodeMgrException {
+        log.debug("start batchAddTransInfo groupId:{} transSize:{}", groupId, transList.size());
+        String tableName = TableName.TRANS.getTableName(groupId);
+        for (int i = 0; i < transList.size(); i += BATCH_INSERT_SIZE) {
+            int end = Math.min(i + BATCH_INSERT_SIZE, transList.size());
+            transHashMapper.batchAdd(tableName, transList.subList(i, end));
+        }
+        log.debug("end batchAddTransInfo");
+    }
+
     /**
      * query trans list.
      */
@@ -161,15 +180,6 @@ public class TransHashService {
         }
     }
 
-    /**
-     * Remove trans info.
-     */
-    public Integer remove(Integer groupId, Integer subTransNum) {
-        String tableName = TableName.TRANS.getTableName(groupId);
-        Integer affectRow = transHashMapper.remove(tableName, subTransNum, groupId);
-        return affectRow;
-    }
-
 
     /**
      * query un statistics transaction list.
@@ -191,6 +201,14 @@ public class TransHashService {
         return list;
     }
 
+    /**
+     * count trans not audited yet by shard.
+     */
+    public List<UnStatShardCount> queryUnStatCountByShard(int groupId, int shardingTotalCount) {
+        String tableName = TableName.TRANS.getTableName(groupId);
+        return transHashMapper.listUnStatCountByShard(tableName, shardingTotalCount);
+    }
+
     /**
      * update trans statistic flag.
      */
@@ -199,6 +217,17 @@ public class TransHashService {
         transHashMapper.updateTransStatFlag(tableName, transHash);
     }
 
+    /**
+     * update trans statistic flag by batch.
+     */
+    public void batchUpdateTransStatFlag(int groupId, List<String> transHashList) {
+        String tableName = TableName.TRANS.getTableName(groupId);
+        for (int i = 0; i < transHashList.size(); i += BATCH_INSERT_SIZE) {
+            int end = Math.min(i + BATCH_INSERT_SIZE, transHashList.size());
+            transHashMapper.batchUpdateTransStatFlag(tableName, transHashList.subList(i, end));
+        }
+    }
+
     /**
      * get tbTransInfo from chain
      */
@@ -16,6 +16,7 @@
 package com.webank.webase.node.mgr.transdaily;
 
 import java.math.BigInteger;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import org.apache.ibatis.annotations.Param;
@@ -42,6 +43,12 @@ public interface TbTransDailyMapper {
      */
     Integer addTransDailyRow(TbTransDaily tbTransDaily);
 
+    /**
+     * query trans daily of day.
+     */
+    TbTransDaily queryByGroupAndDay(@Param("groupId") Integer groupId,
+        @Param("transDay") LocalDate transDay);
+
     /**
      * query max block number by group id.
      */
@@ -0,0 +1,165 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.transdaily;
+
+import com.webank.webase.node.mgr.block.entity.TbBlock;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * count trans of each day in memory as blocks saved, and flush to tb_trans_daily.
+ * only the contiguous run of blocks right after the max block counted in tb_trans_daily
+ * is flushed, blocks after a gap are dropped and counted by StatisticsTransdailyTask from tb_block.
+ */
+@Log4j2
+@Component
+public class TransDailyCounter {
+
+    @Autowired
+    private TbTransDailyMapper tbTransDailyMapper;
+
+    /**
+     * groupId => day => block number => trans count of block
+     */
+    private final Map<Integer, TreeMap<LocalDate, TreeMap<Long, Integer>>> pendingMap =
+        new ConcurrentHashMap<>();
+
+    /**
+     * count blocks just saved.
+     */
+    public void addBlocks(int groupId, List<TbBlock> blockList) {
+        TreeMap<LocalDate, TreeMap<Long, Integer>> dayMap = pendingMap.computeIfAbsent(groupId,
+            k -> new TreeMap<>());
+        synchronized (dayMap) {
+            for (TbBlock block : blockList) {
+                if (block.getBlockTimestamp() == null || block.getBlockNumber() == null) {
+                    continue;
+                }
+                dayMap.computeIfAbsent(block.getBlockTimestamp().toLocalDate(),
+                    k -> new TreeMap<>()).put(block.getBlockNumber().longValue(),
+                    block.getTransCount());
+            }
+        }
+    }
+
+    /**
+     * flush counted blocks of all group.
+     */
+    public void flush() {
+        for (Integer groupId : pendingMap.keySet()) {
+            try {
+                flushGroup(groupId);
+            } catch (Exception ex) {
+                log.error("fail flush trans daily count. groupId:{}", groupId, ex);
+            }
+        }
+    }
+
+    public void removeGroup(int groupId) {
+        pendingMap.remove(groupId);
+    }
+
+    private void flushGroup(int groupId) {
+        TreeMap<LocalDate, TreeMap<Long, Integer>> dayMap = pendingMap.get(groupId);
+        if (dayMap == null) {
+            return;
+        }
+        TreeMap<LocalDate, TreeMap<Long, Integer>> flushMap;
+        synchronized (dayMap) {
+            if (dayMap.isEmpty()) {
+                return;
+            }
+            flushMap = new TreeMap<>(dayMap);
+            dayMap.clear();
+        }
+
+        BigInteger maxCounted = tbTransDailyMapper.queryMaxBlockByGroup(groupId);
+        long nextBlock = maxCounted == null ? 0 : maxCounted.longValue() + 1;
+        for (Map.Entry<LocalDate, TreeMap<Long, Integer>> entry : flushMap.entrySet()) {
+            LocalDate day = entry.getKey();
+            NavigableMap<Long, Integer> blockMap = entry.getValue().tailMap(nextBlock, true);
+            if (blockMap.isEmpty()) {
+                continue;
+            }
+            // genesis block is not counted by task
+            if (blockMap.firstKey() > Math.max(nextBlock, 1)) {
+                log.debug("flush trans daily jump over, wait for task. groupId:{} day:{}"
+                    + " nextBlock:{} firstBlock:{}", groupId, day, nextBlock, blockMap.firstKey());
+                return;
+            }
+            // only the contiguous run is flushed, blocks after a gap are left to task
+            long lastBlock = blockMap.firstKey() - 1;
+            int transCount = 0;
+            for (Map.Entry<Long, Integer> block : blockMap.entrySet()) {
+                if (block.getKey() != lastBlock + 1) {
+                    break;
+                }
+                lastBlock = block.getKey();
+                transCount += block.getValue() == null ? 0 : block.getValue();
+            }
+            boolean jumpOver = lastBlock < blockMap.lastKey();
+
+            TbTransDaily row = tbTransDailyMapper.queryByGroupAndDay(groupId, day);
+            Integer affected;
+            if (row == null) {
+                affected = tbTransDailyMapper.addTransDailyRow(
+                    new TbTransDaily(groupId, day, transCount, BigInteger.valueOf(lastBlock)));
+            } else {
+                Map<String, Object> paramMap = new HashMap<>();
+                paramMap.put("groupId", groupId);
+                paramMap.put("transDay", day);
+                paramMap.put("oldBlockNumber", row.getBlockNumber());
+                paramMap.put("latestBlockNumber", BigInteger.valueOf(lastBlock));
+                long oldCount = row.getTransCount() == null ? 0 : row.getTransCount();
+                paramMap.put("transCount", BigInteger.valueOf(oldCount + transCount));
+                affected = tbTransDailyMapper.updateTransDaily(paramMap);
+            }
+            if (affected == null || affected == 0) {
+                // changed by task meanwhile, retry in next flush
+                requeue(groupId, flushMap.tailMap(day, true));
+                return;
+            }
+            log.debug("flush trans daily. groupId:{} day:{} lastBlock:{} transCount:{}", groupId,
+                day, lastBlock, transCount);
+            if (jumpOver) {
+                log.debug("flush trans daily jump over, wait for task. groupId:{} day:{}"
+                    + " lastBlock:{}", groupId, day, lastBlock);
+                return;
+            }
+            nextBlock = lastBlock + 1;
+        }
+    }
+
+    private void requeue(int groupId, Map<LocalDate, TreeMap<Long, Integer>> unFlushedMap) {
+        TreeMap<LocalDate, TreeMap<Long, Integer>> dayMap = pendingMap.computeIfAbsent(groupId,
+            k -> new TreeMap<>());
+        synchronized (dayMap) {
+            unFlushedMap.forEach((day, blockMap) -> dayMap.merge(day, blockMap, (newer, older) -> {
+                newer.putAll(older);
+                return newer;
+            }));
+        }
+    }
+}
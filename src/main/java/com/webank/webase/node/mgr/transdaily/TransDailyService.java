@@ -37,6 +37,8 @@ public class TransDailyService {
     private GroupService groupService;
     @Autowired
     private TbTransDailyMapper tbTransDailyMapper;
+    @Autowired
+    private TransDailyCounter transDailyCounter;
 
 
     /**
@@ -114,6 +116,13 @@ public class TransDailyService {
     }
 
 
+    /**
+     * flush daily trans count of blocks saved since last flush.
+     */
+    public void flushDailyCount() {
+        transDailyCounter.flush();
+    }
+
     /**
      * delete by groupId.
      */
@@ -121,6 +130,7 @@ public class TransDailyService {
         if (groupId == 0) {
             return;
         }
+        transDailyCounter.removeGroup(groupId);
         tbTransDailyMapper.deleteByGroupId(groupId);
     }
 }
\ No newline at end of file
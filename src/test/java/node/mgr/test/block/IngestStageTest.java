@@ -0,0 +1,73 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.block;
+
+import com.webank.webase.node.mgr.block.IngestStage;
+import com.webank.webase.node.mgr.block.entity.IngestStageInfo;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IngestStageTest {
+
+    @Test
+    public void testQueuedStage() throws Exception {
+        CountDownLatch latch = new CountDownLatch(10);
+        IngestStage<Integer> stage = new IngestStage<>("test", 2, 1, item -> {
+            if (item == 5) {
+                throw new IllegalStateException("fail item");
+            }
+            latch.countDown();
+        });
+        for (int i = 0; i < 11; i++) {
+            stage.put(i);
+        }
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        // wait worker to count the last item
+        Thread.sleep(100);
+        IngestStageInfo info = stage.getStageInfo();
+        Assert.assertEquals(10L, info.getProcessedCount().longValue());
+        Assert.assertEquals(1L, info.getFailedCount().longValue());
+        Assert.assertEquals(2, info.getQueueCapacity().intValue());
+        stage.shutdown();
+    }
+
+    @Test
+    public void testInlineStage() {
+        IngestStage<Integer> stage = new IngestStage<>("inline");
+        stage.markProcessed(3);
+        stage.markFailed();
+        IngestStageInfo info = stage.getStageInfo();
+        Assert.assertEquals(3L, info.getProcessedCount().longValue());
+        Assert.assertEquals(1L, info.getFailedCount().longValue());
+        Assert.assertEquals(0, info.getQueueSize().intValue());
+    }
+
+    @Test
+    public void testSampleRate() throws Exception {
+        IngestStage<Integer> stage = new IngestStage<>("rate");
+        stage.sample();
+        stage.markProcessed(100);
+        Thread.sleep(50);
+        // rate is of last sample, reading info changes nothing
+        Assert.assertEquals(0.0, stage.getStageInfo().getProcessedPerSecond(), 0.0);
+        stage.sample();
+        double rate = stage.getStageInfo().getProcessedPerSecond();
+        Assert.assertTrue(rate > 0);
+        Assert.assertEquals(rate, stage.getStageInfo().getProcessedPerSecond(), 0.0);
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.frontInterface;
+
+import com.webank.webase.node.mgr.front.frontinterface.FrontCircuitBreaker;
+import com.webank.webase.node.mgr.front.frontinterface.FrontCircuitBreaker.State;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FrontCircuitBreakerTest {
+
+    @Test
+    public void testOpenByConsecutiveFail() throws Exception {
+        FrontCircuitBreaker breaker = new FrontCircuitBreaker("127.0.0.1:5002$GET",
+            2, 100, 60000, 6, 100, 0.5);
+        Assert.assertFalse(breaker.recordFail("fail1"));
+        Assert.assertFalse(breaker.recordFail("fail2"));
+        Assert.assertTrue(breaker.recordFail("fail3"));
+        Assert.assertFalse(breaker.allowRequest());
+
+        // half open after open time, only one probe pass
+        Thread.sleep(150);
+        Assert.assertTrue(breaker.allowRequest());
+        Assert.assertEquals(State.HALF_OPEN, breaker.getState());
+        Assert.assertFalse(breaker.allowRequest());
+
+        // probe fail, open again
+        Assert.assertTrue(breaker.recordFail("probe fail"));
+        Assert.assertFalse(breaker.allowRequest());
+
+        // probe success, closed
+        Thread.sleep(150);
+        Assert.assertTrue(breaker.allowRequest());
+        breaker.recordSuccess();
+        Assert.assertEquals(State.CLOSED, breaker.getState());
+        Assert.assertTrue(breaker.allowRequest());
+        Assert.assertEquals(3L, (long) breaker.getInfo().getRejectedCount());
+    }
+
+    @Test
+    public void testOpenByFailRate() {
+        FrontCircuitBreaker breaker = new FrontCircuitBreaker("127.0.0.1:5002$POST",
+            100, 60000, 60000, 6, 10, 0.5);
+        for (int i = 0; i < 5; i++) {
+            breaker.recordSuccess();
+            Assert.assertFalse(breaker.recordFail("fail"));
+            breaker.recordSuccess();
+        }
+        Assert.assertEquals(State.CLOSED, breaker.getState());
+        // window: 10 success, 10 fail
+        for (int i = 0; i < 5; i++) {
+            breaker.recordFail("fail");
+        }
+        Assert.assertEquals(State.OPEN, breaker.getState());
+        Assert.assertEquals(10L, (long) breaker.getInfo().getWindowFail());
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.frontInterface;
+
+import com.webank.webase.node.mgr.block.NewBlockEvent;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.front.frontinterface.FrontReadCache;
+import com.webank.webase.node.mgr.front.frontinterface.entity.ReadCacheStat;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class FrontReadCacheTest {
+
+    private static final String URI = "web3/blockNumber";
+    private FrontReadCache frontReadCache;
+
+    @Before
+    public void init() {
+        ConstantProperties properties = new ConstantProperties();
+        properties.getFrontReadCacheTtl().put(URI, 60000L);
+        frontReadCache = new FrontReadCache();
+        ReflectionTestUtils.setField(frontReadCache, "cproperties", properties);
+    }
+
+    @Test
+    public void testCoalesceRequest() throws Exception {
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        List<Future<BigInteger>> futureList = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futureList.add(executor.submit(() -> frontReadCache.get(1, URI, () -> {
+                loadCount.incrementAndGet();
+                try {
+                    loading.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return BigInteger.TEN;
+            })));
+        }
+        Thread.sleep(200);
+        loading.countDown();
+        for (Future<BigInteger> future : futureList) {
+            Assert.assertEquals(BigInteger.TEN, future.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        Assert.assertEquals(1, loadCount.get());
+
+        // cached until new block
+        Assert.assertEquals(BigInteger.TEN, frontReadCache.get(1, URI, () -> BigInteger.ONE));
+        frontReadCache.onNewBlock(new NewBlockEvent(this, 1, BigInteger.TEN));
+        Assert.assertEquals(BigInteger.ONE, frontReadCache.get(1, URI, () -> BigInteger.ONE));
+
+        ReadCacheStat stat = frontReadCache.getStatList().get(0);
+        Assert.assertEquals(2L, (long) stat.getMissCount());
+        Assert.assertEquals(5L, stat.getHitCount() + stat.getCoalescedCount());
+    }
+
+    @Test
+    public void testFailNotCached() {
+        try {
+            frontReadCache.get(1, URI, () -> {
+                throw new IllegalStateException("front fail");
+            });
+            Assert.fail();
+        } catch (IllegalStateException ex) {
+            Assert.assertEquals("front fail", ex.getMessage());
+        }
+        Assert.assertEquals(BigInteger.ONE, frontReadCache.get(1, URI, () -> BigInteger.ONE));
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.group;
+
+import com.webank.webase.node.mgr.group.TopologySnapshot;
+import com.webank.webase.node.mgr.group.entity.GroupTopology;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TopologySnapshotTest {
+
+    @Test
+    public void testConsensusFromSealerFront() {
+        TopologySnapshot snapshot = new TopologySnapshot();
+        // removed observer still reports itself as observer
+        snapshot.addFront(1, Collections.singletonList(1), Collections.singletonList(
+            topology(1, "node3", Arrays.asList("node1", "node2", "node3"),
+                Arrays.asList("node1", "node2"), Collections.singletonList("node3"))));
+        snapshot.addFront(2, Collections.singletonList(1), Collections.singletonList(
+            topology(2, "node1", Arrays.asList("node1", "node2", "node3"),
+                Arrays.asList("node1", "node2"), Collections.emptyList())));
+
+        Assert.assertEquals(2, snapshot.getReachableFrontCount());
+        Assert.assertEquals(3, snapshot.getNodeCount(1));
+        Assert.assertEquals(Arrays.asList("node1", "node2"),
+            new ArrayList<>(snapshot.getExpectedNodeSet(1)));
+        Assert.assertEquals("node2", snapshot.getPeerInfo(1, "node2").getNodeId());
+    }
+
+    @Test
+    public void testConsensusUnknown() {
+        TopologySnapshot snapshot = new TopologySnapshot();
+        GroupTopology topology = topology(1, "node1", Collections.singletonList("node1"),
+            null, null);
+        snapshot.addFront(1, Arrays.asList(1, 2), Collections.singletonList(topology));
+
+        Assert.assertNull(snapshot.getConsensusNodeSet(1));
+        Assert.assertEquals(1, snapshot.getExpectedNodeSet(1).size());
+        Assert.assertEquals(2, snapshot.getAllGroupSet().size());
+        Assert.assertEquals(1, snapshot.getKnownGroupSet().size());
+        Assert.assertNull(snapshot.getGroupListOfFront(2));
+    }
+
+    private GroupTopology topology(int frontId, String nodeId, List<String> groupPeerList,
+        List<String> sealerList, List<String> observerList) {
+        GroupTopology topology = new GroupTopology();
+        topology.setFrontId(frontId);
+        topology.setNodeId(nodeId);
+        topology.setGroupId(1);
+        topology.setGroupPeerList(groupPeerList);
+        topology.setPeerList(Collections.emptyList());
+        topology.setSealerList(sealerList);
+        topology.setObserverList(observerList);
+        topology.setGroupStatus("RUNNING");
+        return topology;
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.method;
+
+import com.webank.webase.node.mgr.method.SelectorTable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SelectorTableTest {
+
+    @Test
+    public void testParseSelector() {
+        Assert.assertEquals(Integer.valueOf(0xbd291aef), SelectorTable.parseSelector("0xbd291aef"));
+        Assert.assertEquals(Integer.valueOf(0), SelectorTable.parseSelector("0x00000000"));
+        Assert.assertNull(SelectorTable.parseSelector("bd291aef"));
+        Assert.assertNull(SelectorTable.parseSelector("0xbd291aefbd"));
+        Assert.assertNull(SelectorTable.parseSelector("0xbd291azz"));
+        Assert.assertNull(SelectorTable.parseSelector(null));
+    }
+
+    @Test
+    public void testPlusAndGet() {
+        SelectorTable<String> table = SelectorTable.empty();
+        Assert.assertNull(table.get(1));
+
+        table = table.plus(new int[]{0, -1, 7}, new String[]{"zero", "max", "seven"});
+        Assert.assertEquals(3, table.size());
+        Assert.assertEquals("zero", table.get(0));
+        Assert.assertEquals("max", table.get(-1));
+        Assert.assertNull(table.get(8));
+
+        SelectorTable<String> replaced = table.plus(new int[]{7}, new String[]{"new"});
+        Assert.assertEquals(3, replaced.size());
+        Assert.assertEquals("new", replaced.get(7));
+        // old table not changed
+        Assert.assertEquals("seven", table.get(7));
+    }
+
+    @Test
+    public void testManyKeys() {
+        Random random = new Random(1);
+        Map<Integer, String> expected = new HashMap<>();
+        SelectorTable<String> table = SelectorTable.empty();
+        for (int round = 0; round < 20; round++) {
+            int[] keys = new int[100];
+            String[] values = new String[100];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextInt();
+                values[i] = round + "-" + i;
+                expected.put(keys[i], values[i]);
+            }
+            table = table.plus(keys, values);
+        }
+        Assert.assertEquals(expected.size(), table.size());
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+            Assert.assertEquals(entry.getValue(), table.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void testSortedKeys() {
+        Assert.assertArrayEquals(new int[]{-5, 1, 3}, SelectorTable.sortedKeys(new int[]{3, -5, 1, 3}));
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.node;
+
+import com.webank.webase.node.mgr.base.enums.DataStatus;
+import com.webank.webase.node.mgr.node.NodeStatusSnapshot;
+import com.webank.webase.node.mgr.node.entity.TbNode;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NodeStatusSnapshotTest {
+
+    @Test
+    public void testEvaluate() {
+        Map<String, BigInteger> blockNumberMap = new HashMap<>();
+        blockNumberMap.put("sealer", BigInteger.valueOf(10));
+        blockNumberMap.put("stalled", BigInteger.valueOf(5));
+        blockNumberMap.put("observer", BigInteger.valueOf(8));
+        Map<String, BigInteger> viewMap = new HashMap<>();
+        viewMap.put("sealer", BigInteger.valueOf(100));
+        viewMap.put("stalled", BigInteger.valueOf(50));
+        AtomicInteger chainQueried = new AtomicInteger();
+        NodeStatusSnapshot snapshot = new NodeStatusSnapshot(blockNumberMap, viewMap,
+            Collections.singleton("observer"), () -> {
+                chainQueried.incrementAndGet();
+                return BigInteger.valueOf(10);
+            });
+
+        TbNode sealer = node("sealer", 9, 99, DataStatus.NORMAL.getValue());
+        Assert.assertTrue(snapshot.evaluate(sealer));
+        Assert.assertEquals(BigInteger.valueOf(10), sealer.getBlockNumber());
+        Assert.assertEquals(DataStatus.NORMAL.getValue(), sealer.getNodeActive());
+        // same as chain now, invalid
+        Assert.assertTrue(snapshot.evaluate(sealer));
+        Assert.assertEquals(DataStatus.INVALID.getValue(), sealer.getNodeActive());
+        // still invalid, not changed
+        Assert.assertFalse(snapshot.evaluate(sealer));
+        Assert.assertEquals(0, chainQueried.get());
+
+        TbNode stalled = node("stalled", 5, 50, DataStatus.INVALID.getValue());
+        Assert.assertFalse(snapshot.evaluate(stalled));
+
+        // observer behind chain and not moving
+        TbNode observer = node("observer", 8, 0, DataStatus.NORMAL.getValue());
+        Assert.assertTrue(snapshot.evaluate(observer));
+        Assert.assertEquals(DataStatus.INVALID.getValue(), observer.getNodeActive());
+        Assert.assertFalse(snapshot.evaluate(observer));
+        Assert.assertEquals(1, chainQueried.get());
+
+        // node not found in sync status
+        TbNode unknown = node("unknown", 3, 3, DataStatus.NORMAL.getValue());
+        Assert.assertTrue(snapshot.evaluate(unknown));
+        Assert.assertEquals(BigInteger.ZERO, unknown.getBlockNumber());
+    }
+
+    private TbNode node(String nodeId, long blockNumber, long view, int nodeActive) {
+        TbNode tbNode = new TbNode();
+        tbNode.setNodeId(nodeId);
+        tbNode.setBlockNumber(BigInteger.valueOf(blockNumber));
+        tbNode.setPbftView(BigInteger.valueOf(view));
+        tbNode.setNodeActive(nodeActive);
+        return tbNode;
+    }
+}
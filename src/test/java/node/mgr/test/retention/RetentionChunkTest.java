@@ -0,0 +1,54 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.retention;
+
+import com.webank.webase.node.mgr.retention.RetentionChunk;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RetentionChunkTest {
+
+    @Test
+    public void testNextBlocks() {
+        // empty range grows, but not over chunkRows
+        Assert.assertEquals(20, RetentionChunk.nextBlocks(10, 0, 1000));
+        Assert.assertEquals(1000, RetentionChunk.nextBlocks(800, 0, 1000));
+        // dense range shrinks to chunkRows
+        Assert.assertEquals(25, RetentionChunk.nextBlocks(100, 4000, 1000));
+        Assert.assertEquals(1, RetentionChunk.nextBlocks(1, 5000, 1000));
+        // sparse range grows at most twice
+        Assert.assertEquals(200, RetentionChunk.nextBlocks(100, 10, 1000));
+    }
+
+    @Test
+    public void testFirstBlocks() {
+        // unknown density starts from 1 block
+        Assert.assertEquals(1, RetentionChunk.firstBlocks(null, 1000));
+        // one row per block, or blocks without trans
+        Assert.assertEquals(1000, RetentionChunk.firstBlocks(1.0, 1000));
+        Assert.assertEquals(1000, RetentionChunk.firstBlocks(0.0, 1000));
+        Assert.assertEquals(4, RetentionChunk.firstBlocks(250.0, 1000));
+        Assert.assertEquals(1, RetentionChunk.firstBlocks(5000.0, 1000));
+        Assert.assertEquals(1000, RetentionChunk.firstBlocks(0.5, 1000));
+    }
+
+    @Test
+    public void testPauseTime() {
+        Assert.assertEquals(400, RetentionChunk.pauseTime(100, 20));
+        Assert.assertEquals(0, RetentionChunk.pauseTime(100, 100));
+        Assert.assertEquals(9900, RetentionChunk.pauseTime(100, 0));
+    }
+}
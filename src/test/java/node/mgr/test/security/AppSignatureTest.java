@@ -0,0 +1,39 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.security;
+
+import com.webank.webase.node.mgr.tools.NodeMgrTools;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AppSignatureTest {
+
+    @Test
+    public void testSignatureMatches() {
+        String timestamp = "1614928857832";
+        String appKey = "fdsf78aW";
+        String appSecret = "oMdarsqFOsSWRCHkKTTbEsuE7Ua4VaIm";
+        String signature = NodeMgrTools.md5Encrypt(timestamp + appKey + appSecret);
+        Assert.assertTrue(NodeMgrTools.md5SignatureMatches(signature, timestamp, appKey, appSecret));
+        // signature of md5Encrypt is upper case
+        Assert.assertFalse(NodeMgrTools.md5SignatureMatches(signature.toLowerCase(), timestamp,
+            appKey, appSecret));
+        Assert.assertFalse(NodeMgrTools.md5SignatureMatches(signature, timestamp, appKey, "x"));
+        Assert.assertFalse(NodeMgrTools.md5SignatureMatches(signature.substring(1), timestamp,
+            appKey, appSecret));
+        Assert.assertFalse(NodeMgrTools.md5SignatureMatches(null, timestamp, appKey, appSecret));
+    }
+}
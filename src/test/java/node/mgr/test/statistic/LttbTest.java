@@ -0,0 +1,60 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.statistic;
+
+import com.webank.webase.node.mgr.statistic.Lttb;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LttbTest {
+
+    @Test
+    public void testNotDownsample() {
+        long[] x = {1, 2, 3, 4};
+        double[] y = {1, 2, 3, 4};
+        Assert.assertArrayEquals(new int[]{0, 1, 2, 3}, Lttb.selectIndexes(x, y, 4));
+        Assert.assertArrayEquals(new int[]{0, 1, 2, 3}, Lttb.selectIndexes(x, y, 10));
+        Assert.assertArrayEquals(new int[]{0, 1, 2, 3}, Lttb.selectIndexes(x, y, 2));
+    }
+
+    @Test
+    public void testKeepPeak() {
+        int size = 1000;
+        long[] x = new long[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = i * 5000L;
+            y[i] = 10;
+        }
+        y[437] = 500;
+        y[800] = -200;
+        int[] indexes = Lttb.selectIndexes(x, y, 50);
+        Assert.assertEquals(50, indexes.length);
+        Assert.assertEquals(0, indexes[0]);
+        Assert.assertEquals(size - 1, indexes[49]);
+        boolean peak = false;
+        boolean valley = false;
+        for (int i = 0; i < indexes.length; i++) {
+            if (i > 0) {
+                Assert.assertTrue(indexes[i] > indexes[i - 1]);
+            }
+            peak |= indexes[i] == 437;
+            valley |= indexes[i] == 800;
+        }
+        Assert.assertTrue(peak);
+        Assert.assertTrue(valley);
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.table;
+
+import com.webank.webase.node.mgr.table.PartitionRange;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PartitionRangeTest {
+
+    @Test
+    public void testNewBoundsOfEmptyTable() {
+        Assert.assertEquals(Arrays.asList(100L, 200L, 300L),
+            PartitionRange.newBounds(null, 0, 100, 2));
+        Assert.assertEquals(Arrays.asList(300L, 400L, 500L),
+            PartitionRange.newBounds(null, 250, 100, 2));
+    }
+
+    @Test
+    public void testNewBoundsAfterLastBound() {
+        // enough partitions ahead
+        Assert.assertEquals(Collections.emptyList(),
+            PartitionRange.newBounds(500L, 250, 100, 2));
+        Assert.assertEquals(Collections.singletonList(500L),
+            PartitionRange.newBounds(400L, 250, 100, 2));
+        // rows above last bound are in the first new partition
+        Assert.assertEquals(Arrays.asList(1100L, 1200L, 1300L),
+            PartitionRange.newBounds(400L, 1050, 100, 2));
+        // last bound not aligned to step
+        Assert.assertEquals(Arrays.asList(300L, 400L, 500L),
+            PartitionRange.newBounds(250L, 250, 100, 2));
+    }
+
+    @Test
+    public void testExpiredBounds() {
+        Assert.assertEquals(Arrays.asList(100L, 200L),
+            PartitionRange.expiredBounds(Arrays.asList(100L, 200L, 300L), 200));
+        Assert.assertEquals(Collections.emptyList(),
+            PartitionRange.expiredBounds(Arrays.asList(100L, 200L), 99));
+    }
+
+    @Test
+    public void testDayPartition() {
+        // same as mysql TO_DAYS('2023-07-01')
+        long days = PartitionRange.toDays(LocalDate.of(2023, 7, 1));
+        Assert.assertEquals(739067L, days);
+        Assert.assertEquals(LocalDate.of(2023, 7, 1), PartitionRange.fromDays(days));
+        Assert.assertEquals("p20230701", PartitionRange.DAY.partitionName(days));
+        Assert.assertEquals("2023-07-01", PartitionRange.DAY.format(days));
+        Assert.assertEquals("p100000", PartitionRange.HEIGHT.partitionName(100000));
+    }
+}